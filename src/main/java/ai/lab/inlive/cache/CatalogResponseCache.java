@@ -0,0 +1,93 @@
+package ai.lab.inlive.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Готовые JSON-ответы каталога вместе с ETag. Запись действительна, пока не изменилась версия источника,
+ * поэтому повторный запрос (в том числе с If-None-Match) не трогает ни базу, ни сериализатор.
+ * ETag считается по содержимому, так что совпадает на всех экземплярах. 304 отдаёт сам Spring MVC,
+ * сравнивая ETag ответа с If-None-Match.
+ */
+@Component
+public class CatalogResponseCache {
+    public static final CacheControl REFERENCE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate();
+    public static final CacheControl REVALIDATE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private static final long MAX_CACHED_BYTES = 32L * 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedResponse> responses;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CatalogResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(MAX_CACHED_BYTES)
+                .weigher((String key, CachedResponse response) -> response.body().length)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+    }
+
+    public ResponseEntity<byte[]> respond(String key, Object version, CacheControl cacheControl, Supplier<?> body) {
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            hits.increment();
+        } else {
+            misses.increment();
+            cached = serialize(version, body.get());
+            responses.put(key, cached);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(cached.etag())
+                .cacheControl(cacheControl)
+                .body(cached.body());
+    }
+
+    private CachedResponse serialize(Object version, Object body) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(version, bytes, etagOf(bytes));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize catalog response", ex);
+        }
+    }
+
+    private static String etagOf(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("inlive.catalog_response_cache.requests")
+                .description("Catalog responses served from pre-serialized bytes")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CachedResponse(Object version, byte[] body, String etag) {
+    }
+}
@@ -0,0 +1,238 @@
+package ai.lab.inlive.cache;
+
+import ai.lab.inlive.entities.City;
+import ai.lab.inlive.entities.Dictionary;
+import ai.lab.inlive.entities.District;
+import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.repositories.CityRepository;
+import ai.lab.inlive.repositories.DictionaryRepository;
+import ai.lab.inlive.repositories.DistrictRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Неизменяемый снимок живых словарей, районов и городов. Снимок целиком заменяется после коммита
+ * изменений словарей и по расписанию (чтобы подхватить изменения с других экземпляров).
+ * При промахе id проверяется в базе, и если запись есть - снимок перечитывается.
+ */
+@Slf4j
+@Component
+public class ReferenceDataCache {
+    private final DictionaryRepository dictionaryRepository;
+    private final DistrictRepository districtRepository;
+    private final CityRepository cityRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+    private final Meters dictionaryMeters;
+    private final Meters districtMeters;
+    private final Meters cityMeters;
+
+    public ReferenceDataCache(DictionaryRepository dictionaryRepository,
+                              DistrictRepository districtRepository,
+                              CityRepository cityRepository,
+                              MeterRegistry meterRegistry) {
+        this.dictionaryRepository = dictionaryRepository;
+        this.districtRepository = districtRepository;
+        this.cityRepository = cityRepository;
+        this.dictionaryMeters = new Meters(meterRegistry, "dictionary");
+        this.districtMeters = new Meters(meterRegistry, "district");
+        this.cityMeters = new Meters(meterRegistry, "city");
+        Gauge.builder("inlive.reference_cache.size", snapshot, ref -> ref.get() == null ? 0 : ref.get().size())
+                .description("Entries in the reference data snapshot")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        current();
+    }
+
+    @Scheduled(fixedRate = 300000)
+    public void refresh() {
+        if (snapshot.get() != null) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        Snapshot fresh = new Snapshot(
+                dictionaryRepository.findAllByIsDeletedFalse().stream().map(ReferenceDataCache::toRef).toList(),
+                districtRepository.findAllByIsDeletedFalse().stream().map(ReferenceDataCache::toRef).toList(),
+                cityRepository.findAllByIsDeletedFalse().stream().map(ReferenceDataCache::toRef).toList());
+        Snapshot previous = snapshot.getAndSet(fresh);
+        if (previous == null || !previous.sameContent(fresh)) {
+            version.incrementAndGet();
+        }
+        log.debug("Reference data cache loaded: {} entries", fresh.size());
+    }
+
+    /**
+     * Перечитывает снимок после коммита текущей транзакции (или сразу, если транзакции нет).
+     */
+    public void dictionariesChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    /**
+     * Меняется только при изменении содержимого снимка, плановое перечитывание без изменений его не трогает.
+     */
+    public long version() {
+        current();
+        return version.get();
+    }
+
+    public Optional<DictionaryRef> findDictionary(Long id) {
+        return find(id, current().dictionaries, dictionaryMeters,
+                missing -> dictionaryRepository.findByIdAndIsDeletedFalse(missing).map(ReferenceDataCache::toRef));
+    }
+
+    public List<DictionaryRef> findDictionariesByKey(DictionaryKey key) {
+        return current().dictionariesByKey.getOrDefault(key, List.of());
+    }
+
+    public Optional<DistrictRef> findDistrict(Long id) {
+        return find(id, current().districts, districtMeters,
+                missing -> districtRepository.findById(missing)
+                        .filter(district -> !district.getIsDeleted())
+                        .map(ReferenceDataCache::toRef));
+    }
+
+    public List<DistrictRef> findAllDistricts() {
+        return current().districtList;
+    }
+
+    public List<DistrictRef> findDistrictsByCity(Long cityId) {
+        return current().districtsByCity.getOrDefault(cityId, List.of());
+    }
+
+    public Optional<CityRef> findCity(Long id) {
+        return find(id, current().cities, cityMeters,
+                missing -> cityRepository.findByIdAndIsDeletedFalse(missing).map(ReferenceDataCache::toRef));
+    }
+
+    private <T> Optional<T> find(Long id, Map<Long, T> cached, Meters meters, Function<Long, Optional<T>> loader) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        T ref = cached.get(id);
+        if (ref != null) {
+            meters.hits.increment();
+            return Optional.of(ref);
+        }
+        meters.misses.increment();
+        Optional<T> loaded = loader.apply(id);
+        if (loaded.isPresent()) {
+            // Запись появилась на другом экземпляре или до перечитывания снимка
+            reload();
+        }
+        return loaded;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot.get() == null) {
+                    reload();
+                }
+                current = snapshot.get();
+            }
+        }
+        return current;
+    }
+
+    private static DictionaryRef toRef(Dictionary dictionary) {
+        return new DictionaryRef(dictionary.getId(), dictionary.getKey(), dictionary.getValue());
+    }
+
+    private static DistrictRef toRef(District district) {
+        return new DistrictRef(district.getId(), district.getCity().getId(), district.getName());
+    }
+
+    private static CityRef toRef(City city) {
+        return new CityRef(city.getId(), city.getName());
+    }
+
+    public record DictionaryRef(Long id, DictionaryKey key, String value) {
+    }
+
+    public record DistrictRef(Long id, Long cityId, String name) {
+    }
+
+    public record CityRef(Long id, String name) {
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, DictionaryRef> dictionaries;
+        private final Map<DictionaryKey, List<DictionaryRef>> dictionariesByKey;
+        private final Map<Long, DistrictRef> districts;
+        private final List<DistrictRef> districtList;
+        private final Map<Long, List<DistrictRef>> districtsByCity;
+        private final Map<Long, CityRef> cities;
+
+        private Snapshot(List<DictionaryRef> dictionaries, List<DistrictRef> districts, List<CityRef> cities) {
+            this.dictionaries = Map.copyOf(dictionaries.stream()
+                    .collect(Collectors.toMap(DictionaryRef::id, Function.identity())));
+            this.dictionariesByKey = Map.copyOf(dictionaries.stream()
+                    .collect(Collectors.groupingBy(DictionaryRef::key, Collectors.toUnmodifiableList())));
+            this.districts = Map.copyOf(districts.stream()
+                    .collect(Collectors.toMap(DistrictRef::id, Function.identity())));
+            this.districtList = List.copyOf(districts);
+            this.districtsByCity = Map.copyOf(districts.stream()
+                    .collect(Collectors.groupingBy(DistrictRef::cityId, Collectors.toUnmodifiableList())));
+            this.cities = Map.copyOf(cities.stream()
+                    .collect(Collectors.toMap(CityRef::id, Function.identity())));
+        }
+
+        private int size() {
+            return dictionaries.size() + districts.size() + cities.size();
+        }
+
+        private boolean sameContent(Snapshot other) {
+            return dictionaries.equals(other.dictionaries)
+                    && districts.equals(other.districts)
+                    && cities.equals(other.cities);
+        }
+    }
+
+    private static final class Meters {
+        private final Counter hits;
+        private final Counter misses;
+
+        private Meters(MeterRegistry meterRegistry, String type) {
+            this.hits = counter(meterRegistry, type, "hit");
+            this.misses = counter(meterRegistry, type, "miss");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String type, String result) {
+            return Counter.builder("inlive.reference_cache.requests")
+                    .description("Reference data lookups served from the in-memory snapshot")
+                    .tag("type", type)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ai.lab.inlive.cache;
+
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Фасеты поиска по нормализованным фильтрам. Сбрасываются после каждого изменения инвентаря,
+ * TTL страхует от изменений, прошедших мимо трекера (например, переименования справочников).
+ */
+@Component
+public class SearchFacetCache {
+    private final Cache<FacetKey, SearchFacetsResponse> facets = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    /**
+     * filters должен быть нормализован ({@link #normalizeText(String)}) и не меняться после вызова:
+     * он же ключ кэша.
+     */
+    public SearchFacetsResponse get(String scope, Object filters, Supplier<SearchFacetsResponse> loader) {
+        return facets.get(new FacetKey(scope, filters), key -> loader.get());
+    }
+
+    public void invalidateAll() {
+        facets.invalidateAll();
+    }
+
+    // Текстовые фильтры регистронезависимы, поэтому "Sea " и "sea" дают один ключ
+    public static String normalizeText(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record FacetKey(String scope, Object filters) {
+    }
+}
@@ -0,0 +1,16 @@
+package ai.lab.inlive.config;
+
+import ai.lab.inlive.config.interceptors.PersistableEntityInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer persistableEntityInterceptorCustomizer() {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new PersistableEntityInterceptor());
+    }
+}
@@ -0,0 +1,23 @@
+package ai.lab.inlive.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Функции pg_trgm для JPQL. trgm_word_match(column, query) разворачивается в оператор %>,
+ * который в отличие от вызова word_similarity использует триграммный GIN-индекс по колонке.
+ * Подключается через META-INF/services.
+ */
+public class TrigramFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry()
+                .registerPattern("trgm_word_match", "(?1 %> ?2)", types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry()
+                .registerNamed("word_similarity", types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,32 @@
+package ai.lab.inlive.config.ids;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+public class TimeSortedIdGenerator implements BeforeExecutionGenerator {
+
+    // Генератор создаётся при построении SessionFactory, так что без NODE_ID приложение не стартует
+    public TimeSortedIdGenerator() {
+        TimeSortedIds.node();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return currentValue != null ? currentValue : TimeSortedIds.next();
+    }
+
+    // Id, назначенный в конструкторе AbstractEntity или вручную, сохраняется как есть
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,83 @@
+package ai.lab.inlive.config.ids;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Генератор 64-битных идентификаторов, упорядоченных по времени создания.
+ * Формат: 41 бит - миллисекунды от {@link #EPOCH}, 4 бита - номер узла, 8 бит - счётчик внутри миллисекунды.
+ * Итоговое значение умещается в 53 бита и без потерь передаётся в JSON клиентам на JavaScript.
+ * Номер узла берётся из обязательной переменной окружения NODE_ID (0-15) и должен быть уникален среди экземпляров:
+ * узлы с одинаковым номером выдают одинаковые id в одну миллисекунду.
+ */
+public final class TimeSortedIds {
+    static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+    static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    TimeSortedIds(long node, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalStateException("NODE_ID must be between 0 and " + MAX_NODE + ", got " + node);
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    public static long next() {
+        return Holder.INSTANCE.nextId();
+    }
+
+    /**
+     * Номер узла этого экземпляра. Первое обращение проверяет NODE_ID и падает, если он не задан.
+     */
+    public static long node() {
+        return Holder.INSTANCE.node;
+    }
+
+    synchronized long nextId() {
+        // При переводе часов назад продолжаем с последней выданной миллисекунды, чтобы не нарушить порядок
+        long timestamp = Math.max(clock.getAsLong() - EPOCH, lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                timestamp = waitNextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    private long waitNextMillis(long lastTimestamp) {
+        long timestamp = clock.getAsLong() - EPOCH;
+        while (timestamp <= lastTimestamp) {
+            Thread.onSpinWait();
+            timestamp = clock.getAsLong() - EPOCH;
+        }
+        return timestamp;
+    }
+
+    static long parseNode(String configured) {
+        if (configured == null || configured.isBlank()) {
+            throw new IllegalStateException("NODE_ID is not set: every instance needs a unique node number between 0 and " + MAX_NODE);
+        }
+        try {
+            return Long.parseLong(configured.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("NODE_ID must be a number, got " + configured, ex);
+        }
+    }
+
+    private static final class Holder {
+        private static final TimeSortedIds INSTANCE =
+                new TimeSortedIds(parseNode(System.getenv("NODE_ID")), System::currentTimeMillis);
+    }
+}
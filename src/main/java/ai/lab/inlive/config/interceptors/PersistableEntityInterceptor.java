@@ -0,0 +1,19 @@
+package ai.lab.inlive.config.interceptors;
+
+import ai.lab.inlive.entities.AbstractEntity;
+import org.hibernate.Interceptor;
+
+/**
+ * Сообщает Hibernate, что сущность с назначенным заранее id ещё не сохранена,
+ * чтобы каскадное сохранение не делало лишний SELECT для проверки её существования.
+ */
+public class PersistableEntityInterceptor implements Interceptor {
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        if (entity instanceof AbstractEntity<?> abstractEntity) {
+            return abstractEntity.isNew();
+        }
+        return null;
+    }
+}
@@ -8,10 +8,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -50,6 +52,10 @@ public class UnknownParametersInterceptor implements HandlerInterceptor {
                 Class<?> paramType = parameter.getType();
                 validParamNames.addAll(getFieldNames(paramType));
             }
+            RequestParam requestParam = AnnotationUtils.getAnnotation(parameter, RequestParam.class);
+            if (requestParam != null) {
+                validParamNames.add(requestParam.name().isEmpty() ? parameter.getName() : requestParam.name());
+            }
         }
 
         Map<String, String[]> requestParams = request.getParameterMap();
@@ -1,14 +1,20 @@
 package ai.lab.inlive.controllers;
 
+import ai.lab.inlive.cache.CatalogResponseCache;
+import ai.lab.inlive.dto.base.FacetedPaginatedResponse;
 import ai.lab.inlive.dto.base.PaginatedResponse;
 import ai.lab.inlive.dto.params.AccommodationSearchParams;
+import ai.lab.inlive.dto.params.CalendarParams;
 import ai.lab.inlive.dto.request.AccommodationCreateRequest;
 import ai.lab.inlive.dto.request.AccommodationDictionariesUpdateRequest;
 import ai.lab.inlive.dto.request.AccommodationUpdateRequest;
 import ai.lab.inlive.dto.response.AccSearchRequestResponse;
 import ai.lab.inlive.dto.response.AccommodationResponse;
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
+import ai.lab.inlive.dto.response.UnitCalendarResponse;
 import ai.lab.inlive.security.authorization.AccessForAdminsAndSuperManagers;
 import ai.lab.inlive.services.AccommodationService;
+import ai.lab.inlive.services.AvailabilityCalendarService;
 import ai.lab.inlive.constants.Utils;
 import ai.lab.inlive.validators.ValidFiles;
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,6 +42,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
+import static ai.lab.inlive.cache.CatalogResponseCache.REVALIDATE_CACHE_CONTROL;
+
 @Slf4j
 @Validated
 @RestController
@@ -44,6 +52,8 @@ import java.util.List;
 @Tag(name = "Accommodation", description = "API для работы с размещениями")
 public class AccommodationController {
     private final AccommodationService accommodationService;
+    private final AvailabilityCalendarService availabilityCalendarService;
+    private final CatalogResponseCache catalogResponseCache;
 
     @AccessForAdminsAndSuperManagers
     @Operation(summary = "Создать размещение", description = "Создание нового размещения. Изображения: только JPEG, PNG, JPG. Максимальный размер файла: 10 МБ, запроса: 50 МБ")
@@ -76,14 +86,31 @@ public class AccommodationController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Размещение успешно получено",
                     content = @Content(schema = @Schema(implementation = AccommodationResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Размещение не изменилось с версии из If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "Размещение не найдено", content = @Content),
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<AccommodationResponse> getAccommodationById(
+    public ResponseEntity<byte[]> getAccommodationById(
             @Parameter(description = "ID размещения", example = "1")
             @PathVariable Long id) {
-        return ResponseEntity.ok(accommodationService.getAccommodationById(id));
+        return catalogResponseCache.respond("accommodation:" + id, accommodationService.getCatalogVersion(id),
+                REVALIDATE_CACHE_CONTROL, () -> accommodationService.getAccommodationById(id));
+    }
+
+    @Operation(summary = "Получить календарь доступности единиц размещения", description = "Доступность всех квартир/номеров размещения по ночам в периоде [from, to)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Календарь успешно получен"),
+            @ApiResponse(responseCode = "400", description = "Некорректный период", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Размещение не найдено", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
+    })
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<List<UnitCalendarResponse>> getAccommodationCalendar(
+            @Parameter(description = "ID размещения", example = "1")
+            @PathVariable Long id,
+            @ModelAttribute CalendarParams params) {
+        return ResponseEntity.ok(availabilityCalendarService.getAccommodationCalendar(id, params));
     }
 
     @Operation(summary = "Получить все размещения, соответствующие фильтрам", description = "Получение списка размещений с возможностью фильтрации")
@@ -93,19 +120,22 @@ public class AccommodationController {
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
     })
     @GetMapping("/search")
-    public ResponseEntity<PaginatedResponse<AccommodationResponse>> searchAccommodations(
+    public ResponseEntity<FacetedPaginatedResponse<AccommodationResponse>> searchAccommodations(
             @ModelAttribute AccommodationSearchParams accommodationSearchParams,
             @Parameter(description = "Номер страницы (начиная с 0)") @RequestParam(defaultValue = "0") Integer page,
             @Parameter(description = "Размер страницы") @RequestParam(defaultValue = "20") Integer size,
             @Parameter(description = "Поле для сортировки") @RequestParam(defaultValue = "id") String sortBy,
-            @Parameter(description = "Направление сортировки (asc/desc)") @RequestParam(defaultValue = "asc") String sortDirection) {
+            @Parameter(description = "Направление сортировки (asc/desc)") @RequestParam(defaultValue = "asc") String sortDirection,
+            @Parameter(description = "Добавить в ответ количество результатов по районам, типам, услугам, рейтингу и цене")
+            @RequestParam(defaultValue = "false") Boolean withFacets) {
         Pageable pageable = PageRequest.of(
                 page,
                 size,
                 Sort.by("desc".equalsIgnoreCase(sortDirection) ? Sort.Order.desc(sortBy) : Sort.Order.asc(sortBy))
         );
         Page<AccommodationResponse> response = accommodationService.searchWithParams(accommodationSearchParams, pageable);
-        return ResponseEntity.ok(new PaginatedResponse<>(response));
+        SearchFacetsResponse facets = withFacets ? accommodationService.getSearchFacets(accommodationSearchParams) : null;
+        return ResponseEntity.ok(new FacetedPaginatedResponse<>(response, facets));
     }
 
     @Operation(summary = "Обновить размещение", description = "Обновление данных размещения")
@@ -263,7 +293,8 @@ public class AccommodationController {
 
     @Operation(summary = "Получить релевантные заявки для размещения",
             description = "Получение списка активных заявок, которые соответствуют данному размещению по всем критериям: " +
-                    "услуги, условия, район, рейтинг, тип недвижимости. Ищет заявки, которые подходят хотя бы для одного unit в этом accommodation. " +
+                    "услуги, условия, район, рейтинг, тип недвижимости. Тип недвижимости должен быть хотя бы у одного unit в этом accommodation, " +
+                    "а услуги и условия заявки могут быть у разных unit. " +
                     "Показываются только заявки со статусами: OPEN_TO_PRICE_REQUEST, PRICE_REQUEST_PENDING, WAIT_TO_RESERVATION")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список релевантных заявок успешно получен"),
@@ -1,7 +1,9 @@
 package ai.lab.inlive.controllers;
 
+import ai.lab.inlive.dto.base.FacetedPaginatedResponse;
 import ai.lab.inlive.dto.base.PaginatedResponse;
 import ai.lab.inlive.dto.params.AccommodationUnitSearchParams;
+import ai.lab.inlive.dto.params.CalendarParams;
 import ai.lab.inlive.dto.request.AccUnitDictionariesUpdateRequest;
 import ai.lab.inlive.dto.request.AccUnitTariffCreateRequest;
 import ai.lab.inlive.dto.request.AccommodationUnitCreateRequest;
@@ -10,8 +12,11 @@ import ai.lab.inlive.dto.response.AccSearchRequestResponse;
 import ai.lab.inlive.dto.response.AccommodationUnitResponse;
 import ai.lab.inlive.dto.response.PriceRequestResponse;
 import ai.lab.inlive.dto.response.ReservationResponse;
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
+import ai.lab.inlive.dto.response.UnitCalendarResponse;
 import ai.lab.inlive.security.authorization.AccessForAdminsAndSuperManagers;
 import ai.lab.inlive.services.AccommodationUnitService;
+import ai.lab.inlive.services.AvailabilityCalendarService;
 import ai.lab.inlive.validators.ValidFiles;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -44,6 +49,7 @@ import java.util.List;
 @Tag(name = "Accommodation Unit", description = "API для работы с единицами размещения")
 public class AccommodationUnitController {
     private final AccommodationUnitService accommodationUnitService;
+    private final AvailabilityCalendarService availabilityCalendarService;
 
     @AccessForAdminsAndSuperManagers
     @Operation(summary = "Создать единицу размещения", description = "Создание новой квартиры/номера. Изображения: только JPEG, PNG, JPG. Максимальный размер файла: 10 МБ, запроса: 50 МБ")
@@ -100,6 +106,22 @@ public class AccommodationUnitController {
         return ResponseEntity.ok(accommodationUnitService.getUnitById(id));
     }
 
+    @Operation(summary = "Получить календарь доступности единицы размещения", description = "Доступность квартиры/номера по ночам в периоде [from, to)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Календарь успешно получен",
+                    content = @Content(schema = @Schema(implementation = UnitCalendarResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный период", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Единица размещения не найдена", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
+    })
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<UnitCalendarResponse> getUnitCalendar(
+            @Parameter(description = "ID единицы размещения", example = "1")
+            @PathVariable Long id,
+            @ModelAttribute CalendarParams params) {
+        return ResponseEntity.ok(availabilityCalendarService.getUnitCalendar(id, params));
+    }
+
     @Operation(summary = "Поиск единиц размещения по фильтрам", description = "Получение списка единиц размещения с возможностью фильтрации")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список единиц размещения успешно получен"),
@@ -107,20 +129,23 @@ public class AccommodationUnitController {
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
     })
     @GetMapping("/search")
-    public ResponseEntity<PaginatedResponse<AccommodationUnitResponse>> searchUnits(
+    public ResponseEntity<FacetedPaginatedResponse<AccommodationUnitResponse>> searchUnits(
             @ModelAttribute AccommodationUnitSearchParams params,
             @Parameter(description = "Номер страницы (начиная с 0)") @RequestParam(defaultValue = "0") Integer page,
             @Parameter(description = "Размер страницы") @RequestParam(defaultValue = "20") Integer size,
             @Parameter(description = "Поле для сортировки") @RequestParam(defaultValue = "id") String sortBy,
-            @Parameter(description = "Направление сортировки (asc/desc)") @RequestParam(defaultValue = "asc") String sortDirection) {
+            @Parameter(description = "Направление сортировки (asc/desc)") @RequestParam(defaultValue = "asc") String sortDirection,
+            @Parameter(description = "Добавить в ответ количество результатов по районам, типам, услугам, рейтингу и цене")
+            @RequestParam(defaultValue = "false") Boolean withFacets) {
         Pageable pageable = PageRequest.of(
                 page,
                 size,
                 Sort.by("desc".equalsIgnoreCase(sortDirection) ? Sort.Order.desc(sortBy) : Sort.Order.asc(sortBy))
         );
         Page<AccommodationUnitResponse> response = accommodationUnitService.searchWithParams(params, pageable);
+        SearchFacetsResponse facets = withFacets ? accommodationUnitService.getSearchFacets(params) : null;
 
-        return ResponseEntity.ok(new PaginatedResponse<>(response));
+        return ResponseEntity.ok(new FacetedPaginatedResponse<>(response, facets));
     }
 
     @Operation(summary = "Обновить единицу размещения", description = "Обновление данных квартиры/номера")
@@ -1,9 +1,12 @@
 package ai.lab.inlive.controllers;
 
+import ai.lab.inlive.cache.CatalogResponseCache;
 import ai.lab.inlive.dto.response.CityResponse;
 import ai.lab.inlive.services.CityService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,7 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import static ai.lab.inlive.cache.CatalogResponseCache.REFERENCE_CACHE_CONTROL;
 
 @Slf4j
 @RestController
@@ -21,16 +24,19 @@ import java.util.List;
 @Tag(name = "City", description = "API для работы с городами")
 public class CityController {
     private final CityService cityService;
+    private final CatalogResponseCache catalogResponseCache;
 
     @Operation(summary = "Получить все города", description = "Получение списка всех городов")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список городов успешно получен"),
+            @ApiResponse(responseCode = "200", description = "Список городов успешно получен",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = CityResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "Список не изменился с версии из If-None-Match", content = @Content),
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<CityResponse>> getAllCities() {
+    public ResponseEntity<byte[]> getAllCities() {
         log.info("Fetching all cities");
-        List<CityResponse> response = cityService.getAllCities();
-        return ResponseEntity.ok(response);
+        return catalogResponseCache.respond("cities", cityService.getCatalogVersion(),
+                REFERENCE_CACHE_CONTROL, cityService::getAllCities);
     }
 }
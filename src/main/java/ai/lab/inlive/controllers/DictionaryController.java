@@ -1,5 +1,6 @@
 package ai.lab.inlive.controllers;
 
+import ai.lab.inlive.cache.CatalogResponseCache;
 import ai.lab.inlive.dto.base.PaginatedResponse;
 import ai.lab.inlive.dto.params.DictionarySearchParams;
 import ai.lab.inlive.dto.request.DictionaryCreateRequest;
@@ -17,7 +18,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -26,6 +26,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import static ai.lab.inlive.cache.CatalogResponseCache.REFERENCE_CACHE_CONTROL;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -34,6 +36,7 @@ import org.springframework.web.bind.annotation.*;
 public class DictionaryController {
 
     private final DictionaryService dictionaryService;
+    private final CatalogResponseCache catalogResponseCache;
 
     @AccessForAdmins
     @Operation(summary = "Создать элемент справочника", description = "Создание нового элемента справочника")
@@ -55,24 +58,28 @@ public class DictionaryController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Элемент справочника успешно получен",
                     content = @Content(schema = @Schema(implementation = DictionaryResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Элемент не изменился с версии из If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "Элемент справочника не найден", content = @Content),
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<DictionaryResponse> getDictionaryById(
+    public ResponseEntity<byte[]> getDictionaryById(
             @Parameter(description = "ID элемента справочника", example = "1")
             @PathVariable Long id) {
-        return ResponseEntity.ok(dictionaryService.getDictionaryById(id));
+        return catalogResponseCache.respond("dictionary:" + id, dictionaryService.getCatalogVersion(),
+                REFERENCE_CACHE_CONTROL, () -> dictionaryService.getDictionaryById(id));
     }
 
     @Operation(summary = "Получить все элементы справочника, соответствующие фильтрам", description = "Получение списка всех элементов справочника с возможностью фильтрации по параметрам")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список элементов справочника успешно получен"),
+            @ApiResponse(responseCode = "200", description = "Список элементов справочника успешно получен",
+                    content = @Content(schema = @Schema(implementation = PaginatedResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Список не изменился с версии из If-None-Match", content = @Content),
             @ApiResponse(responseCode = "400", description = "Некорректные параметры фильтрации", content = @Content),
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
     })
     @GetMapping("/search")
-    public ResponseEntity<PaginatedResponse<DictionaryResponse>> searchDictionaries(
+    public ResponseEntity<byte[]> searchDictionaries(
             @ModelAttribute DictionarySearchParams dictionarySearchParams,
             @Parameter(description = "Номер страницы (начиная с 0)") @RequestParam(defaultValue = "0") Integer page,
             @Parameter(description = "Размер страницы") @RequestParam(defaultValue = "20") Integer size,
@@ -83,8 +90,9 @@ public class DictionaryController {
                 size,
                 Sort.by("desc".equalsIgnoreCase(sortDirection) ? Sort.Order.desc(sortBy) : Sort.Order.asc(sortBy))
         );
-        Page<DictionaryResponse> response = dictionaryService.searchWithParams(dictionarySearchParams, pageable);
-        return ResponseEntity.ok(new PaginatedResponse<>(response));
+        return catalogResponseCache.respond("dictionaries:" + dictionarySearchParams + ":" + pageable,
+                dictionaryService.getCatalogVersion(), REFERENCE_CACHE_CONTROL,
+                () -> new PaginatedResponse<>(dictionaryService.searchWithParams(dictionarySearchParams, pageable)));
     }
 
     @Operation(summary = "Обновить элемент справочника", description = "Обновление данных элемента справочника")
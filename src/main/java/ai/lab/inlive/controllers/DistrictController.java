@@ -1,10 +1,13 @@
 package ai.lab.inlive.controllers;
 
+import ai.lab.inlive.cache.CatalogResponseCache;
 import ai.lab.inlive.dto.response.DistrictResponse;
 import ai.lab.inlive.services.DistrictService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,7 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import static ai.lab.inlive.cache.CatalogResponseCache.REFERENCE_CACHE_CONTROL;
 
 @Slf4j
 @RestController
@@ -22,29 +25,36 @@ import java.util.List;
 @Tag(name = "District", description = "API для работы с районами")
 public class DistrictController {
     private final DistrictService districtService;
+    private final CatalogResponseCache catalogResponseCache;
 
     @Operation(summary = "Получить все районы", description = "Получение списка всех районов")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список районов успешно получен"),
+            @ApiResponse(responseCode = "200", description = "Список районов успешно получен",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DistrictResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "Список не изменился с версии из If-None-Match", content = @Content),
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<DistrictResponse>> getAllDistricts() {
+    public ResponseEntity<byte[]> getAllDistricts() {
         log.info("Fetching all districts");
-        return ResponseEntity.ok(districtService.getAllDistricts());
+        return catalogResponseCache.respond("districts", districtService.getCatalogVersion(),
+                REFERENCE_CACHE_CONTROL, districtService::getAllDistricts);
     }
 
     @Operation(summary = "Получить районы по городу", description = "Получение всех районов определенного города")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список районов успешно получен"),
+            @ApiResponse(responseCode = "200", description = "Список районов успешно получен",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DistrictResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "Список не изменился с версии из If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "Город не найден", content = @Content),
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера", content = @Content)
     })
     @GetMapping("/by-city/{cityId}")
-    public ResponseEntity<List<DistrictResponse>> getDistrictsByCity(
+    public ResponseEntity<byte[]> getDistrictsByCity(
             @Parameter(description = "ID города")
             @PathVariable Long cityId) {
         log.info("Fetching districts for city ID: {}", cityId);
-        return ResponseEntity.ok(districtService.getDistrictsByCity(cityId));
+        return catalogResponseCache.respond("districts:city:" + cityId, districtService.getCatalogVersion(),
+                REFERENCE_CACHE_CONTROL, () -> districtService.getDistrictsByCity(cityId));
     }
 }
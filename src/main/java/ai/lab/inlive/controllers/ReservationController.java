@@ -2,6 +2,7 @@ package ai.lab.inlive.controllers;
 
 import ai.lab.inlive.constants.Utils;
 import ai.lab.inlive.dto.base.PaginatedResponse;
+import ai.lab.inlive.dto.params.ReservationHistoryParams;
 import ai.lab.inlive.dto.request.ReservationCreateRequest;
 import ai.lab.inlive.dto.request.ReservationFinalStatusUpdateRequest;
 import ai.lab.inlive.dto.request.ReservationUpdateRequest;
@@ -215,9 +216,11 @@ public class ReservationController {
     @AccessForAdminsAndClients
     @Operation(summary = "Получить мои бронирования (для CLIENT)",
             description = "Получение всех бронирований текущего клиента. " +
-                    "Клиент может видеть свои недавние брони для отслеживания и управления")
+                    "Клиент может видеть свои недавние брони для отслеживания и управления. " +
+                    "С includeArchived=true в выдачу попадают и архивные брони, сортировка - по дате создания (новые первыми)")
     @GetMapping("/my")
     public ResponseEntity<PaginatedResponse<ReservationResponse>> getMyReservations(
+            @ModelAttribute ReservationHistoryParams params,
             @Parameter(description = "Номер страницы (начиная с 0)") @RequestParam(defaultValue = "0") Integer page,
             @Parameter(description = "Размер страницы") @RequestParam(defaultValue = "20") Integer size,
             @Parameter(description = "Поле для сортировки") @RequestParam(defaultValue = "id") String sortBy,
@@ -230,7 +233,7 @@ public class ReservationController {
                 size,
                 Sort.by("desc".equalsIgnoreCase(sortDirection) ? Sort.Order.desc(sortBy) : Sort.Order.asc(sortBy))
         );
-        Page<ReservationResponse> response = reservationService.getMyReservations(clientId, pageable);
+        Page<ReservationResponse> response = reservationService.getMyReservations(clientId, params, pageable);
 
         return ResponseEntity.ok(new PaginatedResponse<>(response));
     }
@@ -0,0 +1,19 @@
+package ai.lab.inlive.dto.base;
+
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.data.domain.Page;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class FacetedPaginatedResponse<T> extends PaginatedResponse<T> {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SearchFacetsResponse facets;
+
+    public FacetedPaginatedResponse(Page<T> page, SearchFacetsResponse facets) {
+        super(page);
+        this.facets = facets;
+    }
+}
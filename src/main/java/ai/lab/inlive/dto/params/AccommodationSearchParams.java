@@ -4,7 +4,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import lombok.Data;
 
 @Data
-public class AccommodationSearchParams {
+public class AccommodationSearchParams implements GeoSearchParams {
     @Parameter(description = "ID города")
     private Long cityId;
 
@@ -22,4 +22,28 @@ public class AccommodationSearchParams {
 
     @Parameter(description = "Название (поиск по части названия)")
     private String name;
+
+    @Parameter(description = "Текст для поиска по названию, адресу и описанию (нечёткий, с сортировкой по релевантности)")
+    private String query;
+
+    @Parameter(description = "Широта точки поиска: центр радиуса, результаты сортируются по расстоянию от точки")
+    private Double latitude;
+
+    @Parameter(description = "Долгота точки поиска")
+    private Double longitude;
+
+    @Parameter(description = "Радиус поиска в километрах от точки (latitude, longitude)")
+    private Double radiusKm;
+
+    @Parameter(description = "Южная граница области поиска (широта)")
+    private Double minLatitude;
+
+    @Parameter(description = "Северная граница области поиска (широта)")
+    private Double maxLatitude;
+
+    @Parameter(description = "Западная граница области поиска (долгота)")
+    private Double minLongitude;
+
+    @Parameter(description = "Восточная граница области поиска (долгота)")
+    private Double maxLongitude;
 }
@@ -2,9 +2,12 @@ package ai.lab.inlive.dto.params;
 
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
 
 @Data
-public class AccommodationUnitSearchParams {
+public class AccommodationUnitSearchParams implements GeoSearchParams {
     @Parameter(description = "ID размещения (accommodation)")
     private Long accommodationId;
 
@@ -20,16 +23,47 @@ public class AccommodationUnitSearchParams {
     @Parameter(description = "Название (поиск по части названия)")
     private String name;
 
+    @Parameter(description = "Текст для поиска по названию и описанию (нечёткий, с сортировкой по релевантности)")
+    private String query;
+
     @Parameter(description = "Минимальная вместимость")
     private Integer minCapacity;
 
     @Parameter(description = "Максимальная вместимость")
     private Integer maxCapacity;
 
+    @Parameter(description = "Дата заезда: исключаются единицы, занятые в период проживания", example = "2025-12-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate checkIn;
+
+    @Parameter(description = "Дата выезда, указывается вместе с датой заезда", example = "2025-12-05")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate checkOut;
+
     @Parameter(description = "Минимальная площадь")
     private Double minArea;
 
     @Parameter(description = "Максимальная площадь")
     private Double maxArea;
-}
 
+    @Parameter(description = "Широта точки поиска: центр радиуса, результаты сортируются по расстоянию от точки")
+    private Double latitude;
+
+    @Parameter(description = "Долгота точки поиска")
+    private Double longitude;
+
+    @Parameter(description = "Радиус поиска в километрах от точки (latitude, longitude)")
+    private Double radiusKm;
+
+    @Parameter(description = "Южная граница области поиска (широта)")
+    private Double minLatitude;
+
+    @Parameter(description = "Северная граница области поиска (широта)")
+    private Double maxLatitude;
+
+    @Parameter(description = "Западная граница области поиска (долгота)")
+    private Double minLongitude;
+
+    @Parameter(description = "Восточная граница области поиска (долгота)")
+    private Double maxLongitude;
+}
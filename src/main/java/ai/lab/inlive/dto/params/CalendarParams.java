@@ -0,0 +1,18 @@
+package ai.lab.inlive.dto.params;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class CalendarParams {
+    @Parameter(description = "Первая ночь периода (по умолчанию сегодня)", example = "2025-12-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @Parameter(description = "Дата окончания периода, не включительно (по умолчанию from + 30 дней)", example = "2025-12-31")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
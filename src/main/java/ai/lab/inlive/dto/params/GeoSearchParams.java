@@ -0,0 +1,20 @@
+package ai.lab.inlive.dto.params;
+
+/**
+ * Географические параметры поиска, общие для объектов и единиц размещения.
+ */
+public interface GeoSearchParams {
+    Double getLatitude();
+
+    Double getLongitude();
+
+    Double getRadiusKm();
+
+    Double getMinLatitude();
+
+    Double getMaxLatitude();
+
+    Double getMinLongitude();
+
+    Double getMaxLongitude();
+}
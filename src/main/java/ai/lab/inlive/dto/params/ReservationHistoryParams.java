@@ -0,0 +1,10 @@
+package ai.lab.inlive.dto.params;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.Data;
+
+@Data
+public class ReservationHistoryParams {
+    @Parameter(description = "Включить бронирования, перенесённые в архив", example = "false")
+    private Boolean includeArchived;
+}
@@ -1,6 +1,8 @@
 package ai.lab.inlive.dto.request;
 
 import ai.lab.inlive.validators.ValidFiles;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -21,6 +23,14 @@ public class AccommodationCreateRequest {
     @Size(max = 255, message = "{validation.accommodation.address.size}")
     private String address;
 
+    @DecimalMin(value = "-90.0", message = "{validation.accommodation.latitude.range}")
+    @DecimalMax(value = "90.0", message = "{validation.accommodation.latitude.range}")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "{validation.accommodation.longitude.range}")
+    @DecimalMax(value = "180.0", message = "{validation.accommodation.longitude.range}")
+    private Double longitude;
+
     @NotBlank(message = "{validation.accommodation.name.required}")
     @Size(max = 255, message = "{validation.accommodation.name.size}")
     private String name;
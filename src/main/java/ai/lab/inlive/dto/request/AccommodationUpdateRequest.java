@@ -1,5 +1,7 @@
 package ai.lab.inlive.dto.request;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
@@ -12,6 +14,14 @@ public class AccommodationUpdateRequest {
     @Size(max = 255, message = "{validation.accommodation.address.size}")
     private String address;
 
+    @DecimalMin(value = "-90.0", message = "{validation.accommodation.latitude.range}")
+    @DecimalMax(value = "90.0", message = "{validation.accommodation.latitude.range}")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "{validation.accommodation.longitude.range}")
+    @DecimalMax(value = "180.0", message = "{validation.accommodation.longitude.range}")
+    private Double longitude;
+
     @Size(max = 255, message = "{validation.accommodation.name.size}")
     private String name;
 
@@ -13,6 +13,8 @@ public class AccommodationResponse {
     private Long districtId;
     private String districtName;
     private String address;
+    private Double latitude;
+    private Double longitude;
     private String name;
     private String description;
     private Double rating;
@@ -0,0 +1,20 @@
+package ai.lab.inlive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Доступность единицы размещения на ночь")
+public class CalendarDayResponse {
+    @Schema(description = "Дата заезда на ночь", example = "2025-12-01")
+    private LocalDate date;
+
+    @Schema(description = "Свободна ли единица размещения на эту ночь", example = "true")
+    private Boolean available;
+}
@@ -17,5 +17,17 @@ public class DistrictResponse {
 
     @Schema(description = "Средняя цена за жилье в районе (в тенге)", example = "25000.0")
     private Double averagePrice;
+
+    @Schema(description = "Минимальная цена за жилье в районе (в тенге)", example = "12000.0")
+    private Double minPrice;
+
+    @Schema(description = "Максимальная цена за жилье в районе (в тенге)", example = "60000.0")
+    private Double maxPrice;
+
+    @Schema(description = "Медианная цена за жилье в районе (в тенге)", example = "22000.0")
+    private Double medianPrice;
+
+    @Schema(description = "Количество единиц размещения с тарифами в районе", example = "42")
+    private Long pricedUnitCount;
 }
 
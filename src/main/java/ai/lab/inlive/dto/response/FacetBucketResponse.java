@@ -0,0 +1,29 @@
+package ai.lab.inlive.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Значение фасета и количество результатов с ним")
+public class FacetBucketResponse {
+    @Schema(description = "Значение фильтра (ID района или справочника, тип единицы, номер диапазона)", example = "3")
+    private String value;
+
+    @Schema(description = "Отображаемое название", example = "Алмалинский")
+    private String label;
+
+    @Schema(description = "Количество результатов", example = "42")
+    private Long count;
+
+    @Schema(description = "Нижняя граница диапазона включительно (для рейтинга и цены)", example = "10000")
+    private Double from;
+
+    @Schema(description = "Верхняя граница диапазона не включительно (для рейтинга и цены)", example = "20000")
+    private Double to;
+}
@@ -67,5 +67,8 @@ public class ReservationResponse {
 
     @Schema(description = "Номер телефона менеджера по размещению", example = "+77001234567")
     private String managerPhoneNumber;
+
+    @Schema(description = "Бронирование перенесено в архив", example = "false")
+    private Boolean archived;
 }
 
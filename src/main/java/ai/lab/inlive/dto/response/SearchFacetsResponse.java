@@ -0,0 +1,31 @@
+package ai.lab.inlive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Количество результатов поиска по значениям фильтров. Если результатов больше 20000, списки пусты - нужно уточнить фильтры")
+public class SearchFacetsResponse {
+    @Schema(description = "Всего результатов по текущим фильтрам", example = "120")
+    private long total;
+
+    @Schema(description = "По районам")
+    private List<FacetBucketResponse> districts;
+
+    @Schema(description = "По типам единиц (для объектов - есть хотя бы одна единица этого типа)")
+    private List<FacetBucketResponse> unitTypes;
+
+    @Schema(description = "По услугам")
+    private List<FacetBucketResponse> services;
+
+    @Schema(description = "По условиям проживания")
+    private List<FacetBucketResponse> conditions;
+
+    @Schema(description = "По рейтингу (целая часть)")
+    private List<FacetBucketResponse> ratings;
+
+    @Schema(description = "По минимальной цене тарифа")
+    private List<FacetBucketResponse> prices;
+}
@@ -0,0 +1,26 @@
+package ai.lab.inlive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Schema(description = "Календарь доступности единицы размещения")
+public class UnitCalendarResponse {
+    @Schema(description = "ID единицы размещения", example = "1")
+    private Long unitId;
+
+    @Schema(description = "Первая ночь периода", example = "2025-12-01")
+    private LocalDate from;
+
+    @Schema(description = "Дата окончания периода, не включительно", example = "2025-12-31")
+    private LocalDate to;
+
+    @Schema(description = "Количество свободных ночей в периоде", example = "25")
+    private Integer availableNights;
+
+    @Schema(description = "Доступность по ночам")
+    private List<CalendarDayResponse> days;
+}
@@ -1,8 +1,12 @@
 package ai.lab.inlive.entities;
 
 import ai.lab.inlive.config.converters.LocalDateTimeAttributeConverter;
+import ai.lab.inlive.config.ids.TimeSortedId;
+import ai.lab.inlive.config.ids.TimeSortedIds;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.springframework.data.domain.Persistable;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -11,10 +15,10 @@ import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
 
 @Getter
 @MappedSuperclass
-public abstract class AbstractEntity<T extends Serializable> {
+public abstract class AbstractEntity<T extends Serializable> implements Persistable<T> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortedId
     T id;
 
     @Column(name = "created_at", nullable = false)
@@ -28,17 +32,46 @@ public abstract class AbstractEntity<T extends Serializable> {
     @Column(name = "is_deleted", nullable = false)
     private Boolean isDeleted = false;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    // Id назначается при создании объекта, поэтому equals и hashCode новой сущности не меняются после сохранения.
+    // При загрузке из базы Hibernate перезаписывает его сохранённым значением
+    @SuppressWarnings("unchecked")
+    protected AbstractEntity() {
+        this.id = (T) Long.valueOf(TimeSortedIds.next());
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
     @PrePersist
     protected void onCreate() {
         this.updatedAt = this.createdAt = LocalDateTime.now(ZONE_ID);
         this.isDeleted = false;
     }
 
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now(ZONE_ID);
     }
 
+    /**
+     * Для изменений, которые не затрагивают колонки сущности (дочерние коллекции), но должны сдвинуть updatedAt.
+     */
+    public void markUpdated() {
+        this.updatedAt = LocalDateTime.now(ZONE_ID);
+    }
+
     public void softDelete() {
         this.isDeleted = true;
         this.updatedAt = LocalDateTime.now(ZONE_ID);
@@ -49,8 +82,7 @@ public abstract class AbstractEntity<T extends Serializable> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         AbstractEntity<?> that = (AbstractEntity<?>) o;
-        if (this.id == null || that.id == null) return false;
-        return this.id.equals(that.id);
+        return id != null && id.equals(that.id);
     }
 
     @Override
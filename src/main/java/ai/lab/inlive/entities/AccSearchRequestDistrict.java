@@ -7,7 +7,8 @@ import lombok.*;
 @Setter
 @Entity
 @RequiredArgsConstructor
-@Table(name = "acc_search_request_district")
+@Table(name = "acc_search_request_district",
+        indexes = @Index(name = "idx_acc_search_request_district_district", columnList = "district_id"))
 public class AccSearchRequestDistrict extends AbstractEntity<Long> {
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "search_request_id")
@@ -12,7 +12,11 @@ import java.util.Set;
 @Setter
 @Entity
 @RequiredArgsConstructor
-@Table(name = "accommodations")
+@Table(name = "accommodations",
+        indexes = {
+                @Index(name = "idx_accommodations_location", columnList = "latitude, longitude"),
+                @Index(name = "idx_accommodations_updated_at", columnList = "updated_at")
+        })
 public class Accommodation extends AbstractEntity<Long> {
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "city_id")
@@ -25,6 +29,10 @@ public class Accommodation extends AbstractEntity<Long> {
     @Column(columnDefinition = "text", nullable = false)
     private String address;
 
+    private Double latitude;
+
+    private Double longitude;
+
     @Column(nullable = false)
     private String name;
 
@@ -4,8 +4,11 @@ import ai.lab.inlive.entities.enums.DictionaryKey;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @BatchSize(size = 50)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference-dictionary")
 @Getter
 @Setter
 @Entity
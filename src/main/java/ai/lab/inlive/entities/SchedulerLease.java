@@ -0,0 +1,47 @@
+package ai.lab.inlive.entities;
+
+import ai.lab.inlive.config.converters.LocalDateTimeAttributeConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Аренда запуска фоновой задачи (или её шарда) одним экземпляром приложения до lease_until.
+ */
+@Getter
+@Setter
+@Entity
+@RequiredArgsConstructor
+@IdClass(SchedulerLeaseId.class)
+@Table(name = "scheduler_lease")
+public class SchedulerLease {
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Id
+    @Column(name = "shard")
+    private Integer shard;
+
+    @Column(name = "owner", nullable = false)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    @Convert(converter = LocalDateTimeAttributeConverter.class)
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_started_at")
+    @Convert(converter = LocalDateTimeAttributeConverter.class)
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_finished_at")
+    @Convert(converter = LocalDateTimeAttributeConverter.class)
+    private LocalDateTime lastFinishedAt;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    @Column(name = "last_succeeded")
+    private Boolean lastSucceeded;
+}
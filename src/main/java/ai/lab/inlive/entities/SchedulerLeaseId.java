@@ -0,0 +1,15 @@
+package ai.lab.inlive.entities;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLeaseId implements Serializable {
+    private String jobName;
+    private Integer shard;
+}
@@ -0,0 +1,47 @@
+package ai.lab.inlive.entities;
+
+import ai.lab.inlive.config.converters.LocalDateTimeAttributeConverter;
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Предрассчитанное совпадение заявки на поиск и единицы размещения.
+ * Статус и срок действия дублируются из заявки, чтобы страницы менеджера читались по индексу.
+ * Правила совпадения - в представлении search_request_unit_candidate (db/search_request_match.sql).
+ */
+@Getter
+@Setter
+@Entity
+@RequiredArgsConstructor
+@IdClass(SearchRequestMatchId.class)
+@Table(name = "search_request_match", indexes = {
+        @Index(name = "idx_search_request_match_unit", columnList = "unit_id, status, expires_at"),
+        @Index(name = "idx_search_request_match_accommodation", columnList = "accommodation_id, status, expires_at")
+})
+public class SearchRequestMatch {
+    @Id
+    @Column(name = "search_request_id")
+    private Long searchRequestId;
+
+    @Id
+    @Column(name = "unit_id")
+    private Long unitId;
+
+    @Column(name = "accommodation_id", nullable = false)
+    private Long accommodationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SearchRequestStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    @Convert(converter = LocalDateTimeAttributeConverter.class)
+    private LocalDateTime expiresAt;
+
+    // Все услуги и условия заявки есть у самой единицы; иначе они набираются только по всему объекту
+    @Column(name = "unit_match", nullable = false, columnDefinition = "boolean default true")
+    private boolean unitMatch;
+}
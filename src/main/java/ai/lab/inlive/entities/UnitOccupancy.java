@@ -0,0 +1,34 @@
+package ai.lab.inlive.entities;
+
+import ai.lab.inlive.config.converters.LocalDateTimeAttributeConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Занятость единицы размещения на период проживания по бронированию.
+ * Пересечение периодов одной единицы запрещено ограничением unit_occupancy_no_overlap (db/unit_occupancy.sql).
+ */
+@Getter
+@Setter
+@Entity
+@RequiredArgsConstructor
+@Table(name = "unit_occupancy",
+        indexes = @Index(name = "idx_unit_occupancy_unit_to_date", columnList = "unit_id, to_date, from_date"))
+public class UnitOccupancy {
+    @Id
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @Column(name = "unit_id", nullable = false)
+    private Long unitId;
+
+    @Column(name = "from_date", nullable = false)
+    @Convert(converter = LocalDateTimeAttributeConverter.class)
+    private LocalDateTime fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    @Convert(converter = LocalDateTimeAttributeConverter.class)
+    private LocalDateTime toDate;
+}
@@ -3,4 +3,4 @@ package ai.lab.inlive.entities.enums;
 import lombok.Getter;
 
 @Getter
-public enum ClientResponseStatus { ACCEPTED, REJECTED, WAITING }
\ No newline at end of file
+public enum ClientResponseStatus { ACCEPTED, REJECTED, WAITING, EXPIRED }
\ No newline at end of file
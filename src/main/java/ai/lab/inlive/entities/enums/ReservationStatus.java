@@ -10,5 +10,6 @@ public enum ReservationStatus {
     REJECTED,
     CLIENT_DIDNT_CAME,
     FINISHED_SUCCESSFUL,
-    CANCELED
+    CANCELED,
+    EXPIRED
 }
@@ -2,6 +2,9 @@ package ai.lab.inlive.entities.enums;
 
 import lombok.Getter;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 @Getter
 public enum SearchRequestStatus {
     OPEN_TO_PRICE_REQUEST,
@@ -9,5 +12,9 @@ public enum SearchRequestStatus {
     WAIT_TO_RESERVATION,
     FINISHED,
     CANCELLED,
-    EXPIRED
+    EXPIRED;
+
+    // Заявки, которые ещё ждут предложения или брони от владельца
+    public static final Set<SearchRequestStatus> RELEVANT_FOR_OWNER =
+            EnumSet.of(OPEN_TO_PRICE_REQUEST, PRICE_REQUEST_PENDING, WAIT_TO_RESERVATION);
 }
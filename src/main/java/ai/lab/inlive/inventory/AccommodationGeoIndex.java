@@ -0,0 +1,195 @@
+package ai.lab.inlive.inventory;
+
+import ai.lab.inlive.repositories.AccommodationRepository;
+import ai.lab.inlive.repositories.projections.AccommodationLocationView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
+
+/**
+ * Координаты объектов размещения в равномерной сетке (ячейка ~2 км). Отбор по радиусу или области
+ * просматривает только ячейки, пересекающие границы, и возвращает id для фильтра в SQL.
+ * Удаление и одобрение не учитываются - это остаётся фильтрам поиска.
+ * Индекс может отставать от изменений с других экземпляров, поэтому вместе с id отдаётся момент
+ * последней полной загрузки: объекты, изменённые позже, SQL проверяет по координатам сам.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccommodationGeoIndex {
+    private static final double CELL_DEGREES = 0.02;
+    // Больше id не передаём в IN, такой поиск идёт по индексу координат в базе
+    private static final int MAX_CANDIDATES = 2000;
+    // Запас на расхождение часов экземпляров, которые пишут updated_at
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final AccommodationRepository accommodationRepository;
+
+    private volatile State state = new State(LocalDateTime.MIN);
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    @Scheduled(fixedRate = 300000)
+    public void refresh() {
+        if (loaded) {
+            reload();
+        }
+    }
+
+    public void invalidate() {
+        loaded = false;
+    }
+
+    public synchronized void reload() {
+        State fresh = new State(LocalDateTime.now(ZONE_ID).minus(CLOCK_SKEW));
+        accommodationRepository.findLocationViews().forEach(fresh::put);
+        state = fresh;
+        loaded = true;
+
+        log.info("Accommodation geo index loaded: {} points", fresh.points.size());
+    }
+
+    public void refresh(Collection<Long> accommodationIds) {
+        if (!loaded || accommodationIds.isEmpty()) {
+            return;
+        }
+        List<AccommodationLocationView> views = accommodationRepository.findLocationViewsByIds(accommodationIds);
+
+        synchronized (this) {
+            State current = state;
+            accommodationIds.forEach(current::remove);
+            views.forEach(current::put);
+        }
+        log.debug("Accommodation geo index refreshed for accommodations: {}", accommodationIds);
+    }
+
+    /**
+     * Кандидаты внутри фильтра или пустой Optional, если их больше {@link #MAX_CANDIDATES}.
+     */
+    public Optional<Candidates> findIds(GeoFilter filter) {
+        ensureLoaded();
+        State current = state;
+        GeoFilter.Bounds bounds = filter.bounds();
+        if (bounds.isEmpty()) {
+            return Optional.of(new Candidates(List.of(), current.loadedAt));
+        }
+
+        long fromRow = cell(bounds.south());
+        long toRow = cell(bounds.north());
+        long fromColumn = cell(bounds.west());
+        long toColumn = cell(bounds.east());
+
+        List<Long> ids = new ArrayList<>();
+        long cellCount = (toRow - fromRow + 1) * (toColumn - fromColumn + 1);
+        if (cellCount <= current.cells.size()) {
+            for (long row = fromRow; row <= toRow; row++) {
+                for (long column = fromColumn; column <= toColumn; column++) {
+                    Map<Long, GeoPoint> cell = current.cells.get(key(row, column));
+                    if (cell != null && !collect(cell.values(), filter, ids)) {
+                        return Optional.empty();
+                    }
+                }
+            }
+        } else {
+            // Область шире заполненной части сетки - дешевле пройти по непустым ячейкам
+            for (Map.Entry<Long, Map<Long, GeoPoint>> entry : current.cells.entrySet()) {
+                long row = entry.getKey() >> 32;
+                long column = (int) (long) entry.getKey();
+                if (row >= fromRow && row <= toRow && column >= fromColumn && column <= toColumn
+                        && !collect(entry.getValue().values(), filter, ids)) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(new Candidates(ids, current.loadedAt));
+    }
+
+    private static boolean collect(Collection<GeoPoint> points, GeoFilter filter, List<Long> ids) {
+        for (GeoPoint point : points) {
+            if (filter.contains(point.latitude(), point.longitude())) {
+                ids.add(point.id());
+                if (ids.size() > MAX_CANDIDATES) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    static long cell(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    static long key(long row, long column) {
+        return (row << 32) | (column & 0xffffffffL);
+    }
+
+    /**
+     * ids - объекты внутри фильтра по данным индекса; объекты с updated_at не раньше changedSince
+     * могли измениться мимо индекса и должны проверяться по координатам в базе.
+     */
+    public record Candidates(List<Long> ids, LocalDateTime changedSince) {
+    }
+
+    private record GeoPoint(Long id, double latitude, double longitude) {
+    }
+
+    private static final class State {
+        private final LocalDateTime loadedAt;
+        private final Map<Long, GeoPoint> points = new ConcurrentHashMap<>();
+        private final Map<Long, Map<Long, GeoPoint>> cells = new ConcurrentHashMap<>();
+
+        private State(LocalDateTime loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private void put(AccommodationLocationView view) {
+            GeoPoint point = new GeoPoint(view.getId(), view.getLatitude(), view.getLongitude());
+            remove(point.id());
+            points.put(point.id(), point);
+            cells.computeIfAbsent(keyOf(point), key -> new ConcurrentHashMap<>()).put(point.id(), point);
+        }
+
+        private void remove(Long id) {
+            GeoPoint previous = points.remove(id);
+            if (previous == null) {
+                return;
+            }
+            Map<Long, GeoPoint> cell = cells.get(keyOf(previous));
+            if (cell != null) {
+                cell.remove(id);
+                if (cell.isEmpty()) {
+                    cells.remove(keyOf(previous));
+                }
+            }
+        }
+
+        private static long keyOf(GeoPoint point) {
+            return key(cell(point.latitude()), cell(point.longitude()));
+        }
+    }
+}
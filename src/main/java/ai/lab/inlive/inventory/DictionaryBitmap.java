@@ -0,0 +1,30 @@
+package ai.lab.inlive.inventory;
+
+import java.util.Arrays;
+
+/**
+ * Операции над битовыми масками словарей: бит с номером ordinal выставлен, если словарь присутствует.
+ */
+public final class DictionaryBitmap {
+    public static final long[] EMPTY = new long[0];
+
+    private DictionaryBitmap() {
+    }
+
+    public static long[] set(long[] bits, int ordinal) {
+        int word = ordinal >>> 6;
+        long[] result = bits.length > word ? bits : Arrays.copyOf(bits, word + 1);
+        result[word] |= 1L << ordinal;
+        return result;
+    }
+
+    public static boolean containsAll(long[] required, long[] present) {
+        for (int i = 0; i < required.length; i++) {
+            long available = i < present.length ? present[i] : 0L;
+            if ((required[i] & ~available) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package ai.lab.inlive.inventory;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Плотная нумерация id словарей для битовых масок. Номер выдаётся один раз и больше не меняется.
+ */
+@Component
+public class DictionaryOrdinals {
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    public int ordinalOf(Long dictionaryId) {
+        return ordinals.computeIfAbsent(dictionaryId, id -> nextOrdinal.getAndIncrement());
+    }
+
+    public long[] encode(Collection<Long> dictionaryIds) {
+        long[] bits = DictionaryBitmap.EMPTY;
+        for (Long dictionaryId : dictionaryIds) {
+            bits = DictionaryBitmap.set(bits, ordinalOf(dictionaryId));
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,113 @@
+package ai.lab.inlive.inventory;
+
+import ai.lab.inlive.repositories.DistrictRepository;
+import ai.lab.inlive.repositories.projections.DistrictPriceStatisticsView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Статистика цен по районам в памяти. Загружается одним сгруппированным запросом, затем
+ * пересчитывается только для районов, затронутых изменениями тарифов, единиц и объектов.
+ * Изменения с других экземпляров подхватываются плановой перезагрузкой.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DistrictPriceStatistics {
+    private final DistrictRepository districtRepository;
+
+    private volatile Map<Long, DistrictPriceStats> stats = Map.of();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    @Scheduled(fixedRate = 300000)
+    public void refresh() {
+        if (loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Помечает статистику устаревшей: следующее обращение перечитает её целиком.
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    public synchronized void reload() {
+        Map<Long, DistrictPriceStats> fresh = new HashMap<>();
+        districtRepository.calculatePriceStatistics().forEach(view -> fresh.put(view.getDistrictId(), toStats(view)));
+        update(Map.copyOf(fresh));
+        loaded = true;
+
+        log.info("District price statistics loaded: {} districts", fresh.size());
+    }
+
+    public void refreshDistricts(Collection<Long> districtIds) {
+        if (!loaded || districtIds.isEmpty()) {
+            return;
+        }
+        List<DistrictPriceStatisticsView> views = districtRepository.calculatePriceStatistics(districtIds);
+
+        synchronized (this) {
+            Map<Long, DistrictPriceStats> updated = new HashMap<>(stats);
+            // Районы без строк в результате остались без тарифов
+            districtIds.forEach(updated::remove);
+            views.forEach(view -> updated.put(view.getDistrictId(), toStats(view)));
+            update(Map.copyOf(updated));
+        }
+        log.debug("District price statistics refreshed for districts: {}", districtIds);
+    }
+
+    public DistrictPriceStats get(Long districtId) {
+        ensureLoaded();
+        return stats.getOrDefault(districtId, DistrictPriceStats.EMPTY);
+    }
+
+    /**
+     * Версия для кэша ответов - сам неизменяемый снимок статистики. Сравнивается по содержимому,
+     * пока статистика не меняется, остаётся тем же объектом.
+     */
+    public Object version() {
+        ensureLoaded();
+        return stats;
+    }
+
+    private void update(Map<Long, DistrictPriceStats> updated) {
+        if (!updated.equals(stats)) {
+            stats = updated;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private static DistrictPriceStats toStats(DistrictPriceStatisticsView view) {
+        return new DistrictPriceStats(
+                view.getAveragePrice(),
+                view.getMinPrice(),
+                view.getMaxPrice(),
+                view.getMedianPrice(),
+                view.getPricedUnitCount() == null ? 0 : view.getPricedUnitCount());
+    }
+}
@@ -0,0 +1,12 @@
+package ai.lab.inlive.inventory;
+
+/**
+ * Статистика цен тарифов района. Для района без тарифов цены null, количество 0.
+ */
+public record DistrictPriceStats(Double averagePrice,
+                                 Double minPrice,
+                                 Double maxPrice,
+                                 Double medianPrice,
+                                 long pricedUnitCount) {
+    public static final DistrictPriceStats EMPTY = new DistrictPriceStats(null, null, null, null, 0);
+}
@@ -0,0 +1,75 @@
+package ai.lab.inlive.inventory;
+
+/**
+ * Географический фильтр поиска: точка (для радиуса и сортировки по расстоянию), радиус и прямоугольная область.
+ * Любая часть может отсутствовать; границы {@link #bounds()} - пересечение круга и области.
+ */
+public record GeoFilter(Double originLatitude, Double originLongitude, Double radiusMeters,
+                        Double minLatitude, Double maxLatitude, Double minLongitude, Double maxLongitude) {
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    public boolean hasOrigin() {
+        return originLatitude != null && originLongitude != null;
+    }
+
+    public boolean hasRadius() {
+        return hasOrigin() && radiusMeters != null;
+    }
+
+    public boolean hasBox() {
+        return minLatitude != null && maxLatitude != null && minLongitude != null && maxLongitude != null;
+    }
+
+    public boolean hasArea() {
+        return hasRadius() || hasBox();
+    }
+
+    public Bounds bounds() {
+        double south = -90;
+        double north = 90;
+        double west = -180;
+        double east = 180;
+        if (hasRadius()) {
+            double latitudeDelta = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+            double cosLatitude = Math.cos(Math.toRadians(originLatitude));
+            // У полюсов круг накрывает все долготы
+            double longitudeDelta = cosLatitude < 1e-6 ? 180 : Math.min(180, latitudeDelta / cosLatitude);
+            south = originLatitude - latitudeDelta;
+            north = originLatitude + latitudeDelta;
+            if (longitudeDelta < 180) {
+                west = originLongitude - longitudeDelta;
+                east = originLongitude + longitudeDelta;
+            }
+        }
+        if (hasBox()) {
+            south = Math.max(south, minLatitude);
+            north = Math.min(north, maxLatitude);
+            west = Math.max(west, minLongitude);
+            east = Math.min(east, maxLongitude);
+        }
+        return new Bounds(Math.max(south, -90), Math.min(north, 90), Math.max(west, -180), Math.min(east, 180));
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (hasBox() && (latitude < minLatitude || latitude > maxLatitude
+                || longitude < minLongitude || longitude > maxLongitude)) {
+            return false;
+        }
+        return !hasRadius() || distanceMeters(originLatitude, originLongitude, latitude, longitude) <= radiusMeters;
+    }
+
+    public static double distanceMeters(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        double longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+                * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public record Bounds(double south, double north, double west, double east) {
+        public boolean isEmpty() {
+            return south > north || west > east;
+        }
+    }
+}
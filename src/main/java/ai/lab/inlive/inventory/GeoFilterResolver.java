@@ -0,0 +1,71 @@
+package ai.lab.inlive.inventory;
+
+import ai.lab.inlive.dto.params.GeoSearchParams;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class GeoFilterResolver {
+    private static final double MAX_RADIUS_KM = 500;
+
+    private final MessageSource messageSource;
+
+    public Optional<GeoFilter> resolve(GeoSearchParams params) {
+        boolean hasLatitude = params.getLatitude() != null;
+        boolean hasLongitude = params.getLongitude() != null;
+        boolean hasAnyBound = params.getMinLatitude() != null || params.getMaxLatitude() != null
+                || params.getMinLongitude() != null || params.getMaxLongitude() != null;
+        if (!hasLatitude && !hasLongitude && params.getRadiusKm() == null && !hasAnyBound) {
+            return Optional.empty();
+        }
+
+        if (hasLatitude != hasLongitude) {
+            throw invalid("services.geo.originIncomplete");
+        }
+        if (hasLatitude && !isValidPoint(params.getLatitude(), params.getLongitude())) {
+            throw invalid("services.geo.invalidCoordinates");
+        }
+        if (params.getRadiusKm() != null) {
+            if (!hasLatitude) {
+                throw invalid("services.geo.radiusWithoutOrigin");
+            }
+            if (params.getRadiusKm() <= 0 || params.getRadiusKm() > MAX_RADIUS_KM) {
+                throw invalid("services.geo.invalidRadius", MAX_RADIUS_KM);
+            }
+        }
+        if (hasAnyBound) {
+            if (params.getMinLatitude() == null || params.getMaxLatitude() == null
+                    || params.getMinLongitude() == null || params.getMaxLongitude() == null) {
+                throw invalid("services.geo.boxIncomplete");
+            }
+            if (!isValidPoint(params.getMinLatitude(), params.getMinLongitude())
+                    || !isValidPoint(params.getMaxLatitude(), params.getMaxLongitude())
+                    || params.getMinLatitude() > params.getMaxLatitude()
+                    || params.getMinLongitude() > params.getMaxLongitude()) {
+                throw invalid("services.geo.invalidCoordinates");
+            }
+        }
+
+        return Optional.of(new GeoFilter(
+                params.getLatitude(),
+                params.getLongitude(),
+                params.getRadiusKm() != null ? params.getRadiusKm() * 1000 : null,
+                params.getMinLatitude(),
+                params.getMaxLatitude(),
+                params.getMinLongitude(),
+                params.getMaxLongitude()));
+    }
+
+    private static boolean isValidPoint(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private IllegalArgumentException invalid(String code, Object... args) {
+        return new IllegalArgumentException(messageSource.getMessage(code, args, LocaleContextHolder.getLocale()));
+    }
+}
@@ -0,0 +1,150 @@
+package ai.lab.inlive.inventory;
+
+import ai.lab.inlive.cache.SearchFacetCache;
+import ai.lab.inlive.repositories.AccommodationUnitRepository;
+import ai.lab.inlive.repositories.DistrictRepository;
+import ai.lab.inlive.services.SearchRequestMatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Собирает изменения инвентаря в рамках транзакции. Совпадения с заявками пересчитываются
+ * перед коммитом в той же транзакции, индекс и статистика цен районов обновляются один раз после коммита.
+ */
+@Slf4j
+@Component
+public class InventoryChangeTracker {
+    private final InventoryIndex inventoryIndex;
+    private final AccommodationGeoIndex accommodationGeoIndex;
+    private final SearchFacetCache searchFacetCache;
+    private final DistrictPriceStatistics districtPriceStatistics;
+    private final SearchRequestMatchService searchRequestMatchService;
+    private final AccommodationUnitRepository accommodationUnitRepository;
+    private final DistrictRepository districtRepository;
+    private final TransactionTemplate rematchTransaction;
+    private final TransactionTemplate refreshTransaction;
+
+    public InventoryChangeTracker(InventoryIndex inventoryIndex,
+                                  AccommodationGeoIndex accommodationGeoIndex,
+                                  SearchFacetCache searchFacetCache,
+                                  DistrictPriceStatistics districtPriceStatistics,
+                                  SearchRequestMatchService searchRequestMatchService,
+                                  AccommodationUnitRepository accommodationUnitRepository,
+                                  DistrictRepository districtRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.inventoryIndex = inventoryIndex;
+        this.accommodationGeoIndex = accommodationGeoIndex;
+        this.searchFacetCache = searchFacetCache;
+        this.districtPriceStatistics = districtPriceStatistics;
+        this.searchRequestMatchService = searchRequestMatchService;
+        this.accommodationUnitRepository = accommodationUnitRepository;
+        this.districtRepository = districtRepository;
+        this.rematchTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.refreshTransaction.setReadOnly(true);
+    }
+
+    public void unitChanged(Long unitId) {
+        track(changes -> changes.unitIds.add(unitId));
+    }
+
+    public void accommodationChanged(Long accommodationId) {
+        track(changes -> changes.accommodationIds.add(accommodationId));
+    }
+
+    /**
+     * Для района, из которого объект ушёл: после коммита он уже не находится по объекту.
+     */
+    public void districtChanged(Long districtId) {
+        track(changes -> changes.districtIds.add(districtId));
+    }
+
+    private void track(Consumer<PendingChanges> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges changes = new PendingChanges();
+            change.accept(changes);
+            rematchTransaction.executeWithoutResult(status -> rematch(changes));
+            apply(changes);
+            return;
+        }
+
+        PendingChanges changes = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            PendingChanges pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    rematch(pending);
+                }
+
+                @Override
+                public void afterCommit() {
+                    apply(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InventoryChangeTracker.this);
+                }
+            });
+            changes = pending;
+        }
+        change.accept(changes);
+    }
+
+    private void rematch(PendingChanges changes) {
+        Set<Long> unitIds = new HashSet<>(changes.unitIds);
+        if (!changes.accommodationIds.isEmpty()) {
+            unitIds.addAll(accommodationUnitRepository.findIdsByAccommodationIds(changes.accommodationIds));
+        }
+        if (!unitIds.isEmpty()) {
+            searchRequestMatchService.rematchUnits(unitIds);
+        }
+    }
+
+    private void apply(PendingChanges changes) {
+        searchFacetCache.invalidateAll();
+        try {
+            refreshTransaction.executeWithoutResult(status -> {
+                inventoryIndex.refreshAccommodations(changes.accommodationIds);
+                inventoryIndex.refreshUnits(changes.unitIds);
+                accommodationGeoIndex.refresh(changes.accommodationIds);
+                districtPriceStatistics.refreshDistricts(affectedDistricts(changes));
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to refresh inventory index for units {} and accommodations {}",
+                    changes.unitIds, changes.accommodationIds, ex);
+            inventoryIndex.invalidate();
+            accommodationGeoIndex.invalidate();
+            districtPriceStatistics.invalidate();
+        }
+    }
+
+    private Set<Long> affectedDistricts(PendingChanges changes) {
+        Set<Long> districtIds = new HashSet<>(changes.districtIds);
+        if (!changes.accommodationIds.isEmpty()) {
+            districtIds.addAll(districtRepository.findIdsByAccommodationIds(changes.accommodationIds));
+        }
+        if (!changes.unitIds.isEmpty()) {
+            districtIds.addAll(districtRepository.findIdsByUnitIds(changes.unitIds));
+        }
+        return districtIds;
+    }
+
+    private static class PendingChanges {
+        private final Set<Long> unitIds = new HashSet<>();
+        private final Set<Long> accommodationIds = new HashSet<>();
+        private final Set<Long> districtIds = new HashSet<>();
+    }
+}
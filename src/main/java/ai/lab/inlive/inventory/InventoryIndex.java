@@ -0,0 +1,195 @@
+package ai.lab.inlive.inventory;
+
+import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.entities.enums.UnitType;
+import ai.lab.inlive.repositories.AccUnitDictionaryRepository;
+import ai.lab.inlive.repositories.AccommodationUnitRepository;
+import ai.lab.inlive.repositories.projections.UnitDictionaryView;
+import ai.lab.inlive.repositories.projections.UnitInventoryView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс доступных единиц размещения в памяти, разбитый по району и типу.
+ * Используется для быстрой проверки, есть ли подходящие варианты под заявку на поиск.
+ * После коммита на этом экземпляре обновляется точечно, изменения с других экземпляров
+ * подхватываются плановым перечитыванием.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryIndex {
+    private static final Set<DictionaryKey> INDEXED_KEYS = EnumSet.of(DictionaryKey.ACC_SERVICE, DictionaryKey.ACC_CONDITION);
+
+    private final AccommodationUnitRepository accommodationUnitRepository;
+    private final AccUnitDictionaryRepository accUnitDictionaryRepository;
+    private final DictionaryOrdinals dictionaryOrdinals;
+
+    private volatile State state = new State();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    @Scheduled(fixedRate = 300000)
+    public void refresh() {
+        if (loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Помечает индекс устаревшим: следующее обращение перечитает его целиком.
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    public synchronized void reload() {
+        List<UnitInventoryView> views = accommodationUnitRepository.findInventoryViews();
+        List<UnitDictionaryView> dictionaries = accUnitDictionaryRepository.findDictionaryViews(INDEXED_KEYS);
+
+        State fresh = new State();
+        toSnapshots(views, dictionaries).forEach(fresh::put);
+        state = fresh;
+        loaded = true;
+
+        log.info("Inventory index loaded: {} units", fresh.units.size());
+    }
+
+    public void refreshUnits(Collection<Long> unitIds) {
+        if (!loaded || unitIds.isEmpty()) {
+            return;
+        }
+        List<UnitInventoryView> views = accommodationUnitRepository.findInventoryViewsByUnitIds(unitIds);
+        List<UnitDictionaryView> dictionaries = accUnitDictionaryRepository.findDictionaryViewsByUnitIds(unitIds, INDEXED_KEYS);
+        List<UnitSnapshot> snapshots = toSnapshots(views, dictionaries);
+
+        synchronized (this) {
+            State current = state;
+            unitIds.forEach(current::remove);
+            snapshots.forEach(current::put);
+        }
+        log.debug("Inventory index refreshed for units: {}", unitIds);
+    }
+
+    public void refreshAccommodations(Collection<Long> accommodationIds) {
+        if (!loaded || accommodationIds.isEmpty()) {
+            return;
+        }
+        List<UnitInventoryView> views = accommodationUnitRepository.findInventoryViewsByAccommodationIds(accommodationIds);
+        List<Long> unitIds = views.stream().map(UnitInventoryView::getUnitId).toList();
+        List<UnitDictionaryView> dictionaries = unitIds.isEmpty()
+                ? List.of()
+                : accUnitDictionaryRepository.findDictionaryViewsByUnitIds(unitIds, INDEXED_KEYS);
+        List<UnitSnapshot> snapshots = toSnapshots(views, dictionaries);
+
+        synchronized (this) {
+            State current = state;
+            current.units.values().stream()
+                    .filter(snapshot -> accommodationIds.contains(snapshot.accommodationId()))
+                    .map(UnitSnapshot::unitId)
+                    .toList()
+                    .forEach(current::remove);
+            snapshots.forEach(current::put);
+        }
+        log.debug("Inventory index refreshed for accommodations: {}", accommodationIds);
+    }
+
+    public int size() {
+        ensureLoaded();
+        return state.units.size();
+    }
+
+    public Optional<UnitSnapshot> findUnit(Long unitId) {
+        ensureLoaded();
+        return Optional.ofNullable(state.units.get(unitId));
+    }
+
+    public List<UnitSnapshot> findCandidates(Collection<Long> districtIds, Collection<UnitType> unitTypes) {
+        ensureLoaded();
+        List<UnitSnapshot> candidates = new ArrayList<>();
+        for (Long districtId : districtIds) {
+            Map<UnitType, Map<Long, UnitSnapshot>> byType = state.buckets.get(districtId);
+            if (byType == null) {
+                continue;
+            }
+            for (UnitType unitType : unitTypes) {
+                Map<Long, UnitSnapshot> bucket = byType.get(unitType);
+                if (bucket != null) {
+                    candidates.addAll(bucket.values());
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private List<UnitSnapshot> toSnapshots(List<UnitInventoryView> views, List<UnitDictionaryView> dictionaries) {
+        Map<Long, long[]> dictionaryBits = new HashMap<>();
+        for (UnitDictionaryView dictionary : dictionaries) {
+            long[] bits = dictionaryBits.getOrDefault(dictionary.getUnitId(), DictionaryBitmap.EMPTY);
+            dictionaryBits.put(dictionary.getUnitId(),
+                    DictionaryBitmap.set(bits, dictionaryOrdinals.ordinalOf(dictionary.getDictionaryId())));
+        }
+
+        List<UnitSnapshot> snapshots = new ArrayList<>(views.size());
+        for (UnitInventoryView view : views) {
+            snapshots.add(new UnitSnapshot(
+                    view.getUnitId(),
+                    view.getAccommodationId(),
+                    view.getDistrictId(),
+                    view.getUnitType(),
+                    view.getCapacity(),
+                    view.getRating(),
+                    view.getMinPrice(),
+                    dictionaryBits.getOrDefault(view.getUnitId(), DictionaryBitmap.EMPTY)));
+        }
+        return snapshots;
+    }
+
+    private static final class State {
+        private final Map<Long, UnitSnapshot> units = new ConcurrentHashMap<>();
+        private final Map<Long, Map<UnitType, Map<Long, UnitSnapshot>>> buckets = new ConcurrentHashMap<>();
+
+        private void put(UnitSnapshot snapshot) {
+            remove(snapshot.unitId());
+            units.put(snapshot.unitId(), snapshot);
+            buckets.computeIfAbsent(snapshot.districtId(), id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(snapshot.unitType(), type -> new ConcurrentHashMap<>())
+                    .put(snapshot.unitId(), snapshot);
+        }
+
+        private void remove(Long unitId) {
+            UnitSnapshot previous = units.remove(unitId);
+            if (previous == null) {
+                return;
+            }
+            Map<UnitType, Map<Long, UnitSnapshot>> byType = buckets.get(previous.districtId());
+            if (byType != null) {
+                Map<Long, UnitSnapshot> bucket = byType.get(previous.unitType());
+                if (bucket != null) {
+                    bucket.remove(unitId);
+                }
+            }
+        }
+    }
+}
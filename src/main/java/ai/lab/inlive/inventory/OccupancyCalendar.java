@@ -0,0 +1,48 @@
+package ai.lab.inlive.inventory;
+
+import ai.lab.inlive.entities.UnitOccupancy;
+import ai.lab.inlive.repositories.UnitOccupancyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Занятые ночи единиц размещения, один бит на ночь периода. Читается из unit_occupancy при каждом запросе,
+ * поэтому брони и освобождения с любого экземпляра видны сразу.
+ */
+@Component
+@RequiredArgsConstructor
+public class OccupancyCalendar {
+    private final UnitOccupancyRepository unitOccupancyRepository;
+
+    /**
+     * Возвращает занятые ночи единицы в периоде [from, to): бит i соответствует ночи from + i.
+     */
+    public BitSet occupiedNights(Long unitId, LocalDate from, LocalDate to) {
+        return occupiedNights(List.of(unitId), from, to).getOrDefault(unitId, new BitSet());
+    }
+
+    /**
+     * То же для нескольких единиц одним запросом. Единиц без занятости в результате нет.
+     */
+    public Map<Long, BitSet> occupiedNights(Collection<Long> unitIds, LocalDate from, LocalDate to) {
+        if (unitIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BitSet> nights = new HashMap<>();
+        List<UnitOccupancy> occupancies = unitOccupancyRepository.findOverlapping(
+                unitIds, from.atStartOfDay(), to.atStartOfDay());
+        for (UnitOccupancy occupancy : occupancies) {
+            int start = (int) Math.max(ChronoUnit.DAYS.between(from, occupancy.getFromDate().toLocalDate()), 0);
+            int end = (int) Math.min(ChronoUnit.DAYS.between(from, occupancy.getToDate().toLocalDate()),
+                    ChronoUnit.DAYS.between(from, to));
+            if (end > start) {
+                nights.computeIfAbsent(occupancy.getUnitId(), id -> new BitSet()).set(start, end);
+            }
+        }
+        return nights;
+    }
+}
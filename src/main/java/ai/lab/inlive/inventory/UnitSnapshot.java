@@ -0,0 +1,13 @@
+package ai.lab.inlive.inventory;
+
+import ai.lab.inlive.entities.enums.UnitType;
+
+public record UnitSnapshot(Long unitId,
+                           Long accommodationId,
+                           Long districtId,
+                           UnitType unitType,
+                           int capacity,
+                           double rating,
+                           Double minPrice,
+                           long[] dictionaryBits) {
+}
@@ -5,6 +5,8 @@ import ai.lab.inlive.dto.response.AccommodationResponse;
 import ai.lab.inlive.dto.response.DictionaryResponse;
 import ai.lab.inlive.entities.*;
 import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.repositories.projections.AccommodationListView;
+import ai.lab.inlive.repositories.projections.DictionaryLinkView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -24,9 +26,20 @@ public interface AccommodationMapper {
     @Mapping(target = "imageUrls", expression = "java(imageMapper.getPathToAccommodationImages(accommodation))")
     AccommodationResponse toDto(Accommodation accommodation, ImageMapper imageMapper);
 
+    @Mapping(target = "services", source = "services")
+    @Mapping(target = "conditions", source = "conditions")
+    @Mapping(target = "imageUrls", source = "imageUrls")
+    AccommodationResponse toDto(AccommodationListView view, Set<DictionaryResponse> services,
+                                Set<DictionaryResponse> conditions, Set<String> imageUrls);
+
     @Mapping(target = "key", expression = "java(dictionary.getKey().name())")
     DictionaryResponse dictionaryToDto(Dictionary dictionary);
 
+    @Mapping(target = "id", source = "dictionaryId")
+    @Mapping(target = "key", expression = "java(link.getDictionaryKey().name())")
+    @Mapping(target = "value", source = "dictionaryValue")
+    DictionaryResponse dictionaryToDto(DictionaryLinkView link);
+
     default Set<DictionaryResponse> extractDictionariesByKey(Accommodation accommodation, DictionaryKey key) {
         if (accommodation.getDictionaries() == null) {
             return Set.of();
@@ -7,6 +7,9 @@ import ai.lab.inlive.dto.response.AccommodationUnitResponse;
 import ai.lab.inlive.dto.response.DictionaryResponse;
 import ai.lab.inlive.entities.*;
 import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.repositories.projections.AccommodationUnitListView;
+import ai.lab.inlive.repositories.projections.DictionaryLinkView;
+import ai.lab.inlive.repositories.projections.UnitTariffView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -28,6 +31,9 @@ public interface AccommodationUnitMapper {
     @Mapping(target = "rangeTypeValue", source = "rangeType.value")
     AccUnitTariffResponse toDto(AccUnitTariffs tariff);
 
+    @Mapping(target = "rangeTypeKey", expression = "java(tariff.getRangeTypeKey().name())")
+    AccUnitTariffResponse toDto(UnitTariffView tariff);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "accommodation", ignore = true)
     @Mapping(target = "unit", ignore = true)
@@ -49,9 +55,23 @@ public interface AccommodationUnitMapper {
     @Mapping(target = "imageUrls", expression = "java(imageMapper.getPathToAccommodationUnitImages(unit))")
     AccommodationUnitResponse toDto(AccommodationUnit unit, ImageMapper imageMapper);
 
+    @Mapping(target = "unitType", expression = "java(view.getUnitType() != null ? view.getUnitType().name() : null)")
+    @Mapping(target = "services", source = "services")
+    @Mapping(target = "conditions", source = "conditions")
+    @Mapping(target = "tariffs", source = "tariffs")
+    @Mapping(target = "imageUrls", source = "imageUrls")
+    AccommodationUnitResponse toDto(AccommodationUnitListView view, Set<DictionaryResponse> services,
+                                    Set<DictionaryResponse> conditions, Set<AccUnitTariffResponse> tariffs,
+                                    Set<String> imageUrls);
+
     @Mapping(target = "key", expression = "java(dictionary.getKey().name())")
     DictionaryResponse dictionaryToDto(Dictionary dictionary);
 
+    @Mapping(target = "id", source = "dictionaryId")
+    @Mapping(target = "key", expression = "java(link.getDictionaryKey().name())")
+    @Mapping(target = "value", source = "dictionaryValue")
+    DictionaryResponse dictionaryToDto(DictionaryLinkView link);
+
     @Named("normalizeCurrency")
     default String normalizeCurrency(String currency) {
         return (currency == null || currency.isBlank()) ? "KZT" : currency;
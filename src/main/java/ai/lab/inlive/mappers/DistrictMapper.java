@@ -1,7 +1,9 @@
 package ai.lab.inlive.mappers;
 
+import ai.lab.inlive.cache.ReferenceDataCache.DistrictRef;
 import ai.lab.inlive.dto.response.DistrictResponse;
 import ai.lab.inlive.entities.District;
+import ai.lab.inlive.inventory.DistrictPriceStats;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -9,7 +11,13 @@ import org.mapstruct.Mapping;
 public interface DistrictMapper {
     DistrictResponse toDto(District district);
 
-    @Mapping(source = "district.city.id", target = "cityId")
-    @Mapping(source = "averagePrice", target = "averagePrice")
-    DistrictResponse toDtoWithAvgPrice(District district, Double averagePrice);
+    @Mapping(source = "district.id", target = "id")
+    @Mapping(source = "district.name", target = "name")
+    @Mapping(source = "district.cityId", target = "cityId")
+    @Mapping(source = "stats.averagePrice", target = "averagePrice")
+    @Mapping(source = "stats.minPrice", target = "minPrice")
+    @Mapping(source = "stats.maxPrice", target = "maxPrice")
+    @Mapping(source = "stats.medianPrice", target = "medianPrice")
+    @Mapping(source = "stats.pricedUnitCount", target = "pricedUnitCount")
+    DistrictResponse toDto(DistrictRef district, DistrictPriceStats stats);
 }
@@ -20,16 +20,24 @@ public class ImageMapper {
 
     public Set<String> getPathToAccommodationImages(Accommodation accommodation) {
         return accommodation.getImages().stream()
-                .map(image -> fileApiUrl + "/" + FILE_MANAGER_ACCOMMODATION_IMAGE_DIR + "/retrieve/files/" + image.getImageUrl())
+                .map(image -> getPathToAccommodationImage(image.getImageUrl()))
                 .collect(Collectors.toSet());
     }
 
     public Set<String> getPathToAccommodationUnitImages(AccommodationUnit accommodationUnit) {
         return accommodationUnit.getImages().stream()
-                .map(image -> fileApiUrl + "/" + FILE_MANAGER_ACCOMMODATION_UNIT_IMAGE_DIR + "/retrieve/files/" + image.getImageUrl())
+                .map(image -> getPathToAccommodationUnitImage(image.getImageUrl()))
                 .collect(Collectors.toSet());
     }
 
+    public String getPathToAccommodationImage(String imageUrl) {
+        return fileApiUrl + "/" + FILE_MANAGER_ACCOMMODATION_IMAGE_DIR + "/retrieve/files/" + imageUrl;
+    }
+
+    public String getPathToAccommodationUnitImage(String imageUrl) {
+        return fileApiUrl + "/" + FILE_MANAGER_ACCOMMODATION_UNIT_IMAGE_DIR + "/retrieve/files/" + imageUrl;
+    }
+
     public String getPathToUserPhoto(User user) {
         if (user.getPhotoUrl() == null || user.getPhotoUrl().isEmpty()) {
             return null;
@@ -3,9 +3,15 @@ package ai.lab.inlive.mappers;
 import ai.lab.inlive.dto.response.ReservationResponse;
 import ai.lab.inlive.entities.Reservation;
 import ai.lab.inlive.entities.User;
+import ai.lab.inlive.repositories.projections.ReservationHistoryView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
+
 @Mapper(componentModel = "spring")
 public interface ReservationMapper {
 
@@ -25,8 +31,15 @@ public interface ReservationMapper {
     @Mapping(target = "checkOutDate", source = "searchRequest.toDate")
     @Mapping(target = "guestCount", source = "searchRequest.countOfPeople")
     @Mapping(target = "managerPhoneNumber", expression = "java(getManagerPhoneNumber(reservation))")
+    @Mapping(target = "archived", constant = "false")
     ReservationResponse toDto(Reservation reservation);
 
+    ReservationResponse toDto(ReservationHistoryView reservation);
+
+    default LocalDateTime toLocalDateTime(Long epochSecond) {
+        return epochSecond == null ? null : LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZONE_ID);
+    }
+
     default String getClientName(Reservation reservation) {
         if (reservation.getApprovedBy() == null) return null;
         User client = reservation.getApprovedBy();
@@ -0,0 +1,103 @@
+package ai.lab.inlive.mappers;
+
+import ai.lab.inlive.cache.ReferenceDataCache;
+import ai.lab.inlive.dto.response.FacetBucketResponse;
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
+import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.repositories.projections.FacetCountView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class SearchFacetMapper {
+    // Больше стольких результатов фасеты не считаются: id передаются в SQL одним массивом
+    public static final int MAX_FACET_IDS = 20_000;
+
+    // Границы диапазонов минимальной цены, KZT; номер диапазона из SQL (WIDTH_BUCKET) - индекс слева
+    private static final Double[] PRICE_BOUNDS = {10_000d, 20_000d, 50_000d, 100_000d};
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public Double[] priceBounds() {
+        return PRICE_BOUNDS.clone();
+    }
+
+    public SearchFacetsResponse toResponse(long total, List<FacetCountView> counts) {
+        Map<String, List<FacetCountView>> byFacet = new HashMap<>();
+        counts.forEach(count -> byFacet.computeIfAbsent(count.getFacet(), facet -> new ArrayList<>()).add(count));
+
+        SearchFacetsResponse response = new SearchFacetsResponse();
+        response.setTotal(total);
+        response.setDistricts(byCount(byFacet.get("DISTRICT"), value -> referenceDataCache.findDistrict(Long.valueOf(value))
+                .map(ReferenceDataCache.DistrictRef::name)
+                .orElse(null)));
+        response.setUnitTypes(byCount(byFacet.get("UNIT_TYPE"), Function.identity()));
+        response.setServices(byCount(byFacet.get(DictionaryKey.ACC_SERVICE.name()), this::dictionaryLabel));
+        response.setConditions(byCount(byFacet.get(DictionaryKey.ACC_CONDITION.name()), this::dictionaryLabel));
+        response.setRatings(ranges(byFacet.get("RATING"), value -> {
+            double from = Double.parseDouble(value);
+            return new double[]{from, from + 1};
+        }));
+        response.setPrices(ranges(byFacet.get("PRICE"), value -> {
+            int bucket = Integer.parseInt(value);
+            return new double[]{
+                    bucket == 0 ? Double.NaN : PRICE_BOUNDS[bucket - 1],
+                    bucket == PRICE_BOUNDS.length ? Double.NaN : PRICE_BOUNDS[bucket]};
+        }));
+        return response;
+    }
+
+    private String dictionaryLabel(String value) {
+        return referenceDataCache.findDictionary(Long.valueOf(value))
+                .map(ReferenceDataCache.DictionaryRef::value)
+                .orElse(null);
+    }
+
+    private static List<FacetBucketResponse> byCount(List<FacetCountView> counts, Function<String, String> label) {
+        if (counts == null) {
+            return List.of();
+        }
+        return counts.stream()
+                .filter(count -> count.getValue() != null)
+                .sorted(Comparator.comparing(FacetCountView::getCount).reversed()
+                        .thenComparing(FacetCountView::getValue))
+                .map(count -> new FacetBucketResponse(count.getValue(), label.apply(count.getValue()),
+                        count.getCount(), null, null))
+                .toList();
+    }
+
+    // NaN - открытая граница диапазона
+    private static List<FacetBucketResponse> ranges(List<FacetCountView> counts, Function<String, double[]> bounds) {
+        if (counts == null) {
+            return List.of();
+        }
+        return counts.stream()
+                .filter(count -> count.getValue() != null)
+                .sorted(Comparator.comparingDouble(count -> Double.parseDouble(count.getValue())))
+                .map(count -> {
+                    double[] range = bounds.apply(count.getValue());
+                    Double from = Double.isNaN(range[0]) ? null : range[0];
+                    Double to = Double.isNaN(range[1]) ? null : range[1];
+                    return new FacetBucketResponse(count.getValue(), rangeLabel(from, to), count.getCount(), from, to);
+                })
+                .toList();
+    }
+
+    private static String rangeLabel(Double from, Double to) {
+        if (from == null) {
+            return "< " + format(to);
+        }
+        if (to == null) {
+            return format(from) + "+";
+        }
+        return format(from) + " - " + format(to);
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
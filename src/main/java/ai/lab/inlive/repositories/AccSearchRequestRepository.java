@@ -1,13 +1,22 @@
 package ai.lab.inlive.repositories;
 
 import ai.lab.inlive.entities.AccSearchRequest;
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
+import ai.lab.inlive.repositories.projections.SearchRequestExpirationView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +27,7 @@ public interface AccSearchRequestRepository extends JpaRepository<AccSearchReque
             "LEFT JOIN FETCH asr.author " +
             "LEFT JOIN FETCH asr.unitTypes ut " +
             "LEFT JOIN FETCH asr.districts d " +
-            "LEFT JOIN FETCH d.district " +
             "LEFT JOIN FETCH asr.dictionaries dict " +
-            "LEFT JOIN FETCH dict.dictionary " +
             "WHERE asr.id = :id AND asr.isDeleted = false")
     Optional<AccSearchRequest> findByIdAndIsDeletedFalse(Long id);
 
@@ -34,224 +41,181 @@ public interface AccSearchRequestRepository extends JpaRepository<AccSearchReque
             LEFT JOIN FETCH asr.author
             LEFT JOIN FETCH asr.unitTypes ut
             LEFT JOIN FETCH asr.districts d
-            LEFT JOIN FETCH d.district dist
             LEFT JOIN FETCH asr.dictionaries dict
-            LEFT JOIN FETCH dict.dictionary
             WHERE asr.id IN :ids
             ORDER BY asr.id DESC
             """)
     List<AccSearchRequest> findAllByIdInWithFetchJoin(@Param("ids") List<Long> ids);
 
+    // Истекает не более :limit заявок за вызов; SKIP LOCKED не даёт параллельным запускам ждать друг друга
+    @Transactional
     @Query(value = """
-            SELECT asr.*
+            WITH expired AS (
+                SELECT asr.id
+                FROM acc_search_request asr
+                WHERE asr.is_deleted = FALSE
+                  AND asr.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING')
+                  AND asr.expires_at <= :now
+                  AND MOD(asr.id, :shardCount) = :shard
+                ORDER BY asr.expires_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE acc_search_request asr
+            SET status = 'EXPIRED', is_deleted = TRUE, updated_at = :now
+            FROM expired
+            WHERE asr.id = expired.id
+            RETURNING asr.id AS "id", asr.expires_at AS "expiresAt"
+            """,
+            nativeQuery = true)
+    List<SearchRequestExpirationView> expireBatch(@Param("now") Long now,
+                                                  @Param("shard") int shard,
+                                                  @Param("shardCount") int shardCount,
+                                                  @Param("limit") int limit);
+
+    @Transactional
+    @Query(value = """
+            UPDATE acc_search_request asr
+            SET status = 'EXPIRED', is_deleted = TRUE, updated_at = :now
+            WHERE asr.id IN (:ids)
+              AND asr.is_deleted = FALSE
+              AND asr.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING')
+              AND asr.expires_at <= :now
+            RETURNING asr.id AS "id", asr.expires_at AS "expiresAt"
+            """,
+            nativeQuery = true)
+    List<SearchRequestExpirationView> expireByIds(@Param("ids") Collection<Long> ids, @Param("now") Long now);
+
+    @Transactional
+    @Query(value = """
+            UPDATE acc_search_request asr
+            SET status = 'EXPIRED', is_deleted = TRUE, updated_at = :now
+            WHERE asr.id IN (:ids)
+              AND asr.is_deleted = FALSE
+              AND asr.status = 'WAIT_TO_RESERVATION'
+            RETURNING asr.id
+            """,
+            nativeQuery = true)
+    List<Long> expireWaitingForReservation(@Param("ids") Collection<Long> ids, @Param("now") Long now);
+
+    @Query(value = """
+            SELECT asr.id AS "id", asr.expires_at AS "expiresAt"
             FROM acc_search_request asr
             WHERE asr.is_deleted = FALSE
               AND asr.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING')
-              AND asr.expires_at < EXTRACT(EPOCH FROM CURRENT_TIMESTAMP)::BIGINT
             """,
             nativeQuery = true)
-    List<AccSearchRequest> findExpiredRequests();
+    List<SearchRequestExpirationView> findPendingExpirations();
+
+    @Query("SELECT asr FROM AccSearchRequest asr " +
+            "WHERE asr.isDeleted = false " +
+            "AND EXISTS (SELECT 1 FROM SearchRequestMatch m " +
+            "    WHERE m.searchRequestId = asr.id " +
+            "    AND m.unitId = :unitId " +
+            "    AND m.unitMatch = true " +
+            "    AND m.status IN :statuses " +
+            "    AND m.expiresAt > :now)")
+    Page<AccSearchRequest> findRelevantRequestsForUnit(@Param("unitId") Long unitId,
+                                                       @Param("statuses") Collection<SearchRequestStatus> statuses,
+                                                       @Param("now") LocalDateTime now,
+                                                       Pageable pageable);
+
+    @Query("SELECT asr FROM AccSearchRequest asr " +
+            "WHERE asr.isDeleted = false " +
+            "AND EXISTS (SELECT 1 FROM SearchRequestMatch m " +
+            "    WHERE m.searchRequestId = asr.id " +
+            "    AND m.accommodationId = :accommodationId " +
+            "    AND m.status IN :statuses " +
+            "    AND m.expiresAt > :now)")
+    Page<AccSearchRequest> findRelevantRequestsForAccommodation(@Param("accommodationId") Long accommodationId,
+                                                                @Param("statuses") Collection<SearchRequestStatus> statuses,
+                                                                @Param("now") LocalDateTime now,
+                                                                Pageable pageable);
 
+    // Завершённые заявки, у которых все предложения и бронирования тоже в конечном статусе и давно не менялись
     @Query(value = """
-            SELECT DISTINCT asr.*
+            SELECT asr.id
             FROM acc_search_request asr
-            INNER JOIN accommodation_units au ON au.id = :unitId AND au.is_deleted = FALSE
-            INNER JOIN accommodations acc ON acc.id = au.acc_id AND acc.is_deleted = FALSE
-            WHERE asr.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING', 'WAIT_TO_RESERVATION')
-              AND asr.is_deleted = FALSE
-              AND asr.expires_at > EXTRACT(EPOCH FROM CURRENT_TIMESTAMP)::BIGINT
-            -- Проверка рейтинга
-              AND (asr.from_rating IS NULL OR acc.rating >= asr.from_rating)
-              AND (asr.to_rating IS NULL OR acc.rating <= asr.to_rating)
-              AND EXISTS (
-                  SELECT 1 FROM acc_search_request_district asrd
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.district_id = acc.district_id
-                    AND asrd.is_deleted = FALSE
-              )
-              AND EXISTS (
-                  SELECT 1 FROM acc_search_request_unit_type asrut
-                  WHERE asrut.search_request_id = asr.id
-                    AND asrut.unit_type = au.unit_type
-                    AND asrut.is_deleted = FALSE
-              )
-            -- Проверка что все услуги (SERVICES) из заявки есть у unit
+            WHERE asr.status IN ('EXPIRED', 'CANCELLED', 'FINISHED')
+              AND asr.updated_at < :cutoff
               AND NOT EXISTS (
-                  SELECT 1 FROM acc_search_request_dictionary asrd
-                  INNER JOIN dictionaries d ON d.id = asrd.dictionary_id AND d."key" = 'ACC_SERVICE'
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.is_deleted = FALSE
-                    AND NOT EXISTS (
-                        SELECT 1 FROM acc_unit_dictionary aud
-                        WHERE aud.accommodation_unit_id = au.id
-                          AND aud.dictionary_id = d.id
-                          AND aud.is_deleted = FALSE
-                    )
+                    SELECT 1
+                    FROM price_request pr
+                    WHERE pr.acc_search_request_id = asr.id
+                      AND (pr.client_response_status = 'WAITING' OR pr.updated_at >= :cutoff)
               )
-            -- Проверка что все условия (CONDITIONS) из заявки есть у unit
               AND NOT EXISTS (
-                  SELECT 1 FROM acc_search_request_dictionary asrd
-                  INNER JOIN dictionaries d ON d.id = asrd.dictionary_id AND d."key" = 'ACC_CONDITION'
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.is_deleted = FALSE
-                    AND NOT EXISTS (
-                        SELECT 1 FROM acc_unit_dictionary aud
-                        WHERE aud.accommodation_unit_id = au.id
-                          AND aud.dictionary_id = d.id
-                          AND aud.is_deleted = FALSE
-                    )
-              )
+                    SELECT 1
+                    FROM reservation r
+                    WHERE r.search_request_id = asr.id
+                      AND (r.status IN ('WAITING_TO_APPROVE', 'APPROVED') OR r.updated_at >= :cutoff)
+              )
+            ORDER BY asr.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
             """,
-            countQuery = """
-            SELECT COUNT(DISTINCT asr.id)
+            nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") Long cutoff, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT MIN(asr.created_at)
             FROM acc_search_request asr
-            INNER JOIN accommodation_units au ON au.id = :unitId AND au.is_deleted = FALSE
-            INNER JOIN accommodations acc ON acc.id = au.acc_id AND acc.is_deleted = FALSE
-            WHERE asr.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING', 'WAIT_TO_RESERVATION')
-              AND asr.is_deleted = FALSE
-              AND asr.expires_at > EXTRACT(EPOCH FROM CURRENT_TIMESTAMP)::BIGINT
-              AND (asr.from_rating IS NULL OR acc.rating >= asr.from_rating)
-              AND (asr.to_rating IS NULL OR acc.rating <= asr.to_rating)
-              AND EXISTS (
-                  SELECT 1 FROM acc_search_request_district asrd
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.district_id = acc.district_id
-                    AND asrd.is_deleted = FALSE
-              )
-              AND EXISTS (
-                  SELECT 1 FROM acc_search_request_unit_type asrut
-                  WHERE asrut.search_request_id = asr.id
-                    AND asrut.unit_type = au.unit_type
-                    AND asrut.is_deleted = FALSE
-              )
-              AND NOT EXISTS (
-                  SELECT 1 FROM acc_search_request_dictionary asrd
-                  INNER JOIN dictionaries d ON d.id = asrd.dictionary_id AND d."key" = 'ACC_SERVICE'
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.is_deleted = FALSE
-                    AND NOT EXISTS (
-                        SELECT 1 FROM acc_unit_dictionary aud
-                        WHERE aud.accommodation_unit_id = au.id
-                          AND aud.dictionary_id = d.id
-                          AND aud.is_deleted = FALSE
-                    )
-              )
-              AND NOT EXISTS (
-                  SELECT 1 FROM acc_search_request_dictionary asrd
-                  INNER JOIN dictionaries d ON d.id = asrd.dictionary_id AND d."key" = 'ACC_CONDITION'
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.is_deleted = FALSE
-                    AND NOT EXISTS (
-                        SELECT 1 FROM acc_unit_dictionary aud
-                        WHERE aud.accommodation_unit_id = au.id
-                          AND aud.dictionary_id = d.id
-                          AND aud.is_deleted = FALSE
-                    )
-              )
+            WHERE asr.status IN ('EXPIRED', 'CANCELLED', 'FINISHED')
+              AND asr.updated_at < :cutoff
             """,
             nativeQuery = true)
-    Page<AccSearchRequest> findRelevantRequestsForUnit(@Param("unitId") Long unitId, Pageable pageable);
+    Long findOldestArchivableCreatedAt(@Param("cutoff") Long cutoff);
+
+    @Query(value = "SELECT ensure_archive_partition(:year, :fromSecond, :toSecond)", nativeQuery = true)
+    int ensureArchivePartition(@Param("year") int year, @Param("fromSecond") long fromSecond,
+                               @Param("toSecond") long toSecond);
 
+    // Районы, типы и словари заявки сворачиваются в массивы архивной строки
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "acc_search_request_archive"))
+    @Modifying
     @Query(value = """
-            SELECT DISTINCT asr.*
+            INSERT INTO acc_search_request_archive (
+                id, created_at, updated_at, is_deleted, author_id, from_rating, to_rating, from_date, to_date,
+                one_night, price, count_of_people, status, expires_at,
+                district_ids, unit_types, dictionary_ids, archived_at)
+            SELECT asr.id, asr.created_at, asr.updated_at, asr.is_deleted, asr.author_id, asr.from_rating,
+                   asr.to_rating, asr.from_date, asr.to_date, asr.one_night, asr.price, asr.count_of_people,
+                   asr.status, asr.expires_at,
+                   ARRAY(SELECT d.district_id FROM acc_search_request_district d
+                         WHERE d.search_request_id = asr.id AND d.is_deleted = FALSE),
+                   ARRAY(SELECT ut.unit_type FROM acc_search_request_unit_type ut
+                         WHERE ut.search_request_id = asr.id AND ut.is_deleted = FALSE),
+                   ARRAY(SELECT dict.dictionary_id FROM acc_search_request_dictionary dict
+                         WHERE dict.search_request_id = asr.id AND dict.is_deleted = FALSE),
+                   :archivedAt
             FROM acc_search_request asr
-            INNER JOIN accommodations acc ON acc.id = :accommodationId AND acc.is_deleted = FALSE
-            INNER JOIN accommodation_units au ON au.acc_id = acc.id AND au.is_deleted = FALSE
-            WHERE asr.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING', 'WAIT_TO_RESERVATION')
-              AND asr.is_deleted = FALSE
-              AND asr.expires_at > EXTRACT(EPOCH FROM CURRENT_TIMESTAMP)::BIGINT
-              AND (asr.from_rating IS NULL OR acc.rating >= asr.from_rating)
-              AND (asr.to_rating IS NULL OR acc.rating <= asr.to_rating)
-              AND EXISTS (
-                  SELECT 1 FROM acc_search_request_district asrd
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.district_id = acc.district_id
-                    AND asrd.is_deleted = FALSE
-              )
-              AND EXISTS (
-                  SELECT 1 FROM acc_search_request_unit_type asrut
-                  WHERE asrut.search_request_id = asr.id
-                    AND asrut.unit_type = au.unit_type
-                    AND asrut.is_deleted = FALSE
-              )
-            -- Проверка что все услуги (SERVICES) из заявки есть у хотя бы одного unit
-              AND NOT EXISTS (
-                  SELECT 1 FROM acc_search_request_dictionary asrd
-                  INNER JOIN dictionaries d ON d.id = asrd.dictionary_id AND d."key" = 'ACC_SERVICE'
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.is_deleted = FALSE
-                    AND NOT EXISTS (
-                        SELECT 1 FROM acc_unit_dictionary aud
-                        INNER JOIN accommodation_units au2 ON au2.id = aud.accommodation_unit_id
-                            AND au2.acc_id = acc.id AND au2.is_deleted = FALSE
-                        WHERE aud.dictionary_id = d.id
-                          AND aud.is_deleted = FALSE
-                    )
-              )
-            -- Проверка что все условия (CONDITIONS) из заявки есть у хотя бы одного unit
-              AND NOT EXISTS (
-                  SELECT 1 FROM acc_search_request_dictionary asrd
-                  INNER JOIN dictionaries d ON d.id = asrd.dictionary_id AND d."key" = 'ACC_CONDITION'
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.is_deleted = FALSE
-                    AND NOT EXISTS (
-                        SELECT 1 FROM acc_unit_dictionary aud
-                        INNER JOIN accommodation_units au2 ON au2.id = aud.accommodation_unit_id
-                            AND au2.acc_id = acc.id AND au2.is_deleted = FALSE
-                        WHERE aud.dictionary_id = d.id
-                          AND aud.is_deleted = FALSE
-                    )
-              )
+            WHERE asr.id IN (:ids)
             """,
-            countQuery = """
-            SELECT COUNT(DISTINCT asr.id)
-            FROM acc_search_request asr
-            INNER JOIN accommodations acc ON acc.id = :accommodationId AND acc.is_deleted = FALSE
-            INNER JOIN accommodation_units au ON au.acc_id = acc.id AND au.is_deleted = FALSE
-            WHERE asr.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING', 'WAIT_TO_RESERVATION')
-              AND asr.is_deleted = FALSE
-              AND asr.expires_at > EXTRACT(EPOCH FROM CURRENT_TIMESTAMP)::BIGINT
-              AND (asr.from_rating IS NULL OR acc.rating >= asr.from_rating)
-              AND (asr.to_rating IS NULL OR acc.rating <= asr.to_rating)
-              AND EXISTS (
-                  SELECT 1 FROM acc_search_request_district asrd
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.district_id = acc.district_id
-                    AND asrd.is_deleted = FALSE
-              )
-              AND EXISTS (
-                  SELECT 1 FROM acc_search_request_unit_type asrut
-                  WHERE asrut.search_request_id = asr.id
-                    AND asrut.unit_type = au.unit_type
-                    AND asrut.is_deleted = FALSE
-              )
-              AND NOT EXISTS (
-                  SELECT 1 FROM acc_search_request_dictionary asrd
-                  INNER JOIN dictionaries d ON d.id = asrd.dictionary_id AND d."key" = 'ACC_SERVICE'
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.is_deleted = FALSE
-                    AND NOT EXISTS (
-                        SELECT 1 FROM acc_unit_dictionary aud
-                        INNER JOIN accommodation_units au2 ON au2.id = aud.accommodation_unit_id
-                            AND au2.acc_id = acc.id AND au2.is_deleted = FALSE
-                        WHERE aud.dictionary_id = d.id
-                          AND aud.is_deleted = FALSE
-                    )
-              )
-              AND NOT EXISTS (
-                  SELECT 1 FROM acc_search_request_dictionary asrd
-                  INNER JOIN dictionaries d ON d.id = asrd.dictionary_id AND d."key" = 'ACC_CONDITION'
-                  WHERE asrd.search_request_id = asr.id
-                    AND asrd.is_deleted = FALSE
-                    AND NOT EXISTS (
-                        SELECT 1 FROM acc_unit_dictionary aud
-                        INNER JOIN accommodation_units au2 ON au2.id = aud.accommodation_unit_id
-                            AND au2.acc_id = acc.id AND au2.is_deleted = FALSE
-                        WHERE aud.dictionary_id = d.id
-                          AND aud.is_deleted = FALSE
-                    )
-              )
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") Long archivedAt);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "acc_search_request_district"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "acc_search_request_unit_type"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "acc_search_request_dictionary"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "search_request_match")
+    })
+    @Modifying
+    @Query(value = """
+            WITH districts AS (
+                DELETE FROM acc_search_request_district WHERE search_request_id IN (:ids)
+            ), unit_types AS (
+                DELETE FROM acc_search_request_unit_type WHERE search_request_id IN (:ids)
+            ), dictionaries AS (
+                DELETE FROM acc_search_request_dictionary WHERE search_request_id IN (:ids)
+            )
+            DELETE FROM search_request_match WHERE search_request_id IN (:ids)
             """,
             nativeQuery = true)
-    Page<AccSearchRequest> findRelevantRequestsForAccommodation(@Param("accommodationId") Long accommodationId, Pageable pageable);
+    int deleteChildrenByIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "acc_search_request"))
+    @Modifying
+    @Query(value = "DELETE FROM acc_search_request WHERE id IN (:ids)", nativeQuery = true)
+    int deleteArchivedByIds(@Param("ids") Collection<Long> ids);
 }
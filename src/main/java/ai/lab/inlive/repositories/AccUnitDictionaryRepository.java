@@ -3,15 +3,30 @@ package ai.lab.inlive.repositories;
 import ai.lab.inlive.entities.AccUnitDictionary;
 import ai.lab.inlive.entities.AccommodationUnit;
 import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.repositories.projections.UnitDictionaryView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AccUnitDictionaryRepository extends JpaRepository<AccUnitDictionary, Long> {
     @Modifying
     @Query("DELETE FROM AccUnitDictionary aud WHERE aud.unit = :unit AND aud.dictionary.key = :key")
     void deleteByUnitAndDictionaryKey(@Param("unit") AccommodationUnit unit, @Param("key") DictionaryKey key);
+
+    @Query("SELECT aud.unit.id AS unitId, d.id AS dictionaryId, d.key AS dictionaryKey " +
+            "FROM AccUnitDictionary aud JOIN aud.dictionary d " +
+            "WHERE d.key IN :keys")
+    List<UnitDictionaryView> findDictionaryViews(@Param("keys") Collection<DictionaryKey> keys);
+
+    @Query("SELECT aud.unit.id AS unitId, d.id AS dictionaryId, d.key AS dictionaryKey " +
+            "FROM AccUnitDictionary aud JOIN aud.dictionary d " +
+            "WHERE aud.unit.id IN :unitIds AND d.key IN :keys")
+    List<UnitDictionaryView> findDictionaryViewsByUnitIds(@Param("unitIds") Collection<Long> unitIds,
+                                                          @Param("keys") Collection<DictionaryKey> keys);
 }
@@ -1,10 +1,20 @@
 package ai.lab.inlive.repositories;
 
 import ai.lab.inlive.entities.AccUnitTariffs;
+import ai.lab.inlive.repositories.projections.UnitTariffView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AccUnitTariffsRepository extends JpaRepository<AccUnitTariffs, Long> {
+    @Query("SELECT t.unit.id AS unitId, t.id AS id, t.price AS price, t.currency AS currency, " +
+            "r.id AS rangeTypeId, r.key AS rangeTypeKey, r.value AS rangeTypeValue " +
+            "FROM AccUnitTariffs t JOIN t.rangeType r " +
+            "WHERE t.unit.id IN :unitIds")
+    List<UnitTariffView> findViewsByUnitIds(@Param("unitIds") Collection<Long> unitIds);
 }
-
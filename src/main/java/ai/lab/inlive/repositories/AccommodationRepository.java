@@ -1,54 +1,92 @@
 package ai.lab.inlive.repositories;
 
-import ai.lab.inlive.dto.params.AccommodationSearchParams;
 import ai.lab.inlive.entities.Accommodation;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import ai.lab.inlive.repositories.projections.AccommodationListView;
+import ai.lab.inlive.repositories.projections.AccommodationLocationView;
+import ai.lab.inlive.repositories.projections.DictionaryLinkView;
+import ai.lab.inlive.repositories.projections.FacetCountView;
+import ai.lab.inlive.repositories.projections.ImageLinkView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccommodationRepository extends JpaRepository<Accommodation, Long> {
 
     @Query("SELECT DISTINCT a FROM Accommodation a " +
-            "LEFT JOIN FETCH a.city " +
-            "LEFT JOIN FETCH a.district " +
             "LEFT JOIN FETCH a.ownerId " +
             "LEFT JOIN FETCH a.approvedBy " +
             "LEFT JOIN FETCH a.dictionaries d " +
-            "LEFT JOIN FETCH d.dictionary " +
             "LEFT JOIN FETCH a.images " +
             "WHERE a.id = :id AND a.isDeleted = false")
     Optional<Accommodation> findByIdAndIsDeletedFalse(Long id);
 
-    @Query("SELECT DISTINCT a FROM Accommodation a " +
-            "LEFT JOIN FETCH a.city " +
-            "LEFT JOIN FETCH a.district " +
-            "LEFT JOIN FETCH a.ownerId " +
-            "LEFT JOIN FETCH a.approvedBy " +
-            "WHERE (:#{#params.cityId} IS NULL OR a.city.id = :#{#params.cityId}) " +
-            "AND (:#{#params.districtId} IS NULL OR a.district.id = :#{#params.districtId}) " +
-            "AND (:#{#params.approved} IS NULL OR a.approved = :#{#params.approved}) " +
-            "AND (:#{#params.minRating} IS NULL OR a.rating >= :#{#params.minRating}) " +
-            "AND (:#{#params.isDeleted} IS NULL OR a.isDeleted = :#{#params.isDeleted}) " +
-            "AND (:#{#params.name} IS NULL OR :#{#params.name} = '' OR UPPER(a.name) LIKE UPPER(CONCAT('%', :#{#params.name}, '%')))")
-    Page<Accommodation> findWithFilters(@Param("params") AccommodationSearchParams params, Pageable pageable);
+    @Query("SELECT a.id AS id, c.id AS cityId, c.name AS cityName, d.id AS districtId, d.name AS districtName, " +
+            "a.address AS address, a.latitude AS latitude, a.longitude AS longitude, a.name AS name, a.description AS description, a.rating AS rating, " +
+            "a.approved AS approved, a.approvedBy.id AS approvedBy, a.ownerId.id AS ownerId " +
+            "FROM Accommodation a " +
+            "LEFT JOIN a.city c " +
+            "LEFT JOIN a.district d " +
+            "WHERE a.id IN :ids")
+    List<AccommodationListView> findListViewsByIds(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT DISTINCT a FROM Accommodation a " +
-            "LEFT JOIN FETCH a.city " +
-            "LEFT JOIN FETCH a.district " +
-            "LEFT JOIN FETCH a.ownerId " +
-            "LEFT JOIN FETCH a.approvedBy " +
-            "WHERE a.ownerId.id = :ownerId " +
-            "AND (:#{#params.cityId} IS NULL OR a.city.id = :#{#params.cityId}) " +
-            "AND (:#{#params.districtId} IS NULL OR a.district.id = :#{#params.districtId}) " +
-            "AND (:#{#params.approved} IS NULL OR a.approved = :#{#params.approved}) " +
-            "AND (:#{#params.minRating} IS NULL OR a.rating >= :#{#params.minRating}) " +
-            "AND (:#{#params.isDeleted} IS NULL OR a.isDeleted = :#{#params.isDeleted}) " +
-            "AND (:#{#params.name} IS NULL OR :#{#params.name} = '' OR UPPER(a.name) LIKE UPPER(CONCAT('%', :#{#params.name}, '%')))")
-    Page<Accommodation> findByOwnerIdWithFilters(@Param("ownerId") Long ownerId, @Param("params") AccommodationSearchParams params, Pageable pageable);
+    @Query("SELECT ad.accommodation.id AS ownerId, d.id AS dictionaryId, d.key AS dictionaryKey, d.value AS dictionaryValue " +
+            "FROM AccDictionary ad JOIN ad.dictionary d " +
+            "WHERE ad.accommodation.id IN :ids")
+    List<DictionaryLinkView> findDictionaryLinksByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i.accommodation.id AS ownerId, i.imageUrl AS imageUrl " +
+            "FROM AccImages i " +
+            "WHERE i.accommodation.id IN :ids")
+    List<ImageLinkView> findImageLinksByIds(@Param("ids") Collection<Long> ids);
+
+    // Версия для ETag: только колонка, без загрузки сущности и без кэшей Hibernate
+    @Query("SELECT a.updatedAt FROM Accommodation a WHERE a.id = :id AND a.isDeleted = false")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT a.id AS id, a.latitude AS latitude, a.longitude AS longitude FROM Accommodation a " +
+            "WHERE a.latitude IS NOT NULL AND a.longitude IS NOT NULL")
+    List<AccommodationLocationView> findLocationViews();
+
+    @Query("SELECT a.id AS id, a.latitude AS latitude, a.longitude AS longitude FROM Accommodation a " +
+            "WHERE a.id IN :ids AND a.latitude IS NOT NULL AND a.longitude IS NOT NULL")
+    List<AccommodationLocationView> findLocationViewsByIds(@Param("ids") Collection<Long> ids);
+
+    // Один проход по отобранным объектам: строки (объект, фасет, значение) и группировка по фасету и значению.
+    // Цена - минимальный тариф среди активных единиц, тип единицы - есть хотя бы одна активная единица
+    @Query(value = """
+            WITH base AS (
+                SELECT a.id AS id, a.district_id AS district_id, a.rating AS rating,
+                       (SELECT MIN(t.price) FROM acc_unit_tariffs t
+                        JOIN accommodation_units au ON au.id = t.accommodation_unit_id
+                        WHERE au.acc_id = a.id AND au.is_deleted = false) AS min_price
+                FROM accommodations a
+                WHERE a.id = ANY(:ids)
+            )
+            SELECT f.facet AS facet, f.value AS value, COUNT(DISTINCT f.id) AS count
+            FROM (
+                SELECT id, 'DISTRICT' AS facet, CAST(district_id AS text) AS value FROM base
+                UNION ALL
+                SELECT id, 'RATING', CAST(FLOOR(rating) AS text) FROM base WHERE rating IS NOT NULL
+                UNION ALL
+                SELECT id, 'PRICE', CAST(WIDTH_BUCKET(min_price, CAST(:priceBounds AS double precision[])) AS text)
+                FROM base WHERE min_price IS NOT NULL
+                UNION ALL
+                SELECT b.id, 'UNIT_TYPE', au.unit_type FROM base b
+                JOIN accommodation_units au ON au.acc_id = b.id AND au.is_deleted = false
+                UNION ALL
+                SELECT b.id, d."key", CAST(d.id AS text) FROM base b
+                JOIN acc_dictionary ad ON ad.acc_id = b.id
+                JOIN dictionaries d ON d.id = ad.dictionary_id
+            ) f
+            GROUP BY f.facet, f.value
+            """,
+            nativeQuery = true)
+    List<FacetCountView> countFacets(@Param("ids") Long[] ids, @Param("priceBounds") Double[] priceBounds);
 }
@@ -1,14 +1,18 @@
 package ai.lab.inlive.repositories;
 
-import ai.lab.inlive.dto.params.AccommodationUnitSearchParams;
 import ai.lab.inlive.entities.AccommodationUnit;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import ai.lab.inlive.repositories.projections.AccommodationUnitListView;
+import ai.lab.inlive.repositories.projections.DictionaryLinkView;
+import ai.lab.inlive.repositories.projections.FacetCountView;
+import ai.lab.inlive.repositories.projections.FeasibilityDiagnosticsView;
+import ai.lab.inlive.repositories.projections.ImageLinkView;
+import ai.lab.inlive.repositories.projections.UnitInventoryView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +22,7 @@ public interface AccommodationUnitRepository extends JpaRepository<Accommodation
     @Query("SELECT DISTINCT au FROM AccommodationUnit au " +
             "LEFT JOIN FETCH au.accommodation " +
             "LEFT JOIN FETCH au.dictionaries d " +
-            "LEFT JOIN FETCH d.dictionary " +
             "LEFT JOIN FETCH au.tariffs t " +
-            "LEFT JOIN FETCH t.rangeType " +
             "LEFT JOIN FETCH au.images " +
             "WHERE au.id = :id AND au.isDeleted = false")
     Optional<AccommodationUnit> findByIdAndIsDeletedFalse(Long id);
@@ -28,23 +30,137 @@ public interface AccommodationUnitRepository extends JpaRepository<Accommodation
     @Query("SELECT DISTINCT au FROM AccommodationUnit au " +
             "LEFT JOIN FETCH au.accommodation " +
             "LEFT JOIN FETCH au.dictionaries d " +
-            "LEFT JOIN FETCH d.dictionary " +
             "LEFT JOIN FETCH au.tariffs t " +
-            "LEFT JOIN FETCH t.rangeType " +
             "LEFT JOIN FETCH au.images " +
             "WHERE au.accommodation.id = :accommodationId AND au.isDeleted = false")
     List<AccommodationUnit> findByAccommodationIdAndIsDeletedFalse(Long accommodationId);
 
-    @Query("SELECT DISTINCT au FROM AccommodationUnit au " +
-            "LEFT JOIN FETCH au.accommodation " +
-            "WHERE (:#{#params.accommodationId} IS NULL OR au.accommodation.id = :#{#params.accommodationId}) " +
-            "AND (:#{#params.unitType} IS NULL OR :#{#params.unitType} = '' OR UPPER(au.unitType) = UPPER(:#{#params.unitType})) " +
-            "AND (:#{#params.isAvailable} IS NULL OR au.isAvailable = :#{#params.isAvailable}) " +
-            "AND (:#{#params.isDeleted} IS NULL OR au.isDeleted = :#{#params.isDeleted}) " +
-            "AND (:#{#params.name} IS NULL OR :#{#params.name} = '' OR UPPER(au.name) LIKE UPPER(CONCAT('%', :#{#params.name}, '%'))) " +
-            "AND (:#{#params.minCapacity} IS NULL OR au.capacity >= :#{#params.minCapacity}) " +
-            "AND (:#{#params.maxCapacity} IS NULL OR au.capacity <= :#{#params.maxCapacity}) " +
-            "AND (:#{#params.minArea} IS NULL OR au.area >= :#{#params.minArea}) " +
-            "AND (:#{#params.maxArea} IS NULL OR au.area <= :#{#params.maxArea})")
-    Page<AccommodationUnit> findWithFilters(@Param("params") AccommodationUnitSearchParams params, Pageable pageable);
+    @Query("SELECT au.id AS id, au.accommodation.id AS accommodationId, au.unitType AS unitType, au.name AS name, " +
+            "au.description AS description, au.capacity AS capacity, au.area AS area, au.floor AS floor, " +
+            "au.isAvailable AS isAvailable " +
+            "FROM AccommodationUnit au " +
+            "WHERE au.id IN :ids")
+    List<AccommodationUnitListView> findListViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT aud.unit.id AS ownerId, d.id AS dictionaryId, d.key AS dictionaryKey, d.value AS dictionaryValue " +
+            "FROM AccUnitDictionary aud JOIN aud.dictionary d " +
+            "WHERE aud.unit.id IN :ids")
+    List<DictionaryLinkView> findDictionaryLinksByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i.unit.id AS ownerId, i.imageUrl AS imageUrl " +
+            "FROM AccUnitImages i " +
+            "WHERE i.unit.id IN :ids")
+    List<ImageLinkView> findImageLinksByIds(@Param("ids") Collection<Long> ids);
+
+    boolean existsByIdAndIsDeletedFalse(Long id);
+
+    @Query("SELECT au.id FROM AccommodationUnit au " +
+            "WHERE au.accommodation.id = :accommodationId AND au.isDeleted = false " +
+            "ORDER BY au.id")
+    List<Long> findActiveIdsByAccommodationId(@Param("accommodationId") Long accommodationId);
+
+    @Query("SELECT au.id FROM AccommodationUnit au WHERE au.accommodation.id IN :accommodationIds")
+    List<Long> findIdsByAccommodationIds(@Param("accommodationIds") Collection<Long> accommodationIds);
+
+    @Query("SELECT au.id AS unitId, a.id AS accommodationId, a.district.id AS districtId, au.unitType AS unitType, " +
+            "au.capacity AS capacity, a.rating AS rating, MIN(t.price) AS minPrice " +
+            "FROM AccommodationUnit au " +
+            "JOIN au.accommodation a " +
+            "LEFT JOIN au.tariffs t " +
+            "WHERE au.isDeleted = false AND au.isAvailable = true AND a.isDeleted = false " +
+            "GROUP BY au.id, a.id, a.district.id, au.unitType, au.capacity, a.rating")
+    List<UnitInventoryView> findInventoryViews();
+
+    @Query("SELECT au.id AS unitId, a.id AS accommodationId, a.district.id AS districtId, au.unitType AS unitType, " +
+            "au.capacity AS capacity, a.rating AS rating, MIN(t.price) AS minPrice " +
+            "FROM AccommodationUnit au " +
+            "JOIN au.accommodation a " +
+            "LEFT JOIN au.tariffs t " +
+            "WHERE au.id IN :unitIds AND au.isDeleted = false AND au.isAvailable = true AND a.isDeleted = false " +
+            "GROUP BY au.id, a.id, a.district.id, au.unitType, au.capacity, a.rating")
+    List<UnitInventoryView> findInventoryViewsByUnitIds(@Param("unitIds") Collection<Long> unitIds);
+
+    @Query("SELECT au.id AS unitId, a.id AS accommodationId, a.district.id AS districtId, au.unitType AS unitType, " +
+            "au.capacity AS capacity, a.rating AS rating, MIN(t.price) AS minPrice " +
+            "FROM AccommodationUnit au " +
+            "JOIN au.accommodation a " +
+            "LEFT JOIN au.tariffs t " +
+            "WHERE a.id IN :accommodationIds AND au.isDeleted = false AND au.isAvailable = true AND a.isDeleted = false " +
+            "GROUP BY au.id, a.id, a.district.id, au.unitType, au.capacity, a.rating")
+    List<UnitInventoryView> findInventoryViewsByAccommodationIds(@Param("accommodationIds") Collection<Long> accommodationIds);
+
+    // Каждая единица попадает ровно в одну стадию отказа (в том же порядке, что и проверки в сервисе), stage = 0 - подходит
+    @Query(value = "SELECT COUNT(*) AS \"totalUnits\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 1) AS \"failedByType\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 2) AS \"failedByDistrict\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 3) AS \"failedByRating\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 4) AS \"failedByCapacity\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 5) AS \"failedByServices\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 6) AS \"failedByConditions\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 7) AS \"failedByPrice\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 8) AS \"failedByDates\", " +
+            "COUNT(*) FILTER (WHERE s.stage = 0) > 0 AS \"matchFound\" " +
+            "FROM (" +
+            "    SELECT CASE " +
+            "        WHEN au.unit_type NOT IN (:unitTypes) THEN 1 " +
+            "        WHEN a.district_id NOT IN (:districtIds) THEN 2 " +
+            "        WHEN CAST(:fromRating AS double precision) IS NOT NULL AND a.rating < CAST(:fromRating AS double precision) THEN 3 " +
+            "        WHEN CAST(:toRating AS double precision) IS NOT NULL AND a.rating > CAST(:toRating AS double precision) THEN 3 " +
+            "        WHEN au.capacity < :countOfPeople THEN 4 " +
+            "        WHEN :serviceCount > (SELECT COUNT(DISTINCT aud.dictionary_id) FROM acc_unit_dictionary aud " +
+            "            WHERE aud.accommodation_unit_id = au.id AND aud.dictionary_id IN (:serviceIds)) THEN 5 " +
+            "        WHEN :conditionCount > (SELECT COUNT(DISTINCT aud.dictionary_id) FROM acc_unit_dictionary aud " +
+            "            WHERE aud.accommodation_unit_id = au.id AND aud.dictionary_id IN (:conditionIds)) THEN 6 " +
+            "        WHEN CAST(:price AS double precision) IS NOT NULL AND (SELECT MIN(t.price) FROM acc_unit_tariffs t " +
+            "            WHERE t.accommodation_unit_id = au.id) > CAST(:price AS double precision) THEN 7 " +
+            "        WHEN EXISTS (SELECT 1 FROM unit_occupancy o " +
+            "            WHERE o.unit_id = au.id " +
+            "            AND int8range(o.from_date, o.to_date) && int8range(:checkIn, :checkOut)) THEN 8 " +
+            "        ELSE 0 END AS stage " +
+            "    FROM accommodation_units au " +
+            "    JOIN accommodations a ON a.id = au.acc_id " +
+            "    WHERE au.is_deleted = false AND au.is_available = true AND a.is_deleted = false" +
+            ") s",
+            nativeQuery = true)
+    FeasibilityDiagnosticsView calculateFeasibilityDiagnostics(@Param("unitTypes") Collection<String> unitTypes,
+                                                               @Param("districtIds") Collection<Long> districtIds,
+                                                               @Param("fromRating") Double fromRating,
+                                                               @Param("toRating") Double toRating,
+                                                               @Param("countOfPeople") Integer countOfPeople,
+                                                               @Param("serviceIds") Collection<Long> serviceIds,
+                                                               @Param("serviceCount") int serviceCount,
+                                                               @Param("conditionIds") Collection<Long> conditionIds,
+                                                               @Param("conditionCount") int conditionCount,
+                                                               @Param("price") Double price,
+                                                               @Param("checkIn") Long checkIn,
+                                                               @Param("checkOut") Long checkOut);
+
+    // Один проход по отобранным единицам: строки (единица, фасет, значение) и группировка по фасету и значению
+    @Query(value = """
+            WITH base AS (
+                SELECT au.id AS id, a.district_id AS district_id, au.unit_type AS unit_type, a.rating AS rating,
+                       (SELECT MIN(t.price) FROM acc_unit_tariffs t WHERE t.accommodation_unit_id = au.id) AS min_price
+                FROM accommodation_units au
+                JOIN accommodations a ON a.id = au.acc_id
+                WHERE au.id = ANY(:ids)
+            )
+            SELECT f.facet AS facet, f.value AS value, COUNT(DISTINCT f.id) AS count
+            FROM (
+                SELECT id, 'DISTRICT' AS facet, CAST(district_id AS text) AS value FROM base
+                UNION ALL
+                SELECT id, 'UNIT_TYPE', unit_type FROM base
+                UNION ALL
+                SELECT id, 'RATING', CAST(FLOOR(rating) AS text) FROM base WHERE rating IS NOT NULL
+                UNION ALL
+                SELECT id, 'PRICE', CAST(WIDTH_BUCKET(min_price, CAST(:priceBounds AS double precision[])) AS text)
+                FROM base WHERE min_price IS NOT NULL
+                UNION ALL
+                SELECT b.id, d."key", CAST(d.id AS text) FROM base b
+                JOIN acc_unit_dictionary aud ON aud.accommodation_unit_id = b.id
+                JOIN dictionaries d ON d.id = aud.dictionary_id
+            ) f
+            GROUP BY f.facet, f.value
+            """,
+            nativeQuery = true)
+    List<FacetCountView> countFacets(@Param("ids") Long[] ids, @Param("priceBounds") Double[] priceBounds);
 }
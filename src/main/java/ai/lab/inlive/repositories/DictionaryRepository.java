@@ -1,45 +1,35 @@
 package ai.lab.inlive.repositories;
 
-import ai.lab.inlive.dto.params.DictionarySearchParams;
 import ai.lab.inlive.entities.Dictionary;
 import ai.lab.inlive.entities.enums.DictionaryKey;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotNull;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DictionaryRepository extends JpaRepository<Dictionary, Long> {
+public interface DictionaryRepository extends JpaRepository<Dictionary, Long>, JpaSpecificationExecutor<Dictionary> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     Optional<Dictionary> findByIdAndIsDeletedFalse(Long id);
 
-    @Query(value = """
-            SELECT d.*
-            FROM dictionaries d
-            WHERE (:#{#params.isDeleted} IS NULL OR d.is_deleted = :#{#params.isDeleted})
-              AND (
-                   :#{#params.keys == null || #params.keys.isEmpty()} = TRUE
-                   OR d."key" IN (:#{#params.keys.![name()]})
-              )
-              AND (:#{#params.value} IS NULL OR UPPER(d.value) LIKE UPPER(CONCAT('%', :#{#params.value}, '%')))
-            """,
-            countQuery = """
-                    SELECT COUNT(*)
-                    FROM dictionaries d
-                    WHERE (:#{#params.isDeleted} IS NULL OR d.is_deleted = :#{#params.isDeleted})
-                      AND (
-                           :#{#params.keys == null || #params.keys.isEmpty()} = TRUE
-                           OR d."key" IN (:#{#params.keys.![name()]})
-                      )
-                      AND (:#{#params.value} IS NULL OR UPPER(d.value) LIKE UPPER(CONCAT('%', :#{#params.value}, '%')))
-                    """,
-            nativeQuery = true)
-    Page<Dictionary> findWithFilters(@Param("params") DictionarySearchParams params, Pageable pageable);
+    List<Dictionary> findAllByIdInAndIsDeletedFalse(Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
+    List<Dictionary> findAllByIsDeletedFalse();
 
     boolean existsByKeyAndIsDeletedFalse(@NotNull DictionaryKey key);
 }
\ No newline at end of file
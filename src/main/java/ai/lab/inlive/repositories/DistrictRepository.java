@@ -1,15 +1,24 @@
 package ai.lab.inlive.repositories;
 
 import ai.lab.inlive.entities.District;
+import ai.lab.inlive.repositories.projections.DistrictPriceStatisticsView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DistrictRepository extends JpaRepository<District, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     List<District> findAllByIsDeletedFalse();
 
     @Query(value = """
@@ -22,14 +31,49 @@ public interface DistrictRepository extends JpaRepository<District, Long> {
     List<District> findByCityIdAndIsDeletedFalse(@Param(value = "cityId") Long cityId);
 
     @Query(value = """
-                SELECT AVG(t.price)
-                FROM acc_unit_tariffs t
-                JOIN accommodation_units u ON t.accommodation_unit_id = u.id
-                JOIN accommodations a ON u.acc_id = a.id
-                WHERE a.district_id = :districtId
-                AND a.is_deleted = false
-                AND u.is_deleted = false
-                AND t.is_deleted = false
+            SELECT a.district_id AS "districtId",
+                   AVG(t.price) AS "averagePrice",
+                   MIN(t.price) AS "minPrice",
+                   MAX(t.price) AS "maxPrice",
+                   PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY t.price) AS "medianPrice",
+                   COUNT(DISTINCT u.id) AS "pricedUnitCount"
+            FROM acc_unit_tariffs t
+            JOIN accommodation_units u ON t.accommodation_unit_id = u.id
+            JOIN accommodations a ON u.acc_id = a.id
+            WHERE a.is_deleted = false
+              AND u.is_deleted = false
+              AND t.is_deleted = false
+            GROUP BY a.district_id
             """, nativeQuery = true)
-    Double calculateAveragePriceByDistrictId(@Param("districtId") Long districtId);
+    List<DistrictPriceStatisticsView> calculatePriceStatistics();
+
+    @Query(value = """
+            SELECT a.district_id AS "districtId",
+                   AVG(t.price) AS "averagePrice",
+                   MIN(t.price) AS "minPrice",
+                   MAX(t.price) AS "maxPrice",
+                   PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY t.price) AS "medianPrice",
+                   COUNT(DISTINCT u.id) AS "pricedUnitCount"
+            FROM acc_unit_tariffs t
+            JOIN accommodation_units u ON t.accommodation_unit_id = u.id
+            JOIN accommodations a ON u.acc_id = a.id
+            WHERE a.district_id IN (:districtIds)
+              AND a.is_deleted = false
+              AND u.is_deleted = false
+              AND t.is_deleted = false
+            GROUP BY a.district_id
+            """, nativeQuery = true)
+    List<DistrictPriceStatisticsView> calculatePriceStatistics(@Param("districtIds") Collection<Long> districtIds);
+
+    @Query(value = "SELECT DISTINCT a.district_id FROM accommodations a WHERE a.id IN (:accommodationIds)",
+            nativeQuery = true)
+    List<Long> findIdsByAccommodationIds(@Param("accommodationIds") Collection<Long> accommodationIds);
+
+    @Query(value = """
+            SELECT DISTINCT a.district_id
+            FROM accommodation_units u
+            JOIN accommodations a ON u.acc_id = a.id
+            WHERE u.id IN (:unitIds)
+            """, nativeQuery = true)
+    List<Long> findIdsByUnitIds(@Param("unitIds") Collection<Long> unitIds);
 }
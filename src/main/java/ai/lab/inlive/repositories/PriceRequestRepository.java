@@ -1,13 +1,20 @@
 package ai.lab.inlive.repositories;
 
 import ai.lab.inlive.entities.PriceRequest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -44,5 +51,61 @@ public interface PriceRequestRepository extends JpaRepository<PriceRequest, Long
            "AND pr.isDeleted = false")
     boolean existsBySearchRequestIdAndUnitId(@Param("searchRequestId") Long searchRequestId,
                                              @Param("unitId") Long unitId);
-}
 
+    // Ожидающие ответа клиента предложения по заявкам, которые уже закрыты, истекли или удалены
+    @Transactional
+    @Query(value = """
+            WITH stale AS (
+                SELECT pr.id
+                FROM price_request pr
+                INNER JOIN acc_search_request asr ON asr.id = pr.acc_search_request_id
+                WHERE pr.is_deleted = FALSE
+                  AND pr.client_response_status = 'WAITING'
+                  AND (asr.is_deleted = TRUE OR asr.status IN ('EXPIRED', 'CANCELLED', 'FINISHED'))
+                LIMIT :limit
+                FOR UPDATE OF pr SKIP LOCKED
+            )
+            UPDATE price_request pr
+            SET client_response_status = 'EXPIRED', is_deleted = TRUE, updated_at = :now
+            FROM stale
+            WHERE pr.id = stale.id
+            RETURNING pr.id
+            """,
+            nativeQuery = true)
+    List<Long> expireStaleBatch(@Param("now") Long now, @Param("limit") int limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "price_request"))
+    @Modifying
+    @Query(value = """
+            UPDATE price_request
+            SET client_response_status = 'EXPIRED', is_deleted = TRUE, updated_at = :now
+            WHERE acc_search_request_id IN (:searchRequestIds)
+              AND is_deleted = FALSE
+              AND client_response_status = 'WAITING'
+            """,
+            nativeQuery = true)
+    int expireWaitingBySearchRequestIds(@Param("searchRequestIds") Collection<Long> searchRequestIds,
+                                        @Param("now") Long now);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "price_request"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "price_request_archive")
+    })
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM price_request
+                WHERE acc_search_request_id IN (:searchRequestIds)
+                RETURNING *
+            )
+            INSERT INTO price_request_archive (
+                id, created_at, updated_at, is_deleted, acc_search_request_id, accommodation_unit_id,
+                price, status, client_response_status, archived_at)
+            SELECT id, created_at, updated_at, is_deleted, acc_search_request_id, accommodation_unit_id,
+                   price, status, client_response_status, :archivedAt
+            FROM moved
+            """,
+            nativeQuery = true)
+    int archiveBySearchRequestIds(@Param("searchRequestIds") Collection<Long> searchRequestIds,
+                                  @Param("archivedAt") Long archivedAt);
+}
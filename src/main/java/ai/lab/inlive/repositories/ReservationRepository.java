@@ -1,14 +1,22 @@
 package ai.lab.inlive.repositories;
 
 import ai.lab.inlive.entities.Reservation;
+import ai.lab.inlive.repositories.projections.ReservationHistoryView;
+import ai.lab.inlive.repositories.projections.ReservationTransitionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,8 +25,6 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT DISTINCT r FROM Reservation r " +
             "LEFT JOIN FETCH r.unit u " +
             "LEFT JOIN FETCH u.accommodation acc " +
-            "LEFT JOIN FETCH acc.city " +
-            "LEFT JOIN FETCH acc.district " +
             "LEFT JOIN FETCH acc.ownerId " +
             "LEFT JOIN FETCH r.approvedBy " +
             "LEFT JOIN FETCH r.priceRequest " +
@@ -29,8 +35,6 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT DISTINCT r FROM Reservation r " +
             "LEFT JOIN FETCH r.unit u " +
             "LEFT JOIN FETCH u.accommodation acc " +
-            "LEFT JOIN FETCH acc.city " +
-            "LEFT JOIN FETCH acc.district " +
             "LEFT JOIN FETCH acc.ownerId " +
             "LEFT JOIN FETCH r.approvedBy " +
             "LEFT JOIN FETCH r.priceRequest " +
@@ -43,8 +47,6 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT DISTINCT r FROM Reservation r " +
             "LEFT JOIN FETCH r.unit u " +
             "LEFT JOIN FETCH u.accommodation acc " +
-            "LEFT JOIN FETCH acc.city " +
-            "LEFT JOIN FETCH acc.district " +
             "LEFT JOIN FETCH acc.ownerId " +
             "LEFT JOIN FETCH r.approvedBy " +
             "LEFT JOIN FETCH r.priceRequest " +
@@ -57,8 +59,6 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT DISTINCT r FROM Reservation r " +
             "LEFT JOIN FETCH r.unit u " +
             "LEFT JOIN FETCH u.accommodation acc " +
-            "LEFT JOIN FETCH acc.city " +
-            "LEFT JOIN FETCH acc.district " +
             "LEFT JOIN FETCH acc.ownerId " +
             "LEFT JOIN FETCH r.approvedBy " +
             "LEFT JOIN FETCH r.priceRequest " +
@@ -72,8 +72,6 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT DISTINCT r FROM Reservation r " +
             "LEFT JOIN FETCH r.unit u " +
             "LEFT JOIN FETCH u.accommodation acc " +
-            "LEFT JOIN FETCH acc.city " +
-            "LEFT JOIN FETCH acc.district " +
             "LEFT JOIN FETCH acc.ownerId " +
             "LEFT JOIN FETCH r.approvedBy " +
             "LEFT JOIN FETCH r.priceRequest " +
@@ -87,27 +85,152 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     boolean existsByPriceRequestId(Long priceRequestId);
 
-    @Query("SELECT COUNT(r) > 0 FROM Reservation r " +
-            "WHERE r.unit.id = :unitId " +
-            "AND r.isDeleted = false " +
-            "AND r.status IN ('WAITING_TO_APPROVE', 'ACCEPTED') " +
-            "AND r.searchRequest.fromDate < :checkOutDate " +
-            "AND r.searchRequest.toDate > :checkInDate")
-    boolean isUnitReservedForPeriod(@Param("unitId") Long unitId,
-                                   @Param("checkInDate") LocalDateTime checkInDate,
-                                   @Param("checkOutDate") LocalDateTime checkOutDate);
-
     @Query("SELECT DISTINCT r FROM Reservation r " +
             "LEFT JOIN FETCH r.unit u " +
             "LEFT JOIN FETCH u.accommodation acc " +
-            "LEFT JOIN FETCH acc.city " +
-            "LEFT JOIN FETCH acc.district " +
             "LEFT JOIN FETCH acc.ownerId " +
             "LEFT JOIN FETCH r.approvedBy " +
             "LEFT JOIN FETCH r.priceRequest " +
             "LEFT JOIN FETCH r.searchRequest " +
-            "WHERE r.approvedBy.keycloakId = :clientId " +
+            "WHERE r.approvedBy.id = :clientUserId " +
             "AND r.isDeleted = false " +
             "ORDER BY r.createdAt DESC")
-    Page<Reservation> findByClientId(@Param("clientId") String clientId, Pageable pageable);
+    Page<Reservation> findByClientId(@Param("clientUserId") Long clientUserId, Pageable pageable);
+
+    // Не подтверждённые до даты заезда бронирования
+    @Transactional
+    @Query(value = """
+            WITH stale AS (
+                SELECT r.id
+                FROM reservation r
+                INNER JOIN acc_search_request asr ON asr.id = r.search_request_id
+                WHERE r.is_deleted = FALSE
+                  AND r.status = 'WAITING_TO_APPROVE'
+                  AND asr.from_date <= :now
+                LIMIT :limit
+                FOR UPDATE OF r SKIP LOCKED
+            )
+            UPDATE reservation r
+            SET status = 'EXPIRED', is_deleted = TRUE, updated_at = :now
+            FROM stale
+            WHERE r.id = stale.id
+            RETURNING r.id AS "id", r.acc_unit_id AS "unitId", r.search_request_id AS "searchRequestId"
+            """,
+            nativeQuery = true)
+    List<ReservationTransitionView> expireUnapprovedBatch(@Param("now") Long now, @Param("limit") int limit);
+
+    // Подтверждённые бронирования, дата выезда которых уже прошла
+    @Transactional
+    @Query(value = """
+            WITH past AS (
+                SELECT r.id
+                FROM reservation r
+                INNER JOIN acc_search_request asr ON asr.id = r.search_request_id
+                WHERE r.is_deleted = FALSE
+                  AND r.status = 'APPROVED'
+                  AND asr.to_date <= :now
+                LIMIT :limit
+                FOR UPDATE OF r SKIP LOCKED
+            )
+            UPDATE reservation r
+            SET status = 'FINISHED_SUCCESSFUL', updated_at = :now
+            FROM past
+            WHERE r.id = past.id
+            RETURNING r.id AS "id", r.acc_unit_id AS "unitId", r.search_request_id AS "searchRequestId"
+            """,
+            nativeQuery = true)
+    List<ReservationTransitionView> finishPastStayBatch(@Param("now") Long now, @Param("limit") int limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reservation"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reservation_archive")
+    })
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM reservation
+                WHERE search_request_id IN (:searchRequestIds)
+                RETURNING *
+            )
+            INSERT INTO reservation_archive (
+                id, created_at, updated_at, is_deleted, client_id, acc_unit_id, price_request_id,
+                search_request_id, status, is_need_to_pay, archived_at)
+            SELECT id, created_at, updated_at, is_deleted, client_id, acc_unit_id, price_request_id,
+                   search_request_id, status, is_need_to_pay, :archivedAt
+            FROM moved
+            """,
+            nativeQuery = true)
+    int archiveBySearchRequestIds(@Param("searchRequestIds") Collection<Long> searchRequestIds,
+                                  @Param("archivedAt") Long archivedAt);
+
+    // Живые и архивные бронирования клиента; предложение и заявка берутся из той таблицы, где они сейчас лежат
+    @Query(value = """
+            SELECT h.id AS "id",
+                   h.client_id AS "clientId",
+                   CASE WHEN u.first_name IS NOT NULL AND u.last_name IS NOT NULL
+                        THEN u.first_name || ' ' || u.last_name
+                        ELSE u.username END AS "clientName",
+                   au.id AS "accommodationUnitId",
+                   au.name AS "accommodationUnitName",
+                   acc.name AS "accommodationName",
+                   c.name AS "city",
+                   d.name AS "district",
+                   acc.address AS "address",
+                   h.price_request_id AS "priceRequestId",
+                   h.search_request_id AS "searchRequestId",
+                   pr.price AS "price",
+                   h.status AS "status",
+                   h.is_need_to_pay AS "needToPay",
+                   h.created_at AS "createdAt",
+                   h.updated_at AS "updatedAt",
+                   sr.from_date AS "checkInDate",
+                   sr.to_date AS "checkOutDate",
+                   sr.count_of_people AS "guestCount",
+                   owner.phone_number AS "managerPhoneNumber",
+                   h.archived AS "archived"
+            FROM (
+                SELECT r.id, r.client_id, r.acc_unit_id, r.price_request_id, r.search_request_id,
+                       r.status, r.is_need_to_pay, r.created_at, r.updated_at, FALSE AS archived
+                FROM reservation r
+                WHERE r.client_id = :clientUserId
+                  AND r.is_deleted = FALSE
+                UNION ALL
+                SELECT ra.id, ra.client_id, ra.acc_unit_id, ra.price_request_id, ra.search_request_id,
+                       ra.status, ra.is_need_to_pay, ra.created_at, ra.updated_at, TRUE AS archived
+                FROM reservation_archive ra
+                WHERE ra.client_id = :clientUserId
+                  AND ra.is_deleted = FALSE
+            ) h
+            INNER JOIN users u ON u.id = h.client_id
+            LEFT JOIN accommodation_units au ON au.id = h.acc_unit_id
+            LEFT JOIN accommodations acc ON acc.id = au.acc_id
+            LEFT JOIN cities c ON c.id = acc.city_id
+            LEFT JOIN districts d ON d.id = acc.district_id
+            LEFT JOIN users owner ON owner.id = acc.owner_id
+            LEFT JOIN LATERAL (
+                SELECT p.price FROM price_request p WHERE p.id = h.price_request_id
+                UNION ALL
+                SELECT pa.price FROM price_request_archive pa WHERE pa.id = h.price_request_id
+                LIMIT 1
+            ) pr ON TRUE
+            LEFT JOIN LATERAL (
+                SELECT s.from_date, s.to_date, s.count_of_people
+                FROM acc_search_request s WHERE s.id = h.search_request_id
+                UNION ALL
+                SELECT sa.from_date, sa.to_date, sa.count_of_people
+                FROM acc_search_request_archive sa WHERE sa.id = h.search_request_id
+                LIMIT 1
+            ) sr ON TRUE
+            ORDER BY h.created_at DESC, h.id DESC
+            """,
+            countQuery = """
+            SELECT (SELECT COUNT(*) FROM reservation r
+                    WHERE r.client_id = :clientUserId
+                      AND r.is_deleted = FALSE)
+                 + (SELECT COUNT(*) FROM reservation_archive ra
+                    WHERE ra.client_id = :clientUserId
+                      AND ra.is_deleted = FALSE)
+            """,
+            nativeQuery = true)
+    Page<ReservationHistoryView> findHistoryByClientId(@Param("clientUserId") Long clientUserId, Pageable pageable);
 }
@@ -0,0 +1,61 @@
+package ai.lab.inlive.repositories;
+
+import ai.lab.inlive.entities.SchedulerLease;
+import ai.lab.inlive.entities.SchedulerLeaseId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, SchedulerLeaseId> {
+
+    // Аренда захватывается, если её нет, она истекла или уже принадлежит этому экземпляру; 0 - занята другим
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_lease"))
+    @Modifying
+    @Query(value = """
+            INSERT INTO scheduler_lease (job_name, shard, owner, lease_until, last_started_at)
+            VALUES (:jobName, :shard, :owner, :leaseUntil, :now)
+            ON CONFLICT (job_name, shard) DO UPDATE
+            SET owner = EXCLUDED.owner,
+                lease_until = EXCLUDED.lease_until,
+                last_started_at = EXCLUDED.last_started_at
+            WHERE scheduler_lease.lease_until <= :now
+               OR scheduler_lease.owner = :owner
+            """,
+            nativeQuery = true)
+    int tryAcquire(@Param("jobName") String jobName,
+                   @Param("shard") int shard,
+                   @Param("owner") String owner,
+                   @Param("now") Long now,
+                   @Param("leaseUntil") Long leaseUntil);
+
+    // Аренда не освобождается досрочно, чтобы другой экземпляр не повторил запуск в том же такте
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_lease"))
+    @Modifying
+    @Query(value = """
+            UPDATE scheduler_lease
+            SET lease_until = GREATEST(lease_until, :finishedAt),
+                last_finished_at = :finishedAt,
+                last_duration_ms = :durationMs,
+                last_succeeded = :succeeded
+            WHERE job_name = :jobName
+              AND shard = :shard
+              AND owner = :owner
+            """,
+            nativeQuery = true)
+    int markFinished(@Param("jobName") String jobName,
+                     @Param("shard") int shard,
+                     @Param("owner") String owner,
+                     @Param("finishedAt") Long finishedAt,
+                     @Param("durationMs") long durationMs,
+                     @Param("succeeded") boolean succeeded);
+
+    List<SchedulerLease> findAllByOrderByJobNameAscShardAsc();
+}
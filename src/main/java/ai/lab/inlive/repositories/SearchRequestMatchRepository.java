@@ -0,0 +1,80 @@
+package ai.lab.inlive.repositories;
+
+import ai.lab.inlive.entities.SearchRequestMatch;
+import ai.lab.inlive.entities.SearchRequestMatchId;
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Правила совпадения описаны один раз, в представлении search_request_unit_candidate (db/search_request_match.sql).
+ */
+@Repository
+public interface SearchRequestMatchRepository extends JpaRepository<SearchRequestMatch, SearchRequestMatchId> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "search_request_match"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO search_request_match (search_request_id, unit_id, accommodation_id, status, expires_at, unit_match)
+            SELECT c.search_request_id, c.unit_id, c.accommodation_id, c.status, c.expires_at, c.covered_by_unit
+            FROM search_request_unit_candidate c
+            WHERE c.search_request_id = :searchRequestId
+            ON CONFLICT DO NOTHING
+            """,
+            nativeQuery = true)
+    int insertMatchesForSearchRequest(@Param("searchRequestId") Long searchRequestId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "search_request_match"))
+    @Modifying
+    @Query(value = """
+            INSERT INTO search_request_match (search_request_id, unit_id, accommodation_id, status, expires_at, unit_match)
+            SELECT c.search_request_id, c.unit_id, c.accommodation_id, c.status, c.expires_at, c.covered_by_unit
+            FROM search_request_unit_candidate c
+            WHERE c.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING', 'WAIT_TO_RESERVATION')
+              AND c.search_request_deleted = FALSE
+              AND c.expires_at > EXTRACT(EPOCH FROM CURRENT_TIMESTAMP)::BIGINT
+            ON CONFLICT DO NOTHING
+            """,
+            nativeQuery = true)
+    int insertMatchesForOpenSearchRequests();
+
+    // Совпадение единицы зависит от словарей соседних единиц объекта, поэтому пересчитывается весь объект
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SearchRequestMatch m WHERE m.accommodationId IN " +
+            "(SELECT u.accommodation.id FROM AccommodationUnit u WHERE u.id IN :unitIds)")
+    int deleteByAccommodationsOfUnits(@Param("unitIds") Collection<Long> unitIds);
+
+    // Пересчёт совпадений открытых заявок только для объектов переданных unit
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "search_request_match"))
+    @Modifying
+    @Query(value = """
+            INSERT INTO search_request_match (search_request_id, unit_id, accommodation_id, status, expires_at, unit_match)
+            SELECT c.search_request_id, c.unit_id, c.accommodation_id, c.status, c.expires_at, c.covered_by_unit
+            FROM search_request_unit_candidate c
+            WHERE c.accommodation_id IN (SELECT au.acc_id FROM accommodation_units au WHERE au.id IN (:unitIds))
+              AND c.status IN ('OPEN_TO_PRICE_REQUEST', 'PRICE_REQUEST_PENDING', 'WAIT_TO_RESERVATION')
+              AND c.search_request_deleted = FALSE
+              AND c.expires_at > EXTRACT(EPOCH FROM CURRENT_TIMESTAMP)::BIGINT
+            ON CONFLICT DO NOTHING
+            """,
+            nativeQuery = true)
+    int insertMatchesForAccommodationsOfUnits(@Param("unitIds") Collection<Long> unitIds);
+
+    @Modifying
+    @Query("UPDATE SearchRequestMatch m SET m.status = :status WHERE m.searchRequestId = :searchRequestId")
+    int updateStatusBySearchRequestId(@Param("searchRequestId") Long searchRequestId,
+                                      @Param("status") SearchRequestStatus status);
+
+    @Modifying
+    @Query("UPDATE SearchRequestMatch m SET m.status = :status WHERE m.searchRequestId IN :searchRequestIds")
+    int updateStatusBySearchRequestIds(@Param("searchRequestIds") Collection<Long> searchRequestIds,
+                                       @Param("status") SearchRequestStatus status);
+}
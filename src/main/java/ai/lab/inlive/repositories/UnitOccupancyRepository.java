@@ -0,0 +1,68 @@
+package ai.lab.inlive.repositories;
+
+import ai.lab.inlive.entities.UnitOccupancy;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UnitOccupancyRepository extends JpaRepository<UnitOccupancy, Long> {
+
+    @Query("SELECT o FROM UnitOccupancy o WHERE o.unitId IN :unitIds AND o.toDate > :from AND o.fromDate < :to")
+    List<UnitOccupancy> findOverlapping(@Param("unitIds") Collection<Long> unitIds,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    // При пересечении с существующей занятостью ограничение исключения не даёт вставить строку, возвращается 0
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "unit_occupancy"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO unit_occupancy (reservation_id, unit_id, from_date, to_date)
+            VALUES (:reservationId, :unitId, :fromDate, :toDate)
+            ON CONFLICT DO NOTHING
+            """,
+            nativeQuery = true)
+    int insertOccupancy(@Param("reservationId") Long reservationId,
+                        @Param("unitId") Long unitId,
+                        @Param("fromDate") Long fromDate,
+                        @Param("toDate") Long toDate);
+
+    @Modifying
+    @Query("DELETE FROM UnitOccupancy o WHERE o.reservationId = :reservationId")
+    int deleteByReservationId(@Param("reservationId") Long reservationId);
+
+    @Modifying
+    @Query("DELETE FROM UnitOccupancy o WHERE o.reservationId IN :reservationIds")
+    int deleteByReservationIds(@Param("reservationIds") Collection<Long> reservationIds);
+
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM unit_occupancy o
+                WHERE o.unit_id = :unitId
+                  AND int8range(o.from_date, o.to_date) && int8range(:checkIn, :checkOut)
+            )
+            """,
+            nativeQuery = true)
+    boolean isUnitOccupied(@Param("unitId") Long unitId,
+                           @Param("checkIn") Long checkIn,
+                           @Param("checkOut") Long checkOut);
+
+    @Query(value = """
+            SELECT DISTINCT o.unit_id FROM unit_occupancy o
+            WHERE o.unit_id IN (:unitIds)
+              AND int8range(o.from_date, o.to_date) && int8range(:checkIn, :checkOut)
+            """,
+            nativeQuery = true)
+    List<Long> findOccupiedUnitIds(@Param("unitIds") Collection<Long> unitIds,
+                                   @Param("checkIn") Long checkIn,
+                                   @Param("checkOut") Long checkOut);
+}
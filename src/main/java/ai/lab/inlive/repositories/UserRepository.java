@@ -2,6 +2,8 @@ package ai.lab.inlive.repositories;
 
 import ai.lab.inlive.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +12,8 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByKeycloakId(String id);
 
+    @Query("SELECT u.id FROM User u WHERE u.keycloakId = :keycloakId")
+    Optional<Long> findIdByKeycloakId(@Param("keycloakId") String keycloakId);
+
     boolean existsByPhoneNumber(String phoneNumber);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface AccommodationListView {
+    Long getId();
+
+    Long getCityId();
+
+    String getCityName();
+
+    Long getDistrictId();
+
+    String getDistrictName();
+
+    String getAddress();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    String getName();
+
+    String getDescription();
+
+    Double getRating();
+
+    Boolean getApproved();
+
+    Long getApprovedBy();
+
+    Long getOwnerId();
+}
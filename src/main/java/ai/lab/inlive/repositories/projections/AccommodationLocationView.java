@@ -0,0 +1,9 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface AccommodationLocationView {
+    Long getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
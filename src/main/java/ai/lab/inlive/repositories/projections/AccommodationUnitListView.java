@@ -0,0 +1,23 @@
+package ai.lab.inlive.repositories.projections;
+
+import ai.lab.inlive.entities.enums.UnitType;
+
+public interface AccommodationUnitListView {
+    Long getId();
+
+    Long getAccommodationId();
+
+    UnitType getUnitType();
+
+    String getName();
+
+    String getDescription();
+
+    Integer getCapacity();
+
+    Double getArea();
+
+    Integer getFloor();
+
+    Boolean getIsAvailable();
+}
@@ -0,0 +1,16 @@
+package ai.lab.inlive.repositories.projections;
+
+import ai.lab.inlive.entities.enums.DictionaryKey;
+
+/**
+ * Связь объекта или единицы размещения со значением справочника, ownerId - id объекта или единицы.
+ */
+public interface DictionaryLinkView {
+    Long getOwnerId();
+
+    Long getDictionaryId();
+
+    DictionaryKey getDictionaryKey();
+
+    String getDictionaryValue();
+}
@@ -0,0 +1,15 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface DistrictPriceStatisticsView {
+    Long getDistrictId();
+
+    Double getAveragePrice();
+
+    Double getMinPrice();
+
+    Double getMaxPrice();
+
+    Double getMedianPrice();
+
+    Long getPricedUnitCount();
+}
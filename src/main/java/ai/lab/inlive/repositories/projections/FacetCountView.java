@@ -0,0 +1,9 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface FacetCountView {
+    String getFacet();
+
+    String getValue();
+
+    Long getCount();
+}
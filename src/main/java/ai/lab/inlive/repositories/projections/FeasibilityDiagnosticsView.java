@@ -0,0 +1,23 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface FeasibilityDiagnosticsView {
+    Long getTotalUnits();
+
+    Long getFailedByType();
+
+    Long getFailedByDistrict();
+
+    Long getFailedByRating();
+
+    Long getFailedByCapacity();
+
+    Long getFailedByServices();
+
+    Long getFailedByConditions();
+
+    Long getFailedByPrice();
+
+    Long getFailedByDates();
+
+    Boolean getMatchFound();
+}
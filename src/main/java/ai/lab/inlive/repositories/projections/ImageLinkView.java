@@ -0,0 +1,7 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface ImageLinkView {
+    Long getOwnerId();
+
+    String getImageUrl();
+}
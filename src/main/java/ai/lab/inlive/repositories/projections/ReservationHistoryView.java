@@ -0,0 +1,46 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface ReservationHistoryView {
+    Long getId();
+
+    Long getClientId();
+
+    String getClientName();
+
+    Long getAccommodationUnitId();
+
+    String getAccommodationUnitName();
+
+    String getAccommodationName();
+
+    String getCity();
+
+    String getDistrict();
+
+    String getAddress();
+
+    Long getPriceRequestId();
+
+    Long getSearchRequestId();
+
+    Double getPrice();
+
+    String getStatus();
+
+    Boolean getNeedToPay();
+
+    // Даты - epoch-секунды, как хранятся в таблицах
+    Long getCreatedAt();
+
+    Long getUpdatedAt();
+
+    Long getCheckInDate();
+
+    Long getCheckOutDate();
+
+    Integer getGuestCount();
+
+    String getManagerPhoneNumber();
+
+    Boolean getArchived();
+}
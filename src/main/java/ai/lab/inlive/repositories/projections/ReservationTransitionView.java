@@ -0,0 +1,9 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface ReservationTransitionView {
+    Long getId();
+
+    Long getUnitId();
+
+    Long getSearchRequestId();
+}
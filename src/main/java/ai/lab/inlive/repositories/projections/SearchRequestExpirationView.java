@@ -0,0 +1,8 @@
+package ai.lab.inlive.repositories.projections;
+
+public interface SearchRequestExpirationView {
+    Long getId();
+
+    // Epoch-секунды, как хранится в acc_search_request.expires_at
+    Long getExpiresAt();
+}
@@ -0,0 +1,11 @@
+package ai.lab.inlive.repositories.projections;
+
+import ai.lab.inlive.entities.enums.DictionaryKey;
+
+public interface UnitDictionaryView {
+    Long getUnitId();
+
+    Long getDictionaryId();
+
+    DictionaryKey getDictionaryKey();
+}
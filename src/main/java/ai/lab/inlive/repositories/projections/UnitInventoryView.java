@@ -0,0 +1,19 @@
+package ai.lab.inlive.repositories.projections;
+
+import ai.lab.inlive.entities.enums.UnitType;
+
+public interface UnitInventoryView {
+    Long getUnitId();
+
+    Long getAccommodationId();
+
+    Long getDistrictId();
+
+    UnitType getUnitType();
+
+    Integer getCapacity();
+
+    Double getRating();
+
+    Double getMinPrice();
+}
@@ -0,0 +1,19 @@
+package ai.lab.inlive.repositories.projections;
+
+import ai.lab.inlive.entities.enums.DictionaryKey;
+
+public interface UnitTariffView {
+    Long getUnitId();
+
+    Long getId();
+
+    Double getPrice();
+
+    String getCurrency();
+
+    Long getRangeTypeId();
+
+    DictionaryKey getRangeTypeKey();
+
+    String getRangeTypeValue();
+}
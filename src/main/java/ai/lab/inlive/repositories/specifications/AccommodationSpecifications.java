@@ -0,0 +1,75 @@
+package ai.lab.inlive.repositories.specifications;
+
+import ai.lab.inlive.dto.params.AccommodationSearchParams;
+import ai.lab.inlive.entities.Accommodation;
+import ai.lab.inlive.inventory.AccommodationGeoIndex;
+import ai.lab.inlive.inventory.GeoFilter;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static ai.lab.inlive.repositories.specifications.TextPredicates.*;
+
+public final class AccommodationSpecifications {
+    private AccommodationSpecifications() {
+    }
+
+    public static Specification<Accommodation> withFilters(AccommodationSearchParams params) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (params.getCityId() != null) {
+                predicates.add(cb.equal(root.get("city").get("id"), params.getCityId()));
+            }
+            if (params.getDistrictId() != null) {
+                predicates.add(cb.equal(root.get("district").get("id"), params.getDistrictId()));
+            }
+            if (params.getApproved() != null) {
+                predicates.add(cb.equal(root.get("approved"), params.getApproved()));
+            }
+            if (params.getMinRating() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("rating"), params.getMinRating()));
+            }
+            if (params.getIsDeleted() != null) {
+                predicates.add(cb.equal(root.get("isDeleted"), params.getIsDeleted()));
+            }
+            if (hasText(params.getName())) {
+                predicates.add(containsIgnoreCase(cb, root.get("name"), params.getName()));
+            }
+            if (hasText(params.getQuery())) {
+                String text = params.getQuery();
+                predicates.add(cb.or(
+                        containsIgnoreCase(cb, root.get("name"), text),
+                        wordMatch(cb, root.get("name"), text),
+                        containsIgnoreCase(cb, root.get("address"), text),
+                        containsIgnoreCase(cb, root.get("description"), text)));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Accommodation> ownedBy(Long ownerUserId) {
+        return (root, query, cb) -> cb.equal(root.get("ownerId").get("id"), ownerUserId);
+    }
+
+    public static Specification<Accommodation> locatedIn(GeoFilter filter, AccommodationGeoIndex.Candidates candidates) {
+        return (root, query, cb) -> filter.hasArea()
+                ? GeoPredicates.within(cb, root, filter, candidates)
+                : null;
+    }
+
+    public static SortSpecification<Accommodation> byDistance(GeoFilter filter) {
+        if (!filter.hasOrigin()) {
+            return SortSpecification.unsorted();
+        }
+        return (root, cb) -> List.of(GeoPredicates.byDistance(cb, root, filter));
+    }
+
+    public static SortSpecification<Accommodation> relevance(AccommodationSearchParams params) {
+        if (!hasText(params.getQuery())) {
+            return SortSpecification.unsorted();
+        }
+        return (root, cb) -> List.of(bySimilarityDesc(cb, root.get("name"), params.getQuery()));
+    }
+}
@@ -0,0 +1,111 @@
+package ai.lab.inlive.repositories.specifications;
+
+import ai.lab.inlive.dto.params.AccommodationUnitSearchParams;
+import ai.lab.inlive.entities.AccommodationUnit;
+import ai.lab.inlive.entities.UnitOccupancy;
+import ai.lab.inlive.entities.enums.UnitType;
+import ai.lab.inlive.inventory.AccommodationGeoIndex;
+import ai.lab.inlive.inventory.GeoFilter;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static ai.lab.inlive.repositories.specifications.TextPredicates.*;
+
+public final class AccommodationUnitSpecifications {
+    private AccommodationUnitSpecifications() {
+    }
+
+    public static Specification<AccommodationUnit> withFilters(AccommodationUnitSearchParams params) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (params.getAccommodationId() != null) {
+                predicates.add(cb.equal(root.get("accommodation").get("id"), params.getAccommodationId()));
+            }
+            if (hasText(params.getUnitType())) {
+                // Неизвестный тип ничего не находит, как и прежнее сравнение строк
+                predicates.add(parseUnitType(params.getUnitType())
+                        .map(unitType -> cb.equal(root.get("unitType"), unitType))
+                        .orElseGet(cb::disjunction));
+            }
+            if (params.getIsAvailable() != null) {
+                predicates.add(cb.equal(root.get("isAvailable"), params.getIsAvailable()));
+            }
+            if (params.getIsDeleted() != null) {
+                predicates.add(cb.equal(root.get("isDeleted"), params.getIsDeleted()));
+            }
+            if (hasText(params.getName())) {
+                predicates.add(containsIgnoreCase(cb, root.get("name"), params.getName()));
+            }
+            if (hasText(params.getQuery())) {
+                String text = params.getQuery();
+                predicates.add(cb.or(
+                        containsIgnoreCase(cb, root.get("name"), text),
+                        wordMatch(cb, root.get("name"), text),
+                        containsIgnoreCase(cb, root.get("description"), text)));
+            }
+            if (params.getMinCapacity() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("capacity"), params.getMinCapacity()));
+            }
+            if (params.getMaxCapacity() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("capacity"), params.getMaxCapacity()));
+            }
+            if (params.getMinArea() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("area"), params.getMinArea()));
+            }
+            if (params.getMaxArea() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("area"), params.getMaxArea()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<AccommodationUnit> locatedIn(GeoFilter filter, AccommodationGeoIndex.Candidates candidates) {
+        return (root, query, cb) -> filter.hasArea()
+                ? GeoPredicates.within(cb, root.get("accommodation"), filter, candidates)
+                : null;
+    }
+
+    /**
+     * Единица свободна, если в unit_occupancy нет периода, пересекающегося с [checkIn, checkOut).
+     * Коррелированный NOT EXISTS планируется как anti-join по idx_unit_occupancy_unit_to_date.
+     */
+    public static Specification<AccommodationUnit> freeDuring(LocalDateTime checkIn, LocalDateTime checkOut) {
+        return (root, query, cb) -> {
+            Subquery<Long> occupied = query.subquery(Long.class);
+            Root<UnitOccupancy> occupancy = occupied.from(UnitOccupancy.class);
+            occupied.select(occupancy.get("reservationId"))
+                    .where(cb.equal(occupancy.get("unitId"), root.get("id")),
+                            cb.greaterThan(occupancy.get("toDate"), checkIn),
+                            cb.lessThan(occupancy.get("fromDate"), checkOut));
+            return cb.not(cb.exists(occupied));
+        };
+    }
+
+    public static SortSpecification<AccommodationUnit> byDistance(GeoFilter filter) {
+        if (!filter.hasOrigin()) {
+            return SortSpecification.unsorted();
+        }
+        return (root, cb) -> List.of(GeoPredicates.byDistance(cb, root.get("accommodation"), filter));
+    }
+
+    public static SortSpecification<AccommodationUnit> relevance(AccommodationUnitSearchParams params) {
+        if (!hasText(params.getQuery())) {
+            return SortSpecification.unsorted();
+        }
+        return (root, cb) -> List.of(bySimilarityDesc(cb, root.get("name"), params.getQuery()));
+    }
+
+    private static Optional<UnitType> parseUnitType(String value) {
+        return Arrays.stream(UnitType.values())
+                .filter(unitType -> unitType.name().equalsIgnoreCase(value.trim()))
+                .findFirst();
+    }
+}
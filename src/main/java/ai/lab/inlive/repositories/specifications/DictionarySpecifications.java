@@ -0,0 +1,32 @@
+package ai.lab.inlive.repositories.specifications;
+
+import ai.lab.inlive.dto.params.DictionarySearchParams;
+import ai.lab.inlive.entities.Dictionary;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static ai.lab.inlive.repositories.specifications.TextPredicates.hasText;
+
+public final class DictionarySpecifications {
+    private DictionarySpecifications() {
+    }
+
+    public static Specification<Dictionary> withFilters(DictionarySearchParams params) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (params.getIsDeleted() != null) {
+                predicates.add(cb.equal(root.get("isDeleted"), params.getIsDeleted()));
+            }
+            if (params.getKeys() != null && !params.getKeys().isEmpty()) {
+                predicates.add(root.get("key").in(params.getKeys()));
+            }
+            if (hasText(params.getValue())) {
+                predicates.add(cb.like(cb.upper(root.get("value")), "%" + params.getValue().toUpperCase() + "%"));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package ai.lab.inlive.repositories.specifications;
+
+import ai.lab.inlive.inventory.AccommodationGeoIndex;
+import ai.lab.inlive.inventory.GeoFilter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Условия по координатам объекта размещения. Расстояние в SQL - равнопромежуточная проекция вокруг точки
+ * поиска: для радиусов в сотни километров погрешность в доли процента, а порядок ближних точек не меняется.
+ */
+final class GeoPredicates {
+    private GeoPredicates() {
+    }
+
+    /**
+     * candidates - отбор из {@link AccommodationGeoIndex}, сужает проверку до известных id и объектов,
+     * изменённых после загрузки индекса; null - фильтр целиком по индексу координат в базе.
+     * Координаты проверяются в SQL в обоих случаях, так что отставший индекс не теряет и не добавляет строк.
+     */
+    static Predicate within(CriteriaBuilder cb, Path<?> accommodation, GeoFilter filter,
+                            AccommodationGeoIndex.Candidates candidates) {
+        Predicate area = area(cb, accommodation, filter);
+        if (candidates == null) {
+            return area;
+        }
+        Predicate changedSinceLoad = cb.greaterThanOrEqualTo(accommodation.get("updatedAt"), candidates.changedSince());
+        Predicate indexed = candidates.ids().isEmpty()
+                ? changedSinceLoad
+                : cb.or(accommodation.get("id").in(candidates.ids()), changedSinceLoad);
+        return cb.and(indexed, area);
+    }
+
+    private static Predicate area(CriteriaBuilder cb, Path<?> accommodation, GeoFilter filter) {
+        Path<Double> latitude = accommodation.get("latitude");
+        Path<Double> longitude = accommodation.get("longitude");
+        GeoFilter.Bounds bounds = filter.bounds();
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.between(latitude, bounds.south(), bounds.north()));
+        predicates.add(cb.between(longitude, bounds.west(), bounds.east()));
+        if (filter.hasRadius()) {
+            double radiusDegrees = Math.toDegrees(filter.radiusMeters() / GeoFilter.EARTH_RADIUS_METERS);
+            predicates.add(cb.le(squaredDistance(cb, latitude, longitude, filter), radiusDegrees * radiusDegrees));
+        }
+        return cb.and(predicates.toArray(Predicate[]::new));
+    }
+
+    static Order byDistance(CriteriaBuilder cb, Path<?> accommodation, GeoFilter filter) {
+        return cb.asc(squaredDistance(cb, accommodation.get("latitude"), accommodation.get("longitude"), filter));
+    }
+
+    private static Expression<Double> squaredDistance(CriteriaBuilder cb, Path<Double> latitude, Path<Double> longitude,
+                                                      GeoFilter filter) {
+        double cosLatitude = Math.cos(Math.toRadians(filter.originLatitude()));
+        Expression<Double> latitudeDelta = cb.diff(latitude, filter.originLatitude());
+        Expression<Double> longitudeDelta = cb.prod(cb.diff(longitude, filter.originLongitude()), cosLatitude);
+        return cb.sum(cb.prod(latitudeDelta, latitudeDelta), cb.prod(longitudeDelta, longitudeDelta));
+    }
+}
@@ -0,0 +1,28 @@
+package ai.lab.inlive.repositories.specifications;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Порядок, который ставится перед сортировкой из Pageable (например, релевантность текстового поиска).
+ */
+@FunctionalInterface
+public interface SortSpecification<T> {
+    List<Order> toOrders(Root<T> root, CriteriaBuilder cb);
+
+    default SortSpecification<T> then(SortSpecification<T> next) {
+        return (root, cb) -> {
+            List<Order> orders = new ArrayList<>(toOrders(root, cb));
+            orders.addAll(next.toOrders(root, cb));
+            return orders;
+        };
+    }
+
+    static <T> SortSpecification<T> unsorted() {
+        return (root, cb) -> List.of();
+    }
+}
@@ -0,0 +1,82 @@
+package ai.lab.inlive.repositories.specifications;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Страница id по спецификации: в SQL попадают только заданные фильтры, сначала порядок из SortSpecification,
+ * затем сортировка из Pageable. Запрос количества пропускается, если страница и так неполная.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpecificationIdQuery {
+    private final EntityManager entityManager;
+
+    public <T> Page<Long> findIds(Class<T> entityType, Specification<T> specification,
+                                  SortSpecification<T> sortSpecification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(root.get("id"));
+        applyWhere(query, root, cb, specification);
+
+        List<Order> orders = new ArrayList<>(sortSpecification.toOrders(root, cb));
+        orders.addAll(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        query.orderBy(orders);
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+                () -> count(entityType, specification));
+    }
+
+    /**
+     * Id по спецификации без порядка, не больше limit + 1 - для агрегатов по отобранному набору.
+     * Если вернулось больше limit, набор превышает лимит и целиком не загружается.
+     */
+    public <T> List<Long> findAllIds(Class<T> entityType, Specification<T> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(root.get("id"));
+        applyWhere(query, root, cb, specification);
+        return entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+    }
+
+    public <T> long count(Class<T> entityType, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(cb.count(root));
+        applyWhere(query, root, cb, specification);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static <T> void applyWhere(CriteriaQuery<Long> query, Root<T> root, CriteriaBuilder cb,
+                                       Specification<T> specification) {
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
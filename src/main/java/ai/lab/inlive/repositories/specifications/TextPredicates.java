@@ -0,0 +1,37 @@
+package ai.lab.inlive.repositories.specifications;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+/**
+ * Текстовые условия под триграммные индексы. Значения передаются через value(), а не literal():
+ * литерал Hibernate вписывает прямо в SQL, а value() биндит параметром, так что SQL зависит только
+ * от набора заданных фильтров и подготовленные запросы переиспользуются.
+ */
+final class TextPredicates {
+    private TextPredicates() {
+    }
+
+    static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    static Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> column, String value) {
+        return ((HibernateCriteriaBuilder) cb).ilike(column, "%" + value + "%");
+    }
+
+    static Predicate wordMatch(CriteriaBuilder cb, Expression<String> column, String value) {
+        return cb.isTrue(cb.function("trgm_word_match", Boolean.class, column, bound(cb, value)));
+    }
+
+    static Order bySimilarityDesc(CriteriaBuilder cb, Expression<String> column, String value) {
+        return cb.desc(cb.function("word_similarity", Double.class, bound(cb, value), column));
+    }
+
+    private static Expression<String> bound(CriteriaBuilder cb, String value) {
+        return ((HibernateCriteriaBuilder) cb).value(value);
+    }
+}
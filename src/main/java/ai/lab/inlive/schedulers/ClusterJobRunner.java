@@ -0,0 +1,89 @@
+package ai.lab.inlive.schedulers;
+
+import ai.lab.inlive.repositories.SchedulerLeaseRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.IntConsumer;
+
+/**
+ * Запускает фоновые задачи так, чтобы в кластере каждую задачу (или её шард) в одном такте
+ * выполнял только один экземпляр. Аренда хранится в таблице scheduler_lease и держится
+ * весь такт, поэтому экземпляры, проснувшиеся позже, видят её занятой и пропускают запуск.
+ */
+@Slf4j
+@Component
+public class ClusterJobRunner {
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionTemplate leaseTransaction;
+    @Getter
+    private final String owner;
+
+    public ClusterJobRunner(SchedulerLeaseRepository schedulerLeaseRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * Выполняет задачу, если этому экземпляру удалось взять аренду на leaseDuration.
+     */
+    public boolean runExclusive(String jobName, Duration leaseDuration, Runnable job) {
+        return runShard(jobName, 0, leaseDuration, shard -> job.run());
+    }
+
+    /**
+     * Выполняет все шарды задачи, которые удалось захватить. Экземпляры начинают перебор
+     * с разных шардов, поэтому при нескольких узлах шарды разбираются параллельно.
+     */
+    public int runSharded(String jobName, int shardCount, Duration leaseDuration, IntConsumer job) {
+        int offset = Math.floorMod(owner.hashCode(), shardCount);
+        int claimed = 0;
+        for (int i = 0; i < shardCount; i++) {
+            if (runShard(jobName, (offset + i) % shardCount, leaseDuration, job)) {
+                claimed++;
+            }
+        }
+        return claimed;
+    }
+
+    private boolean runShard(String jobName, int shard, Duration leaseDuration, IntConsumer job) {
+        long now = Instant.now().getEpochSecond();
+        Integer acquired = leaseTransaction.execute(status ->
+                schedulerLeaseRepository.tryAcquire(jobName, shard, owner, now, now + leaseDuration.toSeconds()));
+        if (acquired == null || acquired == 0) {
+            log.debug("Job {} shard {} is leased by another node, skipping", jobName, shard);
+            return false;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        boolean succeeded = false;
+        try {
+            job.accept(shard);
+            succeeded = true;
+        } catch (RuntimeException ex) {
+            log.error("Job {} shard {} failed: {}", jobName, shard, ex.getMessage(), ex);
+        } finally {
+            finish(jobName, shard, System.currentTimeMillis() - startedAt, succeeded);
+        }
+        return true;
+    }
+
+    private void finish(String jobName, int shard, long durationMs, boolean succeeded) {
+        try {
+            leaseTransaction.executeWithoutResult(status -> schedulerLeaseRepository.markFinished(
+                    jobName, shard, owner, Instant.now().getEpochSecond(), durationMs, succeeded));
+        } catch (RuntimeException ex) {
+            log.error("Failed to record completion of job {} shard {}: {}", jobName, shard, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ai.lab.inlive.schedulers;
+
+import ai.lab.inlive.entities.SchedulerLease;
+import ai.lab.inlive.repositories.SchedulerLeaseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
+
+/**
+ * /actuator/scheduler-leases: кто держит аренду каждой задачи и как прошёл её последний запуск.
+ */
+@Component
+@Endpoint(id = "scheduler-leases")
+@RequiredArgsConstructor
+public class SchedulerLeaseEndpoint {
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final ClusterJobRunner clusterJobRunner;
+
+    @ReadOperation
+    public List<LeaseInfo> leases() {
+        LocalDateTime now = LocalDateTime.now(ZONE_ID);
+        return schedulerLeaseRepository.findAllByOrderByJobNameAscShardAsc().stream()
+                .map(lease -> toInfo(lease, now))
+                .toList();
+    }
+
+    private LeaseInfo toInfo(SchedulerLease lease, LocalDateTime now) {
+        return new LeaseInfo(
+                lease.getJobName(),
+                lease.getShard(),
+                lease.getOwner(),
+                clusterJobRunner.getOwner().equals(lease.getOwner()),
+                lease.getLeaseUntil().isAfter(now),
+                lease.getLeaseUntil(),
+                lease.getLastStartedAt(),
+                lease.getLastFinishedAt(),
+                lease.getLastDurationMs(),
+                lease.getLastSucceeded());
+    }
+
+    public record LeaseInfo(String jobName,
+                            Integer shard,
+                            String owner,
+                            boolean ownedByThisNode,
+                            boolean active,
+                            LocalDateTime leaseUntil,
+                            LocalDateTime lastStartedAt,
+                            LocalDateTime lastFinishedAt,
+                            Long lastDurationMs,
+                            Boolean lastSucceeded) {
+    }
+}
@@ -1,43 +1,43 @@
 package ai.lab.inlive.schedulers;
 
-import ai.lab.inlive.entities.AccSearchRequest;
-import ai.lab.inlive.entities.enums.SearchRequestStatus;
-import ai.lab.inlive.repositories.AccSearchRequestRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Страховочный опрос: истекает заявки, которые таймер пропустил (например, созданные на другом экземпляре).
+ * Заявки разбиты на шарды по id, каждый шард в такте обрабатывает один экземпляр.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SearchRequestExpirationScheduler {
-    private final AccSearchRequestRepository accSearchRequestRepository;
+    private static final String JOB_NAME = "search-request-expiration";
+    private static final int SHARD_COUNT = 4;
+    // Чуть меньше интервала, чтобы расхождение часов узлов не съедало следующий такт
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(29);
 
-    @Scheduled(fixedRate = 300000)
-    @Transactional
+    private final SearchRequestExpirer searchRequestExpirer;
+    private final ClusterJobRunner clusterJobRunner;
+
+    @Scheduled(fixedRate = 1800000)
     public void checkAndExpireSearchRequests() {
         log.info("Starting search request expiration check...");
 
-        List<AccSearchRequest> expiredRequests = accSearchRequestRepository.findExpiredRequests();
-
-        if (!expiredRequests.isEmpty()) {
-            log.info("Found {} expired search requests", expiredRequests.size());
-
-            for (AccSearchRequest request : expiredRequests) {
-                request.setStatus(SearchRequestStatus.EXPIRED);
-                request.softDelete();
-                log.info("Search request ID {} expired. Was created at: {}, expired at: {}",
-                        request.getId(),
-                        request.getCreatedAt(),
-                        request.getExpiresAt());
-            }
+        long now = Instant.now().getEpochSecond();
+        AtomicInteger total = new AtomicInteger();
+        int claimed = clusterJobRunner.runSharded(JOB_NAME, SHARD_COUNT, LEASE_DURATION,
+                shard -> total.addAndGet(searchRequestExpirer.expireDue(now, shard, SHARD_COUNT)));
 
-            accSearchRequestRepository.saveAll(expiredRequests);
-            log.info("Successfully expired {} search requests", expiredRequests.size());
+        if (claimed == 0) {
+            log.info("All expiration shards are handled by other nodes");
+        } else if (total.get() > 0) {
+            log.info("Reconciliation expired {} search requests missed by the timer in {} shards", total.get(), claimed);
         } else {
             log.info("No expired search requests found");
         }
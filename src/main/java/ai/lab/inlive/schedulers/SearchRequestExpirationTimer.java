@@ -0,0 +1,106 @@
+package ai.lab.inlive.schedulers;
+
+import ai.lab.inlive.repositories.AccSearchRequestRepository;
+import ai.lab.inlive.repositories.projections.SearchRequestExpirationView;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
+
+/**
+ * Истекает заявки в момент наступления expires_at. Очередь заполняется из БД при старте
+ * и пополняется при создании заявок; все заявки, срок которых наступил одновременно, истекают одной пачкой.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchRequestExpirationTimer {
+    private static final long RETRY_DELAY_SECONDS = 15;
+    private static final long MAX_RETRY_DELAY_SECONDS = 120;
+
+    private final AccSearchRequestRepository accSearchRequestRepository;
+    private final SearchRequestExpirer searchRequestExpirer;
+
+    private final DelayQueue<Expiration> queue = new DelayQueue<>();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<SearchRequestExpirationView> pending = accSearchRequestRepository.findPendingExpirations();
+        pending.forEach(request -> queue.add(new Expiration(request.getId(), request.getExpiresAt())));
+        log.info("Search request expiration timer loaded {} pending expirations", pending.size());
+
+        worker = Thread.ofPlatform()
+                .name("search-request-expiration")
+                .daemon()
+                .start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    public void schedule(Long searchRequestId, LocalDateTime expiresAt) {
+        queue.add(new Expiration(searchRequestId, expiresAt.atZone(ZONE_ID).toEpochSecond()));
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Expiration> due = new ArrayList<>();
+            try {
+                due.add(queue.take());
+                queue.drainTo(due, SearchRequestExpirer.CHUNK_SIZE - 1);
+
+                int expired = searchRequestExpirer.expire(
+                        due.stream().map(Expiration::searchRequestId).toList(),
+                        Instant.now().getEpochSecond());
+                log.info("Timer expired {} of {} due search requests", expired, due.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Пачка возвращается в очередь с нарастающей задержкой, а не ждёт страховочного опроса
+                long now = Instant.now().getEpochSecond();
+                due.forEach(expiration -> queue.add(expiration.retry(now)));
+                log.error("Failed to expire {} due search requests, retrying them later", due.size(), e);
+            }
+        }
+    }
+
+    // expiresAt - момент срабатывания: срок заявки, а после ошибок - время следующей попытки
+    private record Expiration(Long searchRequestId, long expiresAt, int attempt) implements Delayed {
+        Expiration(Long searchRequestId, long expiresAt) {
+            this(searchRequestId, expiresAt, 0);
+        }
+
+        Expiration retry(long now) {
+            long delay = Math.min(RETRY_DELAY_SECONDS << Math.min(attempt, 4), MAX_RETRY_DELAY_SECONDS);
+            return new Expiration(searchRequestId, now + delay, attempt + 1);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt * 1000 - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAt, ((Expiration) other).expiresAt);
+        }
+    }
+}
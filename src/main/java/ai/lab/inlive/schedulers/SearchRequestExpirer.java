@@ -0,0 +1,111 @@
+package ai.lab.inlive.schedulers;
+
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
+import ai.lab.inlive.repositories.AccSearchRequestRepository;
+import ai.lab.inlive.repositories.PriceRequestRepository;
+import ai.lab.inlive.repositories.projections.SearchRequestExpirationView;
+import ai.lab.inlive.services.SearchRequestMatchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Переводит заявки в EXPIRED пачками по {@link #CHUNK_SIZE}, каждая пачка - отдельная транзакция.
+ * В той же транзакции истекают ожидающие ответа клиента предложения цены по этим заявкам.
+ * Используется и таймером точного истечения, и страховочным опросом.
+ */
+@Slf4j
+@Component
+public class SearchRequestExpirer {
+    static final int CHUNK_SIZE = 1000;
+
+    private final AccSearchRequestRepository accSearchRequestRepository;
+    private final PriceRequestRepository priceRequestRepository;
+    private final SearchRequestMatchService searchRequestMatchService;
+    private final TransactionTemplate chunkTransaction;
+    private final Counter expiredCounter;
+    private final Counter priceRequestsExpiredCounter;
+    private final DistributionSummary expirationLag;
+
+    public SearchRequestExpirer(AccSearchRequestRepository accSearchRequestRepository,
+                                PriceRequestRepository priceRequestRepository,
+                                SearchRequestMatchService searchRequestMatchService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.accSearchRequestRepository = accSearchRequestRepository;
+        this.priceRequestRepository = priceRequestRepository;
+        this.searchRequestMatchService = searchRequestMatchService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.expiredCounter = Counter.builder("inlive.search_requests.expired")
+                .description("Search requests moved to EXPIRED by the expiration sweep")
+                .register(meterRegistry);
+        this.priceRequestsExpiredCounter = WorkflowSweeper.transitionCounter(
+                meterRegistry, "price_request", "WAITING", "EXPIRED");
+        this.expirationLag = DistributionSummary.builder("inlive.search_requests.expiration.lag")
+                .description("Delay between expires_at and the moment the request was actually expired")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Истекает все заявки со сроком не позже now, пока очередная пачка не окажется неполной.
+     */
+    public int expireDue(long now) {
+        return expireDue(now, 0, 1);
+    }
+
+    /**
+     * То же, но только для заявок своего шарда: id % shardCount == shard.
+     */
+    public int expireDue(long now, int shard, int shardCount) {
+        int total = 0;
+        int chunkSize;
+        do {
+            chunkSize = expireChunk(
+                    () -> accSearchRequestRepository.expireBatch(now, shard, shardCount, CHUNK_SIZE), now);
+            total += chunkSize;
+        } while (chunkSize == CHUNK_SIZE);
+        return total;
+    }
+
+    /**
+     * Истекает переданные заявки, если они всё ещё открыты и их срок наступил.
+     */
+    public int expire(Collection<Long> searchRequestIds, long now) {
+        if (searchRequestIds.isEmpty()) {
+            return 0;
+        }
+        return expireChunk(() -> accSearchRequestRepository.expireByIds(searchRequestIds, now), now);
+    }
+
+    private int expireChunk(Supplier<List<SearchRequestExpirationView>> update, long now) {
+        AtomicInteger priceRequests = new AtomicInteger();
+        List<SearchRequestExpirationView> expired = chunkTransaction.execute(status -> {
+            List<SearchRequestExpirationView> chunk = update.get();
+            List<Long> ids = chunk.stream().map(SearchRequestExpirationView::getId).toList();
+            searchRequestMatchService.updateStatuses(ids, SearchRequestStatus.EXPIRED);
+            if (!ids.isEmpty()) {
+                priceRequests.set(priceRequestRepository.expireWaitingBySearchRequestIds(ids, now));
+            }
+            return chunk;
+        });
+        if (expired == null || expired.isEmpty()) {
+            return 0;
+        }
+
+        expiredCounter.increment(expired.size());
+        priceRequestsExpiredCounter.increment(priceRequests.get());
+        expired.forEach(request -> expirationLag.record(Math.max(now - request.getExpiresAt(), 0)));
+        log.debug("Expired chunk of {} search requests", expired.size());
+        return expired.size();
+    }
+}
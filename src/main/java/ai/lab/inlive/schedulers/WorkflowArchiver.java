@@ -0,0 +1,134 @@
+package ai.lab.inlive.schedulers;
+
+import ai.lab.inlive.repositories.AccSearchRequestRepository;
+import ai.lab.inlive.repositories.PriceRequestRepository;
+import ai.lab.inlive.repositories.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.util.List;
+
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
+
+/**
+ * Переносит завершённые заявки вместе с их предложениями цены и бронированиями в секционированные
+ * архивные таблицы (db/archive.sql). Заявка уходит в архив целиком, когда все её строки в конечном
+ * статусе и не менялись дольше spring.application.archive.retention. Пачка - отдельная транзакция.
+ */
+@Slf4j
+@Component
+public class WorkflowArchiver {
+    static final int CHUNK_SIZE = 500;
+
+    private static final String JOB_NAME = "workflow-archiver";
+    private static final Duration LEASE_DURATION = Duration.ofHours(6).minusMinutes(1);
+
+    private final AccSearchRequestRepository accSearchRequestRepository;
+    private final PriceRequestRepository priceRequestRepository;
+    private final ReservationRepository reservationRepository;
+    private final ClusterJobRunner clusterJobRunner;
+    private final TransactionTemplate chunkTransaction;
+    private final Duration retention;
+    private final Counter searchRequestsArchived;
+    private final Counter priceRequestsArchived;
+    private final Counter reservationsArchived;
+
+    public WorkflowArchiver(AccSearchRequestRepository accSearchRequestRepository,
+                            PriceRequestRepository priceRequestRepository,
+                            ReservationRepository reservationRepository,
+                            ClusterJobRunner clusterJobRunner,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${spring.application.archive.retention:180d}") Duration retention) {
+        this.accSearchRequestRepository = accSearchRequestRepository;
+        this.priceRequestRepository = priceRequestRepository;
+        this.reservationRepository = reservationRepository;
+        this.clusterJobRunner = clusterJobRunner;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.searchRequestsArchived = archivedCounter(meterRegistry, "acc_search_request");
+        this.priceRequestsArchived = archivedCounter(meterRegistry, "price_request");
+        this.reservationsArchived = archivedCounter(meterRegistry, "reservation");
+    }
+
+    private static Counter archivedCounter(MeterRegistry meterRegistry, String table) {
+        return Counter.builder("inlive.archive.moved")
+                .description("Rows moved from hot tables into the archive")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRate = 21600000)
+    public void archiveFinishedWorkflow() {
+        clusterJobRunner.runExclusive(JOB_NAME, LEASE_DURATION, () -> archive(Instant.now().getEpochSecond()));
+    }
+
+    public int archive(long now) {
+        long cutoff = now - retention.toSeconds();
+        Long oldest = accSearchRequestRepository.findOldestArchivableCreatedAt(cutoff);
+        if (oldest == null) {
+            log.info("Nothing to archive older than {}", retention);
+            return 0;
+        }
+        // Все строки дерева заявки созданы до cutoff, поэтому секций с года самой старой заявки по год cutoff достаточно
+        chunkTransaction.executeWithoutResult(status -> {
+            for (int year = yearOf(oldest); year <= yearOf(cutoff); year++) {
+                accSearchRequestRepository.ensureArchivePartition(year, startOfYear(year), startOfYear(year + 1));
+            }
+        });
+
+        int total = 0;
+        int chunkSize;
+        do {
+            chunkSize = archiveChunk(cutoff, now);
+            total += chunkSize;
+        } while (chunkSize == CHUNK_SIZE);
+
+        log.info("Archived {} finished search requests older than {}", total, retention);
+        return total;
+    }
+
+    private int archiveChunk(long cutoff, long now) {
+        Moved moved = chunkTransaction.execute(status -> {
+            List<Long> ids = accSearchRequestRepository.findArchivableIds(cutoff, CHUNK_SIZE);
+            if (ids.isEmpty()) {
+                return new Moved(0, 0, 0);
+            }
+            // Порядок важен из-за внешних ключей: бронирования -> предложения -> дочерние строки -> заявки
+            int reservations = reservationRepository.archiveBySearchRequestIds(ids, now);
+            int priceRequests = priceRequestRepository.archiveBySearchRequestIds(ids, now);
+            accSearchRequestRepository.copyToArchive(ids, now);
+            accSearchRequestRepository.deleteChildrenByIds(ids);
+            accSearchRequestRepository.deleteArchivedByIds(ids);
+            return new Moved(ids.size(), priceRequests, reservations);
+        });
+        if (moved == null) {
+            return 0;
+        }
+        searchRequestsArchived.increment(moved.searchRequests());
+        priceRequestsArchived.increment(moved.priceRequests());
+        reservationsArchived.increment(moved.reservations());
+        return moved.searchRequests();
+    }
+
+    private static int yearOf(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond).atZone(ZONE_ID).getYear();
+    }
+
+    // Граница секции в том же поясе, что и yearOf, иначе строки попадут не в свой год
+    private static long startOfYear(int year) {
+        return Year.of(year).atDay(1).atStartOfDay(ZONE_ID).toEpochSecond();
+    }
+
+    private record Moved(int searchRequests, int priceRequests, int reservations) {
+    }
+}
@@ -0,0 +1,143 @@
+package ai.lab.inlive.schedulers;
+
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
+import ai.lab.inlive.repositories.AccSearchRequestRepository;
+import ai.lab.inlive.repositories.PriceRequestRepository;
+import ai.lab.inlive.repositories.ReservationRepository;
+import ai.lab.inlive.repositories.UnitOccupancyRepository;
+import ai.lab.inlive.repositories.projections.ReservationTransitionView;
+import ai.lab.inlive.services.SearchRequestMatchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * Закрывает зависшие шаги воркфлоу пачками по {@link #CHUNK_SIZE}, каждая пачка - отдельная транзакция:
+ * <ul>
+ *     <li>предложения цены WAITING по закрытым заявкам - EXPIRED;</li>
+ *     <li>бронирования WAITING_TO_APPROVE, не подтверждённые до заезда - EXPIRED, занятость освобождается;</li>
+ *     <li>бронирования APPROVED с прошедшей датой выезда - FINISHED_SUCCESSFUL.</li>
+ * </ul>
+ * Количество переходов пишется в счётчик inlive.workflow.transitions.
+ */
+@Slf4j
+@Component
+public class WorkflowSweeper {
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String JOB_NAME = "workflow-sweeper";
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(59);
+
+    private final PriceRequestRepository priceRequestRepository;
+    private final ReservationRepository reservationRepository;
+    private final AccSearchRequestRepository accSearchRequestRepository;
+    private final UnitOccupancyRepository unitOccupancyRepository;
+    private final SearchRequestMatchService searchRequestMatchService;
+    private final ClusterJobRunner clusterJobRunner;
+    private final TransactionTemplate chunkTransaction;
+    private final Counter priceRequestsExpired;
+    private final Counter reservationsExpired;
+    private final Counter reservationsFinished;
+    private final Counter searchRequestsExpired;
+
+    public WorkflowSweeper(PriceRequestRepository priceRequestRepository,
+                           ReservationRepository reservationRepository,
+                           AccSearchRequestRepository accSearchRequestRepository,
+                           UnitOccupancyRepository unitOccupancyRepository,
+                           SearchRequestMatchService searchRequestMatchService,
+                           ClusterJobRunner clusterJobRunner,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.priceRequestRepository = priceRequestRepository;
+        this.reservationRepository = reservationRepository;
+        this.accSearchRequestRepository = accSearchRequestRepository;
+        this.unitOccupancyRepository = unitOccupancyRepository;
+        this.searchRequestMatchService = searchRequestMatchService;
+        this.clusterJobRunner = clusterJobRunner;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.priceRequestsExpired = transitionCounter(meterRegistry, "price_request", "WAITING", "EXPIRED");
+        this.reservationsExpired = transitionCounter(meterRegistry, "reservation", "WAITING_TO_APPROVE", "EXPIRED");
+        this.reservationsFinished = transitionCounter(meterRegistry, "reservation", "APPROVED", "FINISHED_SUCCESSFUL");
+        this.searchRequestsExpired = transitionCounter(meterRegistry, "search_request", "WAIT_TO_RESERVATION", "EXPIRED");
+    }
+
+    static Counter transitionCounter(MeterRegistry meterRegistry, String entity, String from, String to) {
+        return Counter.builder("inlive.workflow.transitions")
+                .description("Workflow rows moved between statuses by background jobs")
+                .tag("entity", entity)
+                .tag("from", from)
+                .tag("to", to)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void sweepStaleWorkflow() {
+        clusterJobRunner.runExclusive(JOB_NAME, LEASE_DURATION, () -> sweep(Instant.now().getEpochSecond()));
+    }
+
+    public void sweep(long now) {
+        int expiredReservations = drain(this::expireUnapprovedReservations, now);
+        int finishedReservations = drain(this::finishPastStayReservations, now);
+        // Последними, чтобы подхватить предложения заявок, истёкших вместе с бронированиями
+        int expiredPriceRequests = drain(this::expireStalePriceRequests, now);
+
+        log.info("Workflow sweep: {} reservations expired, {} reservations finished, {} price requests expired",
+                expiredReservations, finishedReservations, expiredPriceRequests);
+    }
+
+    private int drain(LongFunction<Integer> chunk, long now) {
+        int total = 0;
+        int chunkSize;
+        do {
+            chunkSize = chunk.apply(now);
+            total += chunkSize;
+        } while (chunkSize == CHUNK_SIZE);
+        return total;
+    }
+
+    private int expireStalePriceRequests(long now) {
+        List<Long> expired = chunkTransaction.execute(status -> priceRequestRepository.expireStaleBatch(now, CHUNK_SIZE));
+        int count = expired == null ? 0 : expired.size();
+        priceRequestsExpired.increment(count);
+        return count;
+    }
+
+    private int expireUnapprovedReservations(long now) {
+        AtomicInteger searchRequests = new AtomicInteger();
+        List<ReservationTransitionView> expired = chunkTransaction.execute(status -> {
+            List<ReservationTransitionView> chunk = reservationRepository.expireUnapprovedBatch(now, CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                return chunk;
+            }
+            unitOccupancyRepository.deleteByReservationIds(chunk.stream().map(ReservationTransitionView::getId).toList());
+
+            List<Long> searchRequestIds = accSearchRequestRepository.expireWaitingForReservation(
+                    chunk.stream().map(ReservationTransitionView::getSearchRequestId).distinct().toList(), now);
+            searchRequestMatchService.updateStatuses(searchRequestIds, SearchRequestStatus.EXPIRED);
+            searchRequests.set(searchRequestIds.size());
+            return chunk;
+        });
+        int count = expired == null ? 0 : expired.size();
+        reservationsExpired.increment(count);
+        searchRequestsExpired.increment(searchRequests.get());
+        return count;
+    }
+
+    private int finishPastStayReservations(long now) {
+        List<ReservationTransitionView> finished = chunkTransaction.execute(status ->
+                reservationRepository.finishPastStayBatch(now, CHUNK_SIZE));
+        int count = finished == null ? 0 : finished.size();
+        reservationsFinished.increment(count);
+        return count;
+    }
+}
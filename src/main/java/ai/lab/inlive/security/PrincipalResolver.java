@@ -0,0 +1,105 @@
+package ai.lab.inlive.security;
+
+import ai.lab.inlive.constants.Utils;
+import ai.lab.inlive.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Сопоставляет id пользователя из Keycloak с внутренним id без запроса к базе на каждом вызове.
+ * Связка keycloakId -> id не меняется, пока пользователь существует, поэтому кэш сбрасывается только
+ * при удалении пользователей; срок жизни записей ограничивает устаревание на других экземплярах.
+ * В рамках HTTP-запроса текущий пользователь разрешается один раз и хранится в атрибутах запроса.
+ */
+@Slf4j
+@Component
+public class PrincipalResolver {
+    private static final String REQUEST_ATTRIBUTE = PrincipalResolver.class.getName() + ".CURRENT";
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> userIds = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public PrincipalResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Пользователь текущего запроса; пусто, если запрос без JWT или пользователя нет в базе.
+     */
+    public Optional<ResolvedPrincipal> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof ResolvedPrincipal principal) {
+            return Optional.of(principal);
+        }
+        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthenticationToken token)) {
+            return Optional.empty();
+        }
+
+        String keycloakId = Utils.extractIdFromToken(token);
+        Optional<ResolvedPrincipal> principal = lookup(keycloakId)
+                .map(userId -> new ResolvedPrincipal(keycloakId, userId,
+                        Set.copyOf(Utils.getAuthorities(token.getAuthorities()))));
+        if (attributes != null) {
+            principal.ifPresent(resolved -> attributes.setAttribute(REQUEST_ATTRIBUTE, resolved, RequestAttributes.SCOPE_REQUEST));
+        }
+        return principal;
+    }
+
+    public Optional<Long> findUserId(String keycloakId) {
+        if (keycloakId == null) {
+            return Optional.empty();
+        }
+        Optional<ResolvedPrincipal> current = current();
+        if (current.isPresent() && current.get().keycloakId().equals(keycloakId)) {
+            return Optional.of(current.get().userId());
+        }
+        return lookup(keycloakId);
+    }
+
+    /**
+     * Сбрасывает записи удалённых пользователей после коммита (или сразу, если транзакции нет).
+     */
+    public void usersRemoved(Collection<String> keycloakIds) {
+        List<String> removed = List.copyOf(keycloakIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userIds.invalidateAll(removed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userIds.invalidateAll(removed);
+                log.debug("Evicted {} removed users from principal cache", removed.size());
+            }
+        });
+    }
+
+    private Optional<Long> lookup(String keycloakId) {
+        Long cached = userIds.getIfPresent(keycloakId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // Отсутствие не кэшируется: пользователь может появиться сразу после регистрации
+        Optional<Long> loaded = userRepository.findIdByKeycloakId(keycloakId);
+        loaded.ifPresent(userId -> userIds.put(keycloakId, userId));
+        return loaded;
+    }
+}
@@ -0,0 +1,9 @@
+package ai.lab.inlive.security;
+
+import java.util.Set;
+
+/**
+ * Текущий пользователь запроса: id из Keycloak, внутренний id и роли из токена.
+ */
+public record ResolvedPrincipal(String keycloakId, Long userId, Set<String> roles) {
+}
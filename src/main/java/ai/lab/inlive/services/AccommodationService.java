@@ -6,6 +6,7 @@ import ai.lab.inlive.dto.request.AccommodationDictionariesUpdateRequest;
 import ai.lab.inlive.dto.request.AccommodationUpdateRequest;
 import ai.lab.inlive.dto.response.AccSearchRequestResponse;
 import ai.lab.inlive.dto.response.AccommodationResponse;
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,8 +20,12 @@ public interface AccommodationService {
 
     AccommodationResponse getAccommodationById(Long id);
 
+    String getCatalogVersion(Long id);
+
     Page<AccommodationResponse> searchWithParams(AccommodationSearchParams accommodationSearchParams, Pageable pageable);
 
+    SearchFacetsResponse getSearchFacets(AccommodationSearchParams accommodationSearchParams);
+
     @Transactional
     void updateAccommodation(Long id, AccommodationUpdateRequest request);
 
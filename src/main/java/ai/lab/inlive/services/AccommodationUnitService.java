@@ -9,6 +9,7 @@ import ai.lab.inlive.dto.response.AccSearchRequestResponse;
 import ai.lab.inlive.dto.response.AccommodationUnitResponse;
 import ai.lab.inlive.dto.response.PriceRequestResponse;
 import ai.lab.inlive.dto.response.ReservationResponse;
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
@@ -24,6 +25,8 @@ public interface AccommodationUnitService {
 
     Page<AccommodationUnitResponse> searchWithParams(AccommodationUnitSearchParams params, Pageable pageable);
 
+    SearchFacetsResponse getSearchFacets(AccommodationUnitSearchParams params);
+
     void deleteUnit(Long id);
 
     void updateUnit(Long id, AccommodationUnitUpdateRequest request);
@@ -0,0 +1,12 @@
+package ai.lab.inlive.services;
+
+import ai.lab.inlive.dto.params.CalendarParams;
+import ai.lab.inlive.dto.response.UnitCalendarResponse;
+
+import java.util.List;
+
+public interface AvailabilityCalendarService {
+    UnitCalendarResponse getUnitCalendar(Long unitId, CalendarParams params);
+
+    List<UnitCalendarResponse> getAccommodationCalendar(Long accommodationId, CalendarParams params);
+}
@@ -0,0 +1,15 @@
+package ai.lab.inlive.services;
+
+import ai.lab.inlive.dto.response.AccommodationResponse;
+import ai.lab.inlive.dto.response.AccommodationUnitResponse;
+import org.springframework.data.domain.Page;
+
+/**
+ * Собирает страницу списка по странице id: строки и дочерние коллекции читаются пакетно в проекции,
+ * число запросов не зависит от размера страницы. Порядок и общее количество берутся из страницы id.
+ */
+public interface CatalogPageLoader {
+    Page<AccommodationResponse> loadAccommodations(Page<Long> ids);
+
+    Page<AccommodationUnitResponse> loadUnits(Page<Long> ids);
+}
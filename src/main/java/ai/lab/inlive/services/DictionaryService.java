@@ -16,6 +16,8 @@ public interface DictionaryService {
 
     Page<DictionaryResponse> searchWithParams(DictionarySearchParams dictionarySearchParams, Pageable pageable);
 
+    long getCatalogVersion();
+
     @Transactional
     void updateDictionary(Long id, DictionaryUpdateRequest request);
 
@@ -8,4 +8,6 @@ public interface DistrictService {
     List<DistrictResponse> getAllDistricts();
 
     List<DistrictResponse> getDistrictsByCity(Long cityId);
+
+    Object getCatalogVersion();
 }
@@ -0,0 +1,20 @@
+package ai.lab.inlive.services;
+
+import ai.lab.inlive.entities.Dictionary;
+import ai.lab.inlive.entities.District;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Проверка справочных данных по спискам id сразу для всех id по снимку в памяти.
+ * Возвращаются ссылки на сущности без обращения к базе.
+ */
+public interface ReferenceDataResolver {
+    List<District> resolveDistricts(Collection<Long> districtIds);
+
+    Amenities resolveAmenities(Collection<Long> serviceIds, Collection<Long> conditionIds);
+
+    record Amenities(List<Dictionary> services, List<Dictionary> conditions) {
+    }
+}
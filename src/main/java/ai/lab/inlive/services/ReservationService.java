@@ -1,5 +1,6 @@
 package ai.lab.inlive.services;
 
+import ai.lab.inlive.dto.params.ReservationHistoryParams;
 import ai.lab.inlive.dto.request.ReservationCreateRequest;
 import ai.lab.inlive.dto.request.ReservationFinalStatusUpdateRequest;
 import ai.lab.inlive.dto.request.ReservationUpdateRequest;
@@ -24,7 +25,7 @@ public interface ReservationService {
 
     Page<ReservationResponse> getReservationsBySearchRequestId(Long searchRequestId, Pageable pageable);
 
-    Page<ReservationResponse> getMyReservations(String clientId, Pageable pageable);
+    Page<ReservationResponse> getMyReservations(String clientId, ReservationHistoryParams params, Pageable pageable);
 
     void cancelReservation(Long reservationId, String clientId);
 }
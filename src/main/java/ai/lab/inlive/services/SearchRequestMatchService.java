@@ -0,0 +1,15 @@
+package ai.lab.inlive.services;
+
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
+
+import java.util.Collection;
+
+public interface SearchRequestMatchService {
+    void matchSearchRequest(Long searchRequestId);
+
+    void updateStatus(Long searchRequestId, SearchRequestStatus status);
+
+    void updateStatuses(Collection<Long> searchRequestIds, SearchRequestStatus status);
+
+    void rematchUnits(Collection<Long> unitIds);
+}
@@ -0,0 +1,9 @@
+package ai.lab.inlive.services;
+
+import ai.lab.inlive.entities.Reservation;
+
+public interface UnitOccupancyService {
+    void occupy(Reservation reservation);
+
+    void release(Reservation reservation);
+}
@@ -1,17 +1,27 @@
 package ai.lab.inlive.services.impl;
 
+import ai.lab.inlive.cache.ReferenceDataCache;
+import ai.lab.inlive.cache.ReferenceDataCache.DistrictRef;
 import ai.lab.inlive.dto.request.AccSearchRequestCreateRequest;
 import ai.lab.inlive.dto.request.AccSearchRequestUpdatePriceRequest;
 import ai.lab.inlive.dto.response.AccSearchRequestResponse;
 import ai.lab.inlive.entities.*;
-import ai.lab.inlive.entities.enums.DictionaryKey;
 import ai.lab.inlive.entities.enums.SearchRequestStatus;
 import ai.lab.inlive.entities.enums.UnitType;
 import ai.lab.inlive.exceptions.DbObjectNotFoundException;
 import ai.lab.inlive.exceptions.ForbiddenException;
+import ai.lab.inlive.inventory.DictionaryBitmap;
+import ai.lab.inlive.inventory.DictionaryOrdinals;
+import ai.lab.inlive.inventory.InventoryIndex;
+import ai.lab.inlive.inventory.UnitSnapshot;
 import ai.lab.inlive.mappers.AccSearchRequestMapper;
 import ai.lab.inlive.repositories.*;
+import ai.lab.inlive.repositories.projections.FeasibilityDiagnosticsView;
+import ai.lab.inlive.schedulers.SearchRequestExpirationTimer;
+import ai.lab.inlive.security.PrincipalResolver;
 import ai.lab.inlive.services.AccSearchRequestService;
+import ai.lab.inlive.services.ReferenceDataResolver;
+import ai.lab.inlive.services.SearchRequestMatchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
@@ -28,8 +38,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
 
@@ -40,11 +52,16 @@ public class AccSearchRequestServiceImpl implements AccSearchRequestService {
 
     private final AccSearchRequestRepository accSearchRequestRepository;
     private final UserRepository userRepository;
-    private final DistrictRepository districtRepository;
-    private final DictionaryRepository dictionaryRepository;
+    private final PrincipalResolver principalResolver;
+    private final ReferenceDataResolver referenceDataResolver;
+    private final ReferenceDataCache referenceDataCache;
     private final AccommodationUnitRepository accommodationUnitRepository;
-    private final ReservationRepository reservationRepository;
+    private final InventoryIndex inventoryIndex;
+    private final DictionaryOrdinals dictionaryOrdinals;
+    private final UnitOccupancyRepository unitOccupancyRepository;
     private final AccSearchRequestMapper accSearchRequestMapperImpl;
+    private final SearchRequestMatchService searchRequestMatchService;
+    private final SearchRequestExpirationTimer searchRequestExpirationTimer;
     private final MessageSource messageSource;
 
     @Override
@@ -71,54 +88,17 @@ public class AccSearchRequestServiceImpl implements AccSearchRequestService {
                     messageSource.getMessage("services.searchRequest.invalidDates", null, LocaleContextHolder.getLocale()));
         }
 
-        var author = userRepository.findByKeycloakId(authorId)
+        var author = principalResolver.findUserId(authorId)
+                .map(userRepository::getReferenceById)
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", 
                         messageSource.getMessage("services.searchRequest.userNotFound", 
                                 new Object[]{authorId}, LocaleContextHolder.getLocale())));
 
-        List<District> districts = new ArrayList<>();
-        for (Long districtId : request.getDistrictIds()) {
-            District district = districtRepository.findById(districtId)
-                    .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND,
-                            "DISTRICT_NOT_FOUND",
-                            messageSource.getMessage("services.searchRequest.districtNotFound", 
-                                    new Object[]{districtId}, LocaleContextHolder.getLocale())));
-            districts.add(district);
-        }
-
-        List<Dictionary> services = new ArrayList<>();
-        if (request.getServiceDictionaryIds() != null && !request.getServiceDictionaryIds().isEmpty()) {
-            for (Long serviceId : request.getServiceDictionaryIds()) {
-                Dictionary service = dictionaryRepository.findByIdAndIsDeletedFalse(serviceId)
-                        .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND,
-                                "DICTIONARY_NOT_FOUND",
-                                messageSource.getMessage("services.searchRequest.dictionaryNotFound", 
-                                        new Object[]{serviceId}, LocaleContextHolder.getLocale())));
-                if (service.getKey() != DictionaryKey.ACC_SERVICE) {
-                    throw new IllegalArgumentException(
-                            messageSource.getMessage("services.searchRequest.invalidDictionaryKey", 
-                                    new Object[]{serviceId, "ACC_SERVICE"}, LocaleContextHolder.getLocale()));
-                }
-                services.add(service);
-            }
-        }
-
-        List<Dictionary> conditions = new ArrayList<>();
-        if (request.getConditionDictionaryIds() != null && !request.getConditionDictionaryIds().isEmpty()) {
-            for (Long conditionId : request.getConditionDictionaryIds()) {
-                Dictionary condition = dictionaryRepository.findByIdAndIsDeletedFalse(conditionId)
-                        .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND,
-                                "DICTIONARY_NOT_FOUND",
-                                messageSource.getMessage("services.searchRequest.dictionaryNotFound", 
-                                        new Object[]{conditionId}, LocaleContextHolder.getLocale())));
-                if (condition.getKey() != DictionaryKey.ACC_CONDITION) {
-                    throw new IllegalArgumentException(
-                            messageSource.getMessage("services.searchRequest.invalidDictionaryKey", 
-                                    new Object[]{conditionId, "ACC_CONDITION"}, LocaleContextHolder.getLocale()));
-                }
-                conditions.add(condition);
-            }
-        }
+        List<District> districts = referenceDataResolver.resolveDistricts(request.getDistrictIds());
+        ReferenceDataResolver.Amenities amenities = referenceDataResolver.resolveAmenities(
+                request.getServiceDictionaryIds(), request.getConditionDictionaryIds());
+        List<Dictionary> services = amenities.services();
+        List<Dictionary> conditions = amenities.conditions();
 
         String failureReason = checkAvailableUnits(request, districts, services, conditions, checkInDateTime, checkOutDateTime);
 
@@ -142,42 +122,43 @@ public class AccSearchRequestServiceImpl implements AccSearchRequestService {
         searchRequest.setExpiresAt(expiresAt);
         log.info("Search request will expire at: {}", expiresAt);
 
-        AccSearchRequest saved = accSearchRequestRepository.save(searchRequest);
-
         Set<AccSearchRequestUnitType> unitTypes = new HashSet<>();
         for (UnitType unitType : request.getUnitTypes()) {
             AccSearchRequestUnitType requestUnitType = new AccSearchRequestUnitType();
-            requestUnitType.setSearchRequest(saved);
+            requestUnitType.setSearchRequest(searchRequest);
             requestUnitType.setUnitType(unitType);
             unitTypes.add(requestUnitType);
         }
-        saved.setUnitTypes(unitTypes);
+        searchRequest.setUnitTypes(unitTypes);
 
         Set<AccSearchRequestDistrict> requestDistricts = new HashSet<>();
         for (District district : districts) {
             AccSearchRequestDistrict requestDistrict = new AccSearchRequestDistrict();
-            requestDistrict.setSearchRequest(saved);
+            requestDistrict.setSearchRequest(searchRequest);
             requestDistrict.setDistrict(district);
             requestDistricts.add(requestDistrict);
         }
-        saved.setDistricts(requestDistricts);
+        searchRequest.setDistricts(requestDistricts);
 
         Set<AccSearchRequestDictionary> dictionaries = new HashSet<>();
         for (Dictionary service : services) {
             AccSearchRequestDictionary dict = new AccSearchRequestDictionary();
-            dict.setSearchRequest(saved);
+            dict.setSearchRequest(searchRequest);
             dict.setDictionary(service);
             dictionaries.add(dict);
         }
         for (Dictionary condition : conditions) {
             AccSearchRequestDictionary dict = new AccSearchRequestDictionary();
-            dict.setSearchRequest(saved);
+            dict.setSearchRequest(searchRequest);
             dict.setDictionary(condition);
             dictionaries.add(dict);
         }
-        saved.setDictionaries(dictionaries);
+        searchRequest.setDictionaries(dictionaries);
 
-        saved = accSearchRequestRepository.save(saved);
+        // Заявка и все дочерние записи сохраняются одним persist и уходят в БД пачкой
+        AccSearchRequest saved = accSearchRequestRepository.save(searchRequest);
+        searchRequestMatchService.matchSearchRequest(saved.getId());
+        searchRequestExpirationTimer.schedule(saved.getId(), saved.getExpiresAt());
 
         log.info("Successfully created search request with ID: {} for user: {}", saved.getId(), authorId);
     }
@@ -202,127 +183,78 @@ public class AccSearchRequestServiceImpl implements AccSearchRequestService {
                                        LocalDateTime checkOutDate) {
 
         Set<Long> districtIds = new HashSet<>();
-        String districtNames = districts.stream()
-                .map(District::getName)
-                .collect(Collectors.joining(", "));
-
         for (District district : districts) {
             districtIds.add(district.getId());
         }
 
-        List<AccommodationUnit> units = accommodationUnitRepository.findAll();
-
-        if (units.isEmpty()) {
-            return messageSource.getMessage("services.searchRequest.noAccommodations", null, LocaleContextHolder.getLocale());
-        }
-
-        int totalUnits = 0;
-        int failedByType = 0;
-        int failedByDistrict = 0;
-        int failedByRating = 0;
-        int failedByCapacity = 0;
-        int failedByServices = 0;
-        int failedByConditions = 0;
-        int failedByPrice = 0;
-        int failedByDates = 0;
-
-        for (AccommodationUnit unit : units) {
-            if (unit.getIsDeleted() || !unit.getIsAvailable()) {
-                continue;
-            }
-
-            Accommodation acc = unit.getAccommodation();
-            if (acc.getIsDeleted()) {
-                continue;
-            }
-
-            totalUnits++;
-
-            if (!request.getUnitTypes().contains(unit.getUnitType())) {
-                failedByType++;
-                continue;
-            }
-
-            if (!districtIds.contains(acc.getDistrict().getId())) {
-                failedByDistrict++;
-                continue;
-            }
-
-            if (request.getFromRating() != null && acc.getRating() < request.getFromRating()) {
-                failedByRating++;
-                continue;
-            }
-            if (request.getToRating() != null && acc.getRating() > request.getToRating()) {
-                failedByRating++;
-                continue;
-            }
-
-            if (unit.getCapacity() < request.getCountOfPeople()) {
-                failedByCapacity++;
-                continue;
-            }
-
-            boolean hasAllServices = true;
-            if (!services.isEmpty()) {
-                Set<Long> unitServiceIds = new HashSet<>();
-                for (AccUnitDictionary unitDict : unit.getDictionaries()) {
-                    if (unitDict.getDictionary().getKey() == DictionaryKey.ACC_SERVICE) {
-                        unitServiceIds.add(unitDict.getDictionary().getId());
-                    }
-                }
-                for (Dictionary service : services) {
-                    if (!unitServiceIds.contains(service.getId())) {
-                        hasAllServices = false;
-                        break;
-                    }
-                }
-            }
-            if (!hasAllServices) {
-                failedByServices++;
-                continue;
-            }
-
-            boolean hasAllConditions = true;
-            if (!conditions.isEmpty()) {
-                Set<Long> unitConditionIds = new HashSet<>();
-                for (AccUnitDictionary unitDict : unit.getDictionaries()) {
-                    if (unitDict.getDictionary().getKey() == DictionaryKey.ACC_CONDITION) {
-                        unitConditionIds.add(unitDict.getDictionary().getId());
-                    }
-                }
-                for (Dictionary condition : conditions) {
-                    if (!unitConditionIds.contains(condition.getId())) {
-                        hasAllConditions = false;
-                        break;
-                    }
-                }
-            }
-            if (!hasAllConditions) {
-                failedByConditions++;
-                continue;
-            }
-
-            if (request.getPrice() != null && !unit.getTariffs().isEmpty()) {
-                Double minPrice = unit.getTariffs().stream()
-                        .map(AccUnitTariffs::getPrice)
-                        .min(Double::compareTo)
-                        .orElse(null);
+        Set<UnitType> unitTypes = new HashSet<>(request.getUnitTypes());
+        Set<Long> serviceIds = services.stream().map(Dictionary::getId).collect(Collectors.toSet());
+        Set<Long> conditionIds = conditions.stream().map(Dictionary::getId).collect(Collectors.toSet());
+
+        long[] requiredDictionaries = dictionaryOrdinals.encode(
+                Stream.concat(serviceIds.stream(), conditionIds.stream()).toList());
+
+        // Быстрый путь: статические критерии проверяются по индексу в памяти, даты - одним запросом
+        List<Long> staticMatches = inventoryIndex.findCandidates(districtIds, unitTypes).stream()
+                .filter(unit -> request.getFromRating() == null || unit.rating() >= request.getFromRating())
+                .filter(unit -> request.getToRating() == null || unit.rating() <= request.getToRating())
+                .filter(unit -> unit.capacity() >= request.getCountOfPeople())
+                .filter(unit -> DictionaryBitmap.containsAll(requiredDictionaries, unit.dictionaryBits()))
+                .filter(unit -> request.getPrice() == null || unit.minPrice() == null || unit.minPrice() <= request.getPrice())
+                .map(UnitSnapshot::unitId)
+                .toList();
 
-                if (minPrice > request.getPrice()) {
-                    failedByPrice++;
-                    continue;
-                }
-            }
+        long checkIn = checkInDate.atZone(ZONE_ID).toEpochSecond();
+        long checkOut = checkOutDate.atZone(ZONE_ID).toEpochSecond();
 
-            if (reservationRepository.isUnitReservedForPeriod(unit.getId(), checkInDate, checkOutDate)) {
-                failedByDates++;
-                continue;
+        if (!staticMatches.isEmpty()) {
+            List<Long> occupiedUnitIds = unitOccupancyRepository.findOccupiedUnitIds(staticMatches, checkIn, checkOut);
+            if (occupiedUnitIds.size() < staticMatches.size()) {
+                return null;
             }
+        }
 
+        // Подходящих вариантов в индексе нет - причины отказа считаются одним агрегирующим запросом по БД
+        FeasibilityDiagnosticsView diagnostics = accommodationUnitRepository.calculateFeasibilityDiagnostics(
+                unitTypes.stream().map(UnitType::name).toList(),
+                districtIds,
+                request.getFromRating(),
+                request.getToRating(),
+                request.getCountOfPeople(),
+                serviceIds.isEmpty() ? List.of(-1L) : serviceIds,
+                serviceIds.size(),
+                conditionIds.isEmpty() ? List.of(-1L) : conditionIds,
+                conditionIds.size(),
+                request.getPrice(),
+                checkIn,
+                checkOut);
+
+        if (Boolean.TRUE.equals(diagnostics.getMatchFound())) {
             return null;
         }
 
+        long totalUnits = diagnostics.getTotalUnits();
+        long failedByDistrict = diagnostics.getFailedByDistrict();
+        long failedByDates = diagnostics.getFailedByDates();
+        long failedByPrice = diagnostics.getFailedByPrice();
+        long failedByCapacity = diagnostics.getFailedByCapacity();
+        long failedByType = diagnostics.getFailedByType();
+        long failedByRating = diagnostics.getFailedByRating();
+        long failedByServices = diagnostics.getFailedByServices();
+        long failedByConditions = diagnostics.getFailedByConditions();
+
+        if (totalUnits == 0) {
+            return messageSource.getMessage("services.searchRequest.noAccommodations", null, LocaleContextHolder.getLocale());
+        }
+
         if (failedByDistrict > 0 && failedByDistrict == totalUnits) {
+            // Районы - ссылки без загрузки, названия берутся из снимка справочников
+            String districtNames = districts.stream()
+                    .map(District::getId)
+                    .map(referenceDataCache::findDistrict)
+                    .flatMap(Optional::stream)
+                    .map(DistrictRef::name)
+                    .collect(Collectors.joining(", "));
             return messageSource.getMessage("services.searchRequest.noMatchingDistricts", 
                     new Object[]{districtNames}, LocaleContextHolder.getLocale());
         }
@@ -400,12 +332,12 @@ public class AccSearchRequestServiceImpl implements AccSearchRequestService {
     public Page<AccSearchRequestResponse> getMySearchRequests(String authorId, Pageable pageable) {
         log.info("Fetching search requests for user: {}", authorId);
 
-        var author = userRepository.findByKeycloakId(authorId)
+        var authorUserId = principalResolver.findUserId(authorId)
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "USER_NOT_FOUND",
                         messageSource.getMessage("services.searchRequest.userNotFound",
                                 new Object[]{authorId}, LocaleContextHolder.getLocale())));
 
-        Page<AccSearchRequest> requestsPage = accSearchRequestRepository.findAllByAuthor_IdAndIsDeletedFalse(author.getId(), pageable);
+        Page<AccSearchRequest> requestsPage = accSearchRequestRepository.findAllByAuthor_IdAndIsDeletedFalse(authorUserId, pageable);
 
         if (requestsPage.isEmpty()) {
             return Page.empty(pageable);
@@ -439,7 +371,7 @@ public class AccSearchRequestServiceImpl implements AccSearchRequestService {
                         messageSource.getMessage("services.searchRequest.notFound",
                                 new Object[]{id}, LocaleContextHolder.getLocale())));
 
-        if (!searchRequest.getAuthor().getKeycloakId().equals(authorId)) {
+        if (!isAuthor(searchRequest, authorId)) {
             throw new ForbiddenException(
                     messageSource.getMessage("services.searchRequest.accessDenied", null, LocaleContextHolder.getLocale()));
         }
@@ -470,7 +402,7 @@ public class AccSearchRequestServiceImpl implements AccSearchRequestService {
                         "SEARCH_REQUEST_NOT_FOUND",
                         "Search request not found with ID: " + id));
 
-        if (!searchRequest.getAuthor().getKeycloakId().equals(authorId)) {
+        if (!isAuthor(searchRequest, authorId)) {
             throw new ForbiddenException(
                     messageSource.getMessage("services.searchRequest.accessDenied", null, LocaleContextHolder.getLocale()));
         }
@@ -488,7 +420,15 @@ public class AccSearchRequestServiceImpl implements AccSearchRequestService {
         searchRequest.setStatus(SearchRequestStatus.CANCELLED);
         searchRequest.softDelete();
         accSearchRequestRepository.save(searchRequest);
+        searchRequestMatchService.updateStatus(searchRequest.getId(), searchRequest.getStatus());
 
         log.info("Successfully cancelled search request ID: {}", id);
     }
+
+    // Сравнение по внутреннему id не требует загрузки автора
+    private boolean isAuthor(AccSearchRequest searchRequest, String authorId) {
+        return principalResolver.findUserId(authorId)
+                .map(searchRequest.getAuthor().getId()::equals)
+                .orElse(false);
+    }
 }
@@ -1,32 +1,51 @@
 package ai.lab.inlive.services.impl;
 
+import ai.lab.inlive.cache.ReferenceDataCache;
+import ai.lab.inlive.cache.SearchFacetCache;
 import ai.lab.inlive.dto.params.AccommodationSearchParams;
 import ai.lab.inlive.dto.request.AccommodationCreateRequest;
 import ai.lab.inlive.dto.request.AccommodationDictionariesUpdateRequest;
 import ai.lab.inlive.dto.request.AccommodationUpdateRequest;
 import ai.lab.inlive.dto.response.AccSearchRequestResponse;
 import ai.lab.inlive.dto.response.AccommodationResponse;
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
 import ai.lab.inlive.entities.*;
 import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
 import ai.lab.inlive.exceptions.DbObjectNotFoundException;
+import ai.lab.inlive.inventory.AccommodationGeoIndex;
+import ai.lab.inlive.inventory.GeoFilter;
+import ai.lab.inlive.inventory.GeoFilterResolver;
+import ai.lab.inlive.inventory.InventoryChangeTracker;
 import ai.lab.inlive.mappers.AccommodationMapper;
 import ai.lab.inlive.mappers.AccSearchRequestMapper;
 import ai.lab.inlive.mappers.ImageMapper;
+import ai.lab.inlive.mappers.SearchFacetMapper;
 import ai.lab.inlive.repositories.*;
+import ai.lab.inlive.repositories.projections.FacetCountView;
+import ai.lab.inlive.repositories.specifications.AccommodationSpecifications;
+import ai.lab.inlive.repositories.specifications.SortSpecification;
+import ai.lab.inlive.repositories.specifications.SpecificationIdQuery;
+import ai.lab.inlive.security.PrincipalResolver;
 import ai.lab.inlive.services.AccommodationService;
+import ai.lab.inlive.services.CatalogPageLoader;
+import ai.lab.inlive.services.ReferenceDataResolver;
 import ai.lab.inlivefilemanager.client.api.FileManagerApi;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +53,7 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static ai.lab.inlive.constants.ValueConstants.FILE_MANAGER_ACCOMMODATION_IMAGE_DIR;
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
 
 @Slf4j
 @Service
@@ -43,14 +63,23 @@ public class AccommodationServiceImpl implements AccommodationService {
     private final AccommodationRepository accommodationRepository;
     private final AccommodationMapper mapper;
     private final ImageMapper imageMapper;
+    private final CatalogPageLoader catalogPageLoader;
+    private final SpecificationIdQuery specificationIdQuery;
+    private final GeoFilterResolver geoFilterResolver;
+    private final AccommodationGeoIndex accommodationGeoIndex;
+    private final SearchFacetCache searchFacetCache;
+    private final SearchFacetMapper searchFacetMapper;
     private final CityRepository cityRepository;
     private final DistrictRepository districtRepository;
     private final UserRepository userRepository;
+    private final PrincipalResolver principalResolver;
     private final FileManagerApi fileManagerApi;
-    private final DictionaryRepository dictionaryRepository;
+    private final ReferenceDataResolver referenceDataResolver;
+    private final ReferenceDataCache referenceDataCache;
     private final AccDictionaryRepository accDictionaryRepository;
     private final AccSearchRequestRepository accSearchRequestRepository;
     private final AccSearchRequestMapper searchRequestMapper;
+    private final InventoryChangeTracker inventoryChangeTracker;
     private final MessageSource messageSource;
 
     @Override
@@ -61,15 +90,18 @@ public class AccommodationServiceImpl implements AccommodationService {
         var images = new HashSet<AccImages>();
         var accDictionaries = new HashSet<AccDictionary>();
 
-        var city = cityRepository.findById(request.getCityId())
+        var city = referenceDataCache.findCity(request.getCityId())
+                .map(ref -> cityRepository.getReferenceById(ref.id()))
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "CITY_NOT_FOUND", 
                         messageSource.getMessage("services.accommodation.cityNotFound", 
                                 new Object[]{request.getCityId()}, LocaleContextHolder.getLocale())));
-        var district = districtRepository.findById(request.getDistrictId())
+        var district = referenceDataCache.findDistrict(request.getDistrictId())
+                .map(ref -> districtRepository.getReferenceById(ref.id()))
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DISTRICT_NOT_FOUND", 
                         messageSource.getMessage("services.accommodation.districtNotFound", 
                                 new Object[]{request.getDistrictId()}, LocaleContextHolder.getLocale())));
-        var owner = userRepository.findByKeycloakId(createdBy)
+        var owner = principalResolver.findUserId(createdBy)
+                .map(userRepository::getReferenceById)
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", 
                         messageSource.getMessage("services.accommodation.userNotFound", 
                                 new Object[]{createdBy}, LocaleContextHolder.getLocale())));
@@ -81,37 +113,10 @@ public class AccommodationServiceImpl implements AccommodationService {
         accommodation.setOwnerId(owner);
         accommodation.setApproved(null);
 
-        if (request.getServiceDictionaryIds() != null) {
-            request.getServiceDictionaryIds()
-                    .forEach(serviceDictionaryId -> {
-                        var dictionary = dictionaryRepository.findByIdAndIsDeletedFalse(serviceDictionaryId)
-                                .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND", 
-                                        messageSource.getMessage("services.accommodation.dictionaryNotFound", 
-                                                new Object[]{serviceDictionaryId}, LocaleContextHolder.getLocale())));
-                        if (dictionary.getKey() != DictionaryKey.ACC_SERVICE) {
-                            throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY", 
-                                    messageSource.getMessage("services.accommodation.invalidDictionaryKey", 
-                                            new Object[]{serviceDictionaryId, "ACC_SERVICE"}, LocaleContextHolder.getLocale()));
-                        }
-                        accDictionaries.add(mapper.toDictionaryLink(accommodation, dictionary));
-                    });
-        }
-
-        if (request.getConditionDictionaryIds() != null) {
-            request.getConditionDictionaryIds()
-                    .forEach(conditionDictionaryId -> {
-                        var dictionary = dictionaryRepository.findByIdAndIsDeletedFalse(conditionDictionaryId)
-                                .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND", 
-                                        messageSource.getMessage("services.accommodation.dictionaryNotFound", 
-                                                new Object[]{conditionDictionaryId}, LocaleContextHolder.getLocale())));
-                        if (dictionary.getKey() != DictionaryKey.ACC_CONDITION) {
-                            throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY", 
-                                    messageSource.getMessage("services.accommodation.invalidDictionaryKey", 
-                                            new Object[]{conditionDictionaryId, "ACC_CONDITION"}, LocaleContextHolder.getLocale()));
-                        }
-                        accDictionaries.add(mapper.toDictionaryLink(accommodation, dictionary));
-                    });
-        }
+        var amenities = referenceDataResolver.resolveAmenities(
+                request.getServiceDictionaryIds(), request.getConditionDictionaryIds());
+        amenities.services().forEach(dictionary -> accDictionaries.add(mapper.toDictionaryLink(accommodation, dictionary)));
+        amenities.conditions().forEach(dictionary -> accDictionaries.add(mapper.toDictionaryLink(accommodation, dictionary)));
 
         accommodation.setDictionaries(accDictionaries);
 
@@ -126,6 +131,7 @@ public class AccommodationServiceImpl implements AccommodationService {
         accommodation.setImages(images);
 
         accommodationRepository.save(accommodation);
+        inventoryChangeTracker.accommodationChanged(accommodation.getId());
 
         log.info("Successfully created accommodation with ID: {}", accommodation.getId());
     }
@@ -143,14 +149,52 @@ public class AccommodationServiceImpl implements AccommodationService {
         return mapper.toDto(accommodation, imageMapper);
     }
 
+    // updated_at читается из базы на каждый запрос: кэш ответа на этом узле не должен пережить правку на другом.
+    // Названия города, района и значения словарей берутся из справочников, поэтому их версия тоже входит
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public String getCatalogVersion(Long id) {
+        return accommodationRepository.findUpdatedAtById(id)
+                .map(updatedAt -> updatedAt + ":" + referenceDataCache.version())
+                .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "ACCOMMODATION_NOT_FOUND",
+                        messageSource.getMessage("services.accommodation.notFound",
+                                new Object[]{id}, LocaleContextHolder.getLocale())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<AccommodationResponse> searchWithParams(AccommodationSearchParams accommodationSearchParams, Pageable pageable) {
         log.info("Searching accommodations with params: {}", accommodationSearchParams);
 
-        var accommodations = accommodationRepository.findWithFilters(accommodationSearchParams, pageable);
+        var params = normalized(accommodationSearchParams);
+        var ids = findAccommodationIds(AccommodationSpecifications.withFilters(params), params, pageable);
+
+        return catalogPageLoader.loadAccommodations(ids);
+    }
 
-        return accommodations.map(acc -> mapper.toDto(acc, imageMapper));
+    @Override
+    @Transactional(readOnly = true)
+    public SearchFacetsResponse getSearchFacets(AccommodationSearchParams accommodationSearchParams) {
+        var params = normalized(accommodationSearchParams);
+        var geoFilter = geoFilterResolver.resolve(params);
+
+        return searchFacetCache.get("accommodations", params, () -> {
+            var specification = AccommodationSpecifications.withFilters(params);
+            if (geoFilter.isPresent()) {
+                specification = specification.and(locatedIn(geoFilter.get()));
+            }
+            var ids = specificationIdQuery.findAllIds(Accommodation.class, specification, SearchFacetMapper.MAX_FACET_IDS);
+            if (ids.size() > SearchFacetMapper.MAX_FACET_IDS) {
+                long total = specificationIdQuery.count(Accommodation.class, specification);
+                log.warn("Skipped accommodation facets: {} matches exceed the limit of {}", total, SearchFacetMapper.MAX_FACET_IDS);
+                return searchFacetMapper.toResponse(total, List.of());
+            }
+            var counts = ids.isEmpty()
+                    ? List.<FacetCountView>of()
+                    : accommodationRepository.countFacets(ids.toArray(Long[]::new), searchFacetMapper.priceBounds());
+            log.info("Computed accommodation facets over {} accommodations", ids.size());
+            return searchFacetMapper.toResponse(ids.size(), counts);
+        });
     }
 
     @Override
@@ -164,7 +208,8 @@ public class AccommodationServiceImpl implements AccommodationService {
                                 new Object[]{id}, LocaleContextHolder.getLocale())));
 
         if (request.getCityId() != null) {
-            City city = cityRepository.findById(request.getCityId())
+            City city = referenceDataCache.findCity(request.getCityId())
+                    .map(ref -> cityRepository.getReferenceById(ref.id()))
                     .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "CITY_NOT_FOUND", 
                             messageSource.getMessage("services.accommodation.cityNotFound", 
                                     new Object[]{request.getCityId()}, LocaleContextHolder.getLocale())));
@@ -172,10 +217,14 @@ public class AccommodationServiceImpl implements AccommodationService {
         }
 
         if (request.getDistrictId() != null) {
-            District district = districtRepository.findById(request.getDistrictId())
+            District district = referenceDataCache.findDistrict(request.getDistrictId())
+                    .map(ref -> districtRepository.getReferenceById(ref.id()))
                     .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DISTRICT_NOT_FOUND", 
                             messageSource.getMessage("services.accommodation.districtNotFound", 
                                     new Object[]{request.getDistrictId()}, LocaleContextHolder.getLocale())));
+            if (accommodation.getDistrict() != null && !accommodation.getDistrict().getId().equals(district.getId())) {
+                inventoryChangeTracker.districtChanged(accommodation.getDistrict().getId());
+            }
             accommodation.setDistrict(district);
         }
 
@@ -183,6 +232,14 @@ public class AccommodationServiceImpl implements AccommodationService {
             accommodation.setAddress(request.getAddress());
         }
 
+        if (request.getLatitude() != null) {
+            accommodation.setLatitude(request.getLatitude());
+        }
+
+        if (request.getLongitude() != null) {
+            accommodation.setLongitude(request.getLongitude());
+        }
+
         if (request.getName() != null) {
             accommodation.setName(request.getName());
         }
@@ -196,6 +253,7 @@ public class AccommodationServiceImpl implements AccommodationService {
         }
 
         accommodationRepository.save(accommodation);
+        inventoryChangeTracker.accommodationChanged(id);
         log.info("Successfully updated accommodation with ID: {}", id);
     }
 
@@ -207,26 +265,16 @@ public class AccommodationServiceImpl implements AccommodationService {
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "ACCOMMODATION_NOT_FOUND",
                         "Accommodation not found with ID: " + accommodationId));
 
+        var amenities = referenceDataResolver.resolveAmenities(
+                request.getServiceDictionaryIds(), request.getConditionDictionaryIds());
+
         if (request.getServiceDictionaryIds() != null) {
             log.info("Updating services for accommodation: {}", accommodationId);
             accDictionaryRepository.deleteByAccommodationAndDictionaryKey(accommodation, DictionaryKey.ACC_SERVICE);
             accDictionaryRepository.flush();
-
-            for (Long dictionaryId : request.getServiceDictionaryIds()) {
-                Dictionary dictionary = dictionaryRepository.findByIdAndIsDeletedFalse(dictionaryId)
-                        .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND",
-                                messageSource.getMessage("services.accommodation.dictionaryNotFound", 
-                                        new Object[]{dictionaryId}, LocaleContextHolder.getLocale())));
-
-                if (dictionary.getKey() != DictionaryKey.ACC_SERVICE) {
-                    throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY",
-                            messageSource.getMessage("services.accommodation.invalidDictionaryKey", 
-                                    new Object[]{dictionaryId, "ACC_SERVICE"}, LocaleContextHolder.getLocale()));
-                }
-
-                AccDictionary link = mapper.toDictionaryLink(accommodation, dictionary);
-                accDictionaryRepository.save(link);
-            }
+            accDictionaryRepository.saveAll(amenities.services().stream()
+                    .map(dictionary -> mapper.toDictionaryLink(accommodation, dictionary))
+                    .toList());
             log.info("Successfully updated {} services for accommodation {}", request.getServiceDictionaryIds().size(), accommodationId);
         }
 
@@ -234,24 +282,12 @@ public class AccommodationServiceImpl implements AccommodationService {
             log.info("Updating conditions for accommodation: {}", accommodationId);
             accDictionaryRepository.deleteByAccommodationAndDictionaryKey(accommodation, DictionaryKey.ACC_CONDITION);
             accDictionaryRepository.flush();
-
-            for (Long dictionaryId : request.getConditionDictionaryIds()) {
-                Dictionary dictionary = dictionaryRepository.findByIdAndIsDeletedFalse(dictionaryId)
-                        .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND",
-                                messageSource.getMessage("services.accommodation.dictionaryNotFound", 
-                                        new Object[]{dictionaryId}, LocaleContextHolder.getLocale())));
-
-                if (dictionary.getKey() != DictionaryKey.ACC_CONDITION) {
-                    throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY",
-                            messageSource.getMessage("services.accommodation.invalidDictionaryKey", 
-                                    new Object[]{dictionaryId, "ACC_CONDITION"}, LocaleContextHolder.getLocale()));
-                }
-
-                AccDictionary link = mapper.toDictionaryLink(accommodation, dictionary);
-                accDictionaryRepository.save(link);
-            }
+            accDictionaryRepository.saveAll(amenities.conditions().stream()
+                    .map(dictionary -> mapper.toDictionaryLink(accommodation, dictionary))
+                    .toList());
             log.info("Successfully updated {} conditions for accommodation {}", request.getConditionDictionaryIds().size(), accommodationId);
         }
+        accommodation.markUpdated();
     }
 
     @Override
@@ -281,6 +317,7 @@ public class AccommodationServiceImpl implements AccommodationService {
             }
         }
 
+        accommodation.markUpdated();
         accommodationRepository.save(accommodation);
 
         log.info("Successfully updated photos for accommodation with ID: {}", id);
@@ -342,6 +379,7 @@ public class AccommodationServiceImpl implements AccommodationService {
         }
 
         if (deletedCount > 0) {
+            accommodation.markUpdated();
             accommodationRepository.save(accommodation);
             log.info("Successfully deleted {} photos for accommodation with ID: {}. Failed: {}",
                     deletedCount, id, failedCount);
@@ -371,6 +409,7 @@ public class AccommodationServiceImpl implements AccommodationService {
         accommodation.softDelete();
 
         accommodationRepository.save(accommodation);
+        inventoryChangeTracker.accommodationChanged(id);
 
         log.info("Successfully deleted accommodation with ID: {}", id);
     }
@@ -385,7 +424,8 @@ public class AccommodationServiceImpl implements AccommodationService {
                         messageSource.getMessage("services.accommodation.notFound", 
                                 new Object[]{id}, LocaleContextHolder.getLocale())));
 
-        var approver = userRepository.findByKeycloakId(approvedBy)
+        var approver = principalResolver.findUserId(approvedBy)
+                .map(userRepository::getReferenceById)
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", 
                         messageSource.getMessage("services.accommodation.userNotFound", 
                                 new Object[]{approvedBy}, LocaleContextHolder.getLocale())));
@@ -407,7 +447,8 @@ public class AccommodationServiceImpl implements AccommodationService {
                         messageSource.getMessage("services.accommodation.notFound", 
                                 new Object[]{id}, LocaleContextHolder.getLocale())));
 
-        var rejecter = userRepository.findByKeycloakId(rejectedBy)
+        var rejecter = principalResolver.findUserId(rejectedBy)
+                .map(userRepository::getReferenceById)
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", "User not found with Keycloak ID: " + rejectedBy));
 
         accommodation.setApproved(false);
@@ -422,12 +463,14 @@ public class AccommodationServiceImpl implements AccommodationService {
     public Page<AccommodationResponse> getAccommodationsByOwner(String ownerId, AccommodationSearchParams accommodationSearchParams, Pageable pageable) {
         log.info("Fetching accommodations for owner: {} with pagination", ownerId);
 
-        var owner = userRepository.findByKeycloakId(ownerId)
+        var ownerUserId = principalResolver.findUserId(ownerId)
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", "User not found with Keycloak ID: " + ownerId));
 
-        var accommodations = accommodationRepository.findByOwnerIdWithFilters(owner.getId(), accommodationSearchParams, pageable);
+        var params = normalized(accommodationSearchParams);
+        var ids = findAccommodationIds(AccommodationSpecifications.ownedBy(ownerUserId)
+                .and(AccommodationSpecifications.withFilters(params)), params, pageable);
 
-        return accommodations.map(acc -> mapper.toDto(acc, imageMapper));
+        return catalogPageLoader.loadAccommodations(ids);
     }
 
     @Override
@@ -439,7 +482,8 @@ public class AccommodationServiceImpl implements AccommodationService {
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "ACCOMMODATION_NOT_FOUND",
                         "Accommodation not found with ID: " + accommodationId));
 
-        Page<AccSearchRequest> requests = accSearchRequestRepository.findRelevantRequestsForAccommodation(accommodationId, pageable);
+        Page<AccSearchRequest> requests = accSearchRequestRepository.findRelevantRequestsForAccommodation(accommodationId,
+                SearchRequestStatus.RELEVANT_FOR_OWNER, LocalDateTime.now(ZONE_ID), pageable);
 
         log.info("Found {} relevant requests for accommodation {}", requests.getTotalElements(), accommodationId);
 
@@ -462,4 +506,29 @@ public class AccommodationServiceImpl implements AccommodationService {
 
         return requests.map(searchRequestMapper::toDto);
     }
+
+    // Гео-фильтр: кандидаты из сетки в памяти, при слишком большом отборе - условие по координатам в SQL
+    private Page<Long> findAccommodationIds(Specification<Accommodation> specification,
+                                            AccommodationSearchParams params, Pageable pageable) {
+        SortSpecification<Accommodation> ordering = AccommodationSpecifications.relevance(params);
+        var geoFilter = geoFilterResolver.resolve(params);
+        if (geoFilter.isPresent()) {
+            specification = specification.and(locatedIn(geoFilter.get()));
+            ordering = AccommodationSpecifications.byDistance(geoFilter.get()).then(ordering);
+        }
+        return specificationIdQuery.findIds(Accommodation.class, specification, ordering, pageable);
+    }
+
+    private Specification<Accommodation> locatedIn(GeoFilter filter) {
+        var candidates = filter.hasArea() ? accommodationGeoIndex.findIds(filter).orElse(null) : null;
+        return AccommodationSpecifications.locatedIn(filter, candidates);
+    }
+
+    private static AccommodationSearchParams normalized(AccommodationSearchParams params) {
+        var copy = new AccommodationSearchParams();
+        BeanUtils.copyProperties(params, copy);
+        copy.setName(SearchFacetCache.normalizeText(params.getName()));
+        copy.setQuery(SearchFacetCache.normalizeText(params.getQuery()));
+        return copy;
+    }
 }
@@ -1,5 +1,8 @@
 package ai.lab.inlive.services.impl;
 
+import ai.lab.inlive.cache.ReferenceDataCache;
+import ai.lab.inlive.cache.ReferenceDataCache.DictionaryRef;
+import ai.lab.inlive.cache.SearchFacetCache;
 import ai.lab.inlive.dto.params.AccommodationUnitSearchParams;
 import ai.lab.inlive.dto.request.AccUnitDictionariesUpdateRequest;
 import ai.lab.inlive.dto.request.AccUnitTariffCreateRequest;
@@ -9,53 +12,84 @@ import ai.lab.inlive.dto.response.AccSearchRequestResponse;
 import ai.lab.inlive.dto.response.AccommodationUnitResponse;
 import ai.lab.inlive.dto.response.PriceRequestResponse;
 import ai.lab.inlive.dto.response.ReservationResponse;
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
 import ai.lab.inlive.entities.*;
 import ai.lab.inlive.entities.Dictionary;
 import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
 import ai.lab.inlive.exceptions.DbObjectNotFoundException;
+import ai.lab.inlive.inventory.AccommodationGeoIndex;
+import ai.lab.inlive.inventory.DictionaryBitmap;
+import ai.lab.inlive.inventory.DictionaryOrdinals;
+import ai.lab.inlive.inventory.GeoFilter;
+import ai.lab.inlive.inventory.GeoFilterResolver;
+import ai.lab.inlive.inventory.InventoryChangeTracker;
 import ai.lab.inlive.mappers.AccommodationUnitMapper;
 import ai.lab.inlive.mappers.AccSearchRequestMapper;
 import ai.lab.inlive.mappers.ImageMapper;
 import ai.lab.inlive.mappers.PriceRequestMapper;
 import ai.lab.inlive.mappers.ReservationMapper;
+import ai.lab.inlive.mappers.SearchFacetMapper;
 import ai.lab.inlive.repositories.*;
+import ai.lab.inlive.repositories.projections.FacetCountView;
+import ai.lab.inlive.repositories.specifications.AccommodationUnitSpecifications;
+import ai.lab.inlive.repositories.specifications.SortSpecification;
+import ai.lab.inlive.repositories.specifications.SpecificationIdQuery;
 import ai.lab.inlive.services.AccommodationUnitService;
+import ai.lab.inlive.services.CatalogPageLoader;
+import ai.lab.inlive.services.ReferenceDataResolver;
 import ai.lab.inlivefilemanager.client.api.FileManagerApi;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static ai.lab.inlive.constants.ValueConstants.FILE_MANAGER_ACCOMMODATION_UNIT_IMAGE_DIR;
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AccommodationUnitServiceImpl implements AccommodationUnitService {
+    private static final Set<DictionaryKey> MATCHED_DICTIONARY_KEYS = EnumSet.of(DictionaryKey.ACC_SERVICE, DictionaryKey.ACC_CONDITION);
+
     private final AccommodationRepository accommodationRepository;
     private final AccommodationUnitRepository accommodationUnitRepository;
     private final AccUnitTariffsRepository accUnitTariffsRepository;
     private final DictionaryRepository dictionaryRepository;
+    private final ReferenceDataResolver referenceDataResolver;
+    private final ReferenceDataCache referenceDataCache;
     private final AccUnitDictionaryRepository accUnitDictionaryRepository;
     private final AccSearchRequestRepository accSearchRequestRepository;
     private final PriceRequestRepository priceRequestRepository;
     private final ReservationRepository reservationRepository;
     private final AccommodationUnitMapper unitMapper;
     private final ImageMapper imageMapper;
+    private final CatalogPageLoader catalogPageLoader;
+    private final SpecificationIdQuery specificationIdQuery;
+    private final GeoFilterResolver geoFilterResolver;
+    private final AccommodationGeoIndex accommodationGeoIndex;
+    private final SearchFacetCache searchFacetCache;
+    private final SearchFacetMapper searchFacetMapper;
     private final AccSearchRequestMapper searchRequestMapper;
     private final PriceRequestMapper priceRequestMapper;
     private final ReservationMapper reservationMapper;
     private final FileManagerApi fileManagerApi;
+    private final InventoryChangeTracker inventoryChangeTracker;
+    private final DictionaryOrdinals dictionaryOrdinals;
     private final MessageSource messageSource;
 
     @Override
@@ -74,37 +108,10 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
         var unit = unitMapper.toEntity(request);
         unit.setAccommodation(accommodation);
 
-        if (request.getServiceDictionaryIds() != null) {
-            request.getServiceDictionaryIds()
-                    .forEach(serviceDictionaryId -> {
-                        var dictionary = dictionaryRepository.findByIdAndIsDeletedFalse(serviceDictionaryId)
-                                .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND", 
-                                        messageSource.getMessage("services.accommodationUnit.dictionaryNotFound", 
-                                                new Object[]{serviceDictionaryId}, LocaleContextHolder.getLocale())));
-                        if (dictionary.getKey() != DictionaryKey.ACC_SERVICE) {
-                            throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY", 
-                                    messageSource.getMessage("services.accommodationUnit.invalidDictionaryKey", 
-                                            new Object[]{serviceDictionaryId, "ACC_SERVICE"}, LocaleContextHolder.getLocale()));
-                        }
-                        unitDictionaries.add(unitMapper.toDictionaryLink(accommodation, unit, dictionary));
-                    });
-        }
-
-        if (request.getConditionDictionaryIds() != null) {
-            request.getConditionDictionaryIds()
-                    .forEach(conditionDictionaryId -> {
-                        var dictionary = dictionaryRepository.findByIdAndIsDeletedFalse(conditionDictionaryId)
-                                .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND", 
-                                        messageSource.getMessage("services.accommodationUnit.dictionaryNotFound", 
-                                                new Object[]{conditionDictionaryId}, LocaleContextHolder.getLocale())));
-                        if (dictionary.getKey() != DictionaryKey.ACC_CONDITION) {
-                            throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY", 
-                                    messageSource.getMessage("services.accommodationUnit.invalidDictionaryKey", 
-                                            new Object[]{conditionDictionaryId, "ACC_CONDITION"}, LocaleContextHolder.getLocale()));
-                        }
-                        unitDictionaries.add(unitMapper.toDictionaryLink(accommodation, unit, dictionary));
-                    });
-        }
+        var amenities = referenceDataResolver.resolveAmenities(
+                request.getServiceDictionaryIds(), request.getConditionDictionaryIds());
+        amenities.services().forEach(dictionary -> unitDictionaries.add(unitMapper.toDictionaryLink(accommodation, unit, dictionary)));
+        amenities.conditions().forEach(dictionary -> unitDictionaries.add(unitMapper.toDictionaryLink(accommodation, unit, dictionary)));
 
         unit.setDictionaries(unitDictionaries);
 
@@ -121,6 +128,7 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
         unit.setImages(images);
 
         accommodationUnitRepository.save(unit);
+        inventoryChangeTracker.unitChanged(unit.getId());
 
         log.info("Successfully created accommodation unit with ID: {}", unit.getId());
     }
@@ -134,12 +142,12 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
                         messageSource.getMessage("services.accommodationUnit.notFound", 
                                 new Object[]{unitId}, LocaleContextHolder.getLocale())));
 
-        Dictionary rangeType = dictionaryRepository.findByIdAndIsDeletedFalse(request.getRangeTypeId())
+        DictionaryRef rangeType = referenceDataCache.findDictionary(request.getRangeTypeId())
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND", 
                         messageSource.getMessage("services.accommodationUnit.dictionaryNotFound", 
                                 new Object[]{request.getRangeTypeId()}, LocaleContextHolder.getLocale())));
 
-        if (rangeType.getKey() != DictionaryKey.RANGE_TYPE) {
+        if (rangeType.key() != DictionaryKey.RANGE_TYPE) {
             throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY", 
                     messageSource.getMessage("services.accommodationUnit.invalidDictionaryKey", 
                             new Object[]{request.getRangeTypeId(), "RANGE_TYPE"}, LocaleContextHolder.getLocale()));
@@ -148,9 +156,10 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
         AccUnitTariffs tariff = unitMapper.toEntity(request);
         tariff.setAccommodation(unit.getAccommodation());
         tariff.setUnit(unit);
-        tariff.setRangeType(rangeType);
+        tariff.setRangeType(dictionaryRepository.getReferenceById(rangeType.id()));
 
         accUnitTariffsRepository.save(tariff);
+        inventoryChangeTracker.unitChanged(unitId);
         log.info("Created tariff {} for unit {}", tariff.getId(), unitId);
     }
 
@@ -164,10 +173,85 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<AccommodationUnitResponse> searchWithParams(AccommodationUnitSearchParams params, Pageable pageable) {
         log.info("Searching accommodation units with params: {}", params);
-        var page = accommodationUnitRepository.findWithFilters(params, pageable);
-        return page.map(unit -> unitMapper.toDto(unit, imageMapper));
+        var normalizedParams = normalized(params);
+        var geoFilter = geoFilterResolver.resolve(normalizedParams);
+        validateStayDates(normalizedParams);
+        Specification<AccommodationUnit> specification = searchSpecification(normalizedParams, geoFilter);
+        SortSpecification<AccommodationUnit> ordering = AccommodationUnitSpecifications.relevance(normalizedParams);
+        if (geoFilter.isPresent()) {
+            ordering = AccommodationUnitSpecifications.byDistance(geoFilter.get()).then(ordering);
+        }
+        var ids = specificationIdQuery.findIds(AccommodationUnit.class, specification, ordering, pageable);
+        return catalogPageLoader.loadUnits(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SearchFacetsResponse getSearchFacets(AccommodationUnitSearchParams params) {
+        var normalizedParams = normalized(params);
+        var geoFilter = geoFilterResolver.resolve(normalizedParams);
+        validateStayDates(normalizedParams);
+
+        return searchFacetCache.get("units", normalizedParams, () -> {
+            var specification = searchSpecification(normalizedParams, geoFilter);
+            var ids = specificationIdQuery.findAllIds(AccommodationUnit.class, specification, SearchFacetMapper.MAX_FACET_IDS);
+            if (ids.size() > SearchFacetMapper.MAX_FACET_IDS) {
+                long total = specificationIdQuery.count(AccommodationUnit.class, specification);
+                log.warn("Skipped unit facets: {} matches exceed the limit of {}", total, SearchFacetMapper.MAX_FACET_IDS);
+                return searchFacetMapper.toResponse(total, List.of());
+            }
+            var counts = ids.isEmpty()
+                    ? List.<FacetCountView>of()
+                    : accommodationUnitRepository.countFacets(ids.toArray(Long[]::new), searchFacetMapper.priceBounds());
+            log.info("Computed unit facets over {} units", ids.size());
+            return searchFacetMapper.toResponse(ids.size(), counts);
+        });
+    }
+
+    // Даты заезда и выезда уже проверены в validateStayDates
+    private Specification<AccommodationUnit> searchSpecification(AccommodationUnitSearchParams params,
+                                                                 Optional<GeoFilter> geoFilter) {
+        Specification<AccommodationUnit> specification = AccommodationUnitSpecifications.withFilters(params);
+        if (geoFilter.isPresent()) {
+            specification = specification.and(locatedIn(geoFilter.get()));
+        }
+        if (params.getCheckIn() != null) {
+            // Заезд и выезд в 12:00, как у заявок на поиск
+            specification = specification.and(AccommodationUnitSpecifications.freeDuring(
+                    params.getCheckIn().atTime(12, 0), params.getCheckOut().atTime(12, 0)));
+        }
+        return specification;
+    }
+
+    private void validateStayDates(AccommodationUnitSearchParams params) {
+        if (params.getCheckIn() == null && params.getCheckOut() == null) {
+            return;
+        }
+        if (params.getCheckIn() == null || params.getCheckOut() == null) {
+            throw new IllegalArgumentException(
+                    messageSource.getMessage("services.accommodationUnit.stayDatesIncomplete", null, LocaleContextHolder.getLocale()));
+        }
+        if (!params.getCheckOut().isAfter(params.getCheckIn())) {
+            throw new IllegalArgumentException(
+                    messageSource.getMessage("services.searchRequest.invalidDates", null, LocaleContextHolder.getLocale()));
+        }
+    }
+
+    private Specification<AccommodationUnit> locatedIn(GeoFilter filter) {
+        var candidates = filter.hasArea() ? accommodationGeoIndex.findIds(filter).orElse(null) : null;
+        return AccommodationUnitSpecifications.locatedIn(filter, candidates);
+    }
+
+    private static AccommodationUnitSearchParams normalized(AccommodationUnitSearchParams params) {
+        var copy = new AccommodationUnitSearchParams();
+        BeanUtils.copyProperties(params, copy);
+        copy.setName(SearchFacetCache.normalizeText(params.getName()));
+        copy.setQuery(SearchFacetCache.normalizeText(params.getQuery()));
+        copy.setUnitType(SearchFacetCache.normalizeText(params.getUnitType()));
+        return copy;
     }
 
     @Override
@@ -178,6 +262,7 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "ACCOMMODATION_UNIT_NOT_FOUND", "Accommodation Unit not found with ID: " + id));
         unit.softDelete();
         accommodationUnitRepository.save(unit);
+        inventoryChangeTracker.unitChanged(id);
         log.info("Successfully deleted accommodation unit with ID: {}", id);
     }
 
@@ -211,6 +296,7 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
         }
 
         accommodationUnitRepository.save(unit);
+        inventoryChangeTracker.unitChanged(id);
         log.info("Successfully updated accommodation unit with ID: {}", id);
     }
 
@@ -222,26 +308,16 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "ACCOMMODATION_UNIT_NOT_FOUND",
                         "Accommodation Unit not found with ID: " + unitId));
 
+        var amenities = referenceDataResolver.resolveAmenities(
+                request.getServiceDictionaryIds(), request.getConditionDictionaryIds());
+
         if (request.getServiceDictionaryIds() != null) {
             log.info("Updating services for unit: {}", unitId);
             accUnitDictionaryRepository.deleteByUnitAndDictionaryKey(unit, DictionaryKey.ACC_SERVICE);
             accUnitDictionaryRepository.flush();
-
-            for (Long dictionaryId : request.getServiceDictionaryIds()) {
-                Dictionary dictionary = dictionaryRepository.findByIdAndIsDeletedFalse(dictionaryId)
-                        .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND",
-                                messageSource.getMessage("services.accommodationUnit.dictionaryNotFound", 
-                                        new Object[]{dictionaryId}, LocaleContextHolder.getLocale())));
-
-                if (dictionary.getKey() != DictionaryKey.ACC_SERVICE) {
-                    throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY",
-                            messageSource.getMessage("services.accommodationUnit.invalidDictionaryKey", 
-                                    new Object[]{dictionaryId, "ACC_SERVICE"}, LocaleContextHolder.getLocale()));
-                }
-
-                AccUnitDictionary link = unitMapper.toDictionaryLink(unit.getAccommodation(), unit, dictionary);
-                accUnitDictionaryRepository.save(link);
-            }
+            accUnitDictionaryRepository.saveAll(amenities.services().stream()
+                    .map(dictionary -> unitMapper.toDictionaryLink(unit.getAccommodation(), unit, dictionary))
+                    .toList());
             log.info("Successfully updated {} services for unit {}", request.getServiceDictionaryIds().size(), unitId);
         }
 
@@ -249,24 +325,13 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
             log.info("Updating conditions for unit: {}", unitId);
             accUnitDictionaryRepository.deleteByUnitAndDictionaryKey(unit, DictionaryKey.ACC_CONDITION);
             accUnitDictionaryRepository.flush();
-
-            for (Long dictionaryId : request.getConditionDictionaryIds()) {
-                Dictionary dictionary = dictionaryRepository.findByIdAndIsDeletedFalse(dictionaryId)
-                        .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND",
-                                messageSource.getMessage("services.accommodationUnit.dictionaryNotFound", 
-                                        new Object[]{dictionaryId}, LocaleContextHolder.getLocale())));
-
-                if (dictionary.getKey() != DictionaryKey.ACC_CONDITION) {
-                    throw new DbObjectNotFoundException(HttpStatus.BAD_REQUEST, "INVALID_DICTIONARY_KEY",
-                            messageSource.getMessage("services.accommodationUnit.invalidDictionaryKey", 
-                                    new Object[]{dictionaryId, "ACC_CONDITION"}, LocaleContextHolder.getLocale()));
-                }
-
-                AccUnitDictionary link = unitMapper.toDictionaryLink(unit.getAccommodation(), unit, dictionary);
-                accUnitDictionaryRepository.save(link);
-            }
+            accUnitDictionaryRepository.saveAll(amenities.conditions().stream()
+                    .map(dictionary -> unitMapper.toDictionaryLink(unit.getAccommodation(), unit, dictionary))
+                    .toList());
             log.info("Successfully updated {} conditions for unit {}", request.getConditionDictionaryIds().size(), unitId);
         }
+
+        inventoryChangeTracker.unitChanged(unitId);
     }
 
     @Override
@@ -378,7 +443,8 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
                 .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "ACCOMMODATION_UNIT_NOT_FOUND",
                         "Accommodation Unit not found with ID: " + unitId));
 
-        Page<AccSearchRequest> requests = accSearchRequestRepository.findRelevantRequestsForUnit(unitId, pageable);
+        Page<AccSearchRequest> requests = accSearchRequestRepository.findRelevantRequestsForUnit(unitId,
+                SearchRequestStatus.RELEVANT_FOR_OWNER, LocalDateTime.now(ZONE_ID), pageable);
 
         log.info("Found {} relevant requests for unit {}", requests.getTotalElements(), unitId);
 
@@ -449,8 +515,14 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
 
         List<AccommodationUnit> allUnits = accommodationUnitRepository.findByAccommodationIdAndIsDeletedFalse(accommodationId);
 
+        long[] requiredDictionaries = dictionaryOrdinals.encode(searchRequest.getDictionaries().stream()
+                .map(AccSearchRequestDictionary::getDictionary)
+                .filter(dictionary -> MATCHED_DICTIONARY_KEYS.contains(dictionary.getKey()))
+                .map(Dictionary::getId)
+                .toList());
+
         List<AccommodationUnit> relevantUnits = allUnits.stream()
-                .filter(unit -> isUnitRelevantForRequest(unit, searchRequest))
+                .filter(unit -> isUnitRelevantForRequest(unit, searchRequest, requiredDictionaries))
                 .toList();
 
         log.info("Found {} relevant units out of {} total units for accommodation {} and request {}",
@@ -461,7 +533,7 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
                 .collect(Collectors.toList());
     }
 
-    private boolean isUnitRelevantForRequest(AccommodationUnit unit, AccSearchRequest searchRequest) {
+    private boolean isUnitRelevantForRequest(AccommodationUnit unit, AccSearchRequest searchRequest, long[] requiredDictionaries) {
         Accommodation accommodation = unit.getAccommodation();
 
         // 1. Проверка типа недвижимости
@@ -486,32 +558,14 @@ public class AccommodationUnitServiceImpl implements AccommodationUnitService {
             return false;
         }
 
-        // 4. Проверка услуг (SERVICES) - все услуги из заявки должны быть у unit
-        Set<Long> unitServiceIds = unit.getDictionaries().stream()
-                .filter(d -> d.getDictionary().getKey() == DictionaryKey.ACC_SERVICE)
-                .map(d -> d.getDictionary().getId())
-                .collect(Collectors.toSet());
-
-        Set<Long> requestServiceIds = searchRequest.getDictionaries().stream()
-                .filter(d -> d.getDictionary().getKey() == DictionaryKey.ACC_SERVICE)
-                .map(d -> d.getDictionary().getId())
-                .collect(Collectors.toSet());
-
-        if (!unitServiceIds.containsAll(requestServiceIds)) {
-            return false;
-        }
-
-        // 5. Проверка условий (CONDITIONS) - все условия из заявки должны быть у unit
-        Set<Long> unitConditionIds = unit.getDictionaries().stream()
-                .filter(d -> d.getDictionary().getKey() == DictionaryKey.ACC_CONDITION)
-                .map(d -> d.getDictionary().getId())
-                .collect(Collectors.toSet());
-
-        Set<Long> requestConditionIds = searchRequest.getDictionaries().stream()
-                .filter(d -> d.getDictionary().getKey() == DictionaryKey.ACC_CONDITION)
-                .map(d -> d.getDictionary().getId())
-                .collect(Collectors.toSet());
+        // 4. Проверка услуг и условий - все словари из заявки должны быть у unit (битовые маски по плотным номерам словарей).
+        // Словари unit уже загружены запросом, снимок из InventoryIndex на другом узле может отставать
+        long[] unitDictionaries = dictionaryOrdinals.encode(unit.getDictionaries().stream()
+                .map(AccUnitDictionary::getDictionary)
+                .filter(dictionary -> MATCHED_DICTIONARY_KEYS.contains(dictionary.getKey()))
+                .map(Dictionary::getId)
+                .toList());
 
-        return unitConditionIds.containsAll(requestConditionIds);
+        return DictionaryBitmap.containsAll(requiredDictionaries, unitDictionaries);
     }
 }
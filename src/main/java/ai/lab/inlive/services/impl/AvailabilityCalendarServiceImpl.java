@@ -0,0 +1,105 @@
+package ai.lab.inlive.services.impl;
+
+import ai.lab.inlive.dto.params.CalendarParams;
+import ai.lab.inlive.dto.response.CalendarDayResponse;
+import ai.lab.inlive.dto.response.UnitCalendarResponse;
+import ai.lab.inlive.exceptions.DbObjectNotFoundException;
+import ai.lab.inlive.inventory.OccupancyCalendar;
+import ai.lab.inlive.repositories.AccommodationRepository;
+import ai.lab.inlive.repositories.AccommodationUnitRepository;
+import ai.lab.inlive.services.AvailabilityCalendarService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AvailabilityCalendarServiceImpl implements AvailabilityCalendarService {
+    private static final int DEFAULT_PERIOD_DAYS = 30;
+    private static final int MAX_PERIOD_DAYS = 366;
+
+    private final OccupancyCalendar occupancyCalendar;
+    private final AccommodationUnitRepository accommodationUnitRepository;
+    private final AccommodationRepository accommodationRepository;
+    private final MessageSource messageSource;
+
+    @Override
+    @Transactional(readOnly = true)
+    public UnitCalendarResponse getUnitCalendar(Long unitId, CalendarParams params) {
+        if (!accommodationUnitRepository.existsByIdAndIsDeletedFalse(unitId)) {
+            throw new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "ACCOMMODATION_UNIT_NOT_FOUND",
+                    messageSource.getMessage("services.accommodationUnit.notFound",
+                            new Object[]{unitId}, LocaleContextHolder.getLocale()));
+        }
+
+        LocalDate from = resolveFrom(params);
+        LocalDate to = resolveTo(params, from);
+        return toCalendar(unitId, from, to, occupancyCalendar.occupiedNights(unitId, from, to));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UnitCalendarResponse> getAccommodationCalendar(Long accommodationId, CalendarParams params) {
+        accommodationRepository.findByIdAndIsDeletedFalse(accommodationId)
+                .orElseThrow(() -> new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "ACCOMMODATION_NOT_FOUND",
+                        messageSource.getMessage("services.accommodation.notFound",
+                                new Object[]{accommodationId}, LocaleContextHolder.getLocale())));
+
+        LocalDate from = resolveFrom(params);
+        LocalDate to = resolveTo(params, from);
+        List<Long> unitIds = accommodationUnitRepository.findActiveIdsByAccommodationId(accommodationId);
+        Map<Long, BitSet> occupied = occupancyCalendar.occupiedNights(unitIds, from, to);
+        return unitIds.stream()
+                .map(unitId -> toCalendar(unitId, from, to, occupied.getOrDefault(unitId, new BitSet())))
+                .toList();
+    }
+
+    private UnitCalendarResponse toCalendar(Long unitId, LocalDate from, LocalDate to, BitSet occupied) {
+        int nights = (int) ChronoUnit.DAYS.between(from, to);
+
+        List<CalendarDayResponse> days = new ArrayList<>(nights);
+        for (int night = 0; night < nights; night++) {
+            days.add(new CalendarDayResponse(from.plusDays(night), !occupied.get(night)));
+        }
+
+        UnitCalendarResponse response = new UnitCalendarResponse();
+        response.setUnitId(unitId);
+        response.setFrom(from);
+        response.setTo(to);
+        response.setAvailableNights(nights - occupied.cardinality());
+        response.setDays(days);
+        return response;
+    }
+
+    private LocalDate resolveFrom(CalendarParams params) {
+        return params.getFrom() != null ? params.getFrom() : LocalDate.now(ZONE_ID);
+    }
+
+    private LocalDate resolveTo(CalendarParams params, LocalDate from) {
+        LocalDate to = params.getTo() != null ? params.getTo() : from.plusDays(DEFAULT_PERIOD_DAYS);
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException(
+                    messageSource.getMessage("services.calendar.invalidPeriod", null, LocaleContextHolder.getLocale()));
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_PERIOD_DAYS) {
+            throw new IllegalArgumentException(
+                    messageSource.getMessage("services.calendar.periodTooLong",
+                            new Object[]{MAX_PERIOD_DAYS}, LocaleContextHolder.getLocale()));
+        }
+        return to;
+    }
+}
@@ -0,0 +1,128 @@
+package ai.lab.inlive.services.impl;
+
+import ai.lab.inlive.dto.response.AccUnitTariffResponse;
+import ai.lab.inlive.dto.response.AccommodationResponse;
+import ai.lab.inlive.dto.response.AccommodationUnitResponse;
+import ai.lab.inlive.dto.response.DictionaryResponse;
+import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.mappers.AccommodationMapper;
+import ai.lab.inlive.mappers.AccommodationUnitMapper;
+import ai.lab.inlive.mappers.ImageMapper;
+import ai.lab.inlive.repositories.AccUnitTariffsRepository;
+import ai.lab.inlive.repositories.AccommodationRepository;
+import ai.lab.inlive.repositories.AccommodationUnitRepository;
+import ai.lab.inlive.repositories.projections.AccommodationListView;
+import ai.lab.inlive.repositories.projections.AccommodationUnitListView;
+import ai.lab.inlive.repositories.projections.DictionaryLinkView;
+import ai.lab.inlive.repositories.projections.ImageLinkView;
+import ai.lab.inlive.repositories.projections.UnitTariffView;
+import ai.lab.inlive.services.CatalogPageLoader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogPageLoaderImpl implements CatalogPageLoader {
+    private final AccommodationRepository accommodationRepository;
+    private final AccommodationUnitRepository accommodationUnitRepository;
+    private final AccUnitTariffsRepository accUnitTariffsRepository;
+    private final AccommodationMapper accommodationMapper;
+    private final AccommodationUnitMapper unitMapper;
+    private final ImageMapper imageMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AccommodationResponse> loadAccommodations(Page<Long> ids) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        List<Long> idList = ids.getContent();
+
+        Map<Long, AccommodationListView> rows = accommodationRepository.findListViewsByIds(idList).stream()
+                .collect(Collectors.toMap(AccommodationListView::getId, Function.identity()));
+        Map<Long, List<DictionaryLinkView>> dictionaries = groupByOwner(
+                accommodationRepository.findDictionaryLinksByIds(idList), DictionaryLinkView::getOwnerId);
+        Map<Long, List<ImageLinkView>> images = groupByOwner(
+                accommodationRepository.findImageLinksByIds(idList), ImageLinkView::getOwnerId);
+
+        List<AccommodationResponse> content = new ArrayList<>(idList.size());
+        for (Long id : idList) {
+            AccommodationListView row = rows.get(id);
+            if (row == null) {
+                continue;
+            }
+            List<DictionaryLinkView> links = dictionaries.getOrDefault(id, List.of());
+            content.add(accommodationMapper.toDto(row,
+                    dictionariesByKey(links, DictionaryKey.ACC_SERVICE, accommodationMapper::dictionaryToDto),
+                    dictionariesByKey(links, DictionaryKey.ACC_CONDITION, accommodationMapper::dictionaryToDto),
+                    imageUrls(images.get(id), imageMapper::getPathToAccommodationImage)));
+        }
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AccommodationUnitResponse> loadUnits(Page<Long> ids) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        List<Long> idList = ids.getContent();
+
+        Map<Long, AccommodationUnitListView> rows = accommodationUnitRepository.findListViewsByIds(idList).stream()
+                .collect(Collectors.toMap(AccommodationUnitListView::getId, Function.identity()));
+        Map<Long, List<DictionaryLinkView>> dictionaries = groupByOwner(
+                accommodationUnitRepository.findDictionaryLinksByIds(idList), DictionaryLinkView::getOwnerId);
+        Map<Long, List<UnitTariffView>> tariffs = groupByOwner(
+                accUnitTariffsRepository.findViewsByUnitIds(idList), UnitTariffView::getUnitId);
+        Map<Long, List<ImageLinkView>> images = groupByOwner(
+                accommodationUnitRepository.findImageLinksByIds(idList), ImageLinkView::getOwnerId);
+
+        List<AccommodationUnitResponse> content = new ArrayList<>(idList.size());
+        for (Long id : idList) {
+            AccommodationUnitListView row = rows.get(id);
+            if (row == null) {
+                continue;
+            }
+            List<DictionaryLinkView> links = dictionaries.getOrDefault(id, List.of());
+            Set<AccUnitTariffResponse> unitTariffs = tariffs.getOrDefault(id, List.of()).stream()
+                    .map(unitMapper::toDto)
+                    .collect(Collectors.toSet());
+            content.add(unitMapper.toDto(row,
+                    dictionariesByKey(links, DictionaryKey.ACC_SERVICE, unitMapper::dictionaryToDto),
+                    dictionariesByKey(links, DictionaryKey.ACC_CONDITION, unitMapper::dictionaryToDto),
+                    unitTariffs,
+                    imageUrls(images.get(id), imageMapper::getPathToAccommodationUnitImage)));
+        }
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    private static <T> Map<Long, List<T>> groupByOwner(List<T> rows, Function<T, Long> ownerId) {
+        return rows.stream().collect(Collectors.groupingBy(ownerId));
+    }
+
+    private static Set<DictionaryResponse> dictionariesByKey(List<DictionaryLinkView> links, DictionaryKey key,
+                                                             Function<DictionaryLinkView, DictionaryResponse> toDto) {
+        return links.stream()
+                .filter(link -> link.getDictionaryKey() == key)
+                .map(toDto)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> imageUrls(List<ImageLinkView> images, Function<String, String> toPath) {
+        if (images == null) {
+            return Set.of();
+        }
+        return images.stream()
+                .map(image -> toPath.apply(image.getImageUrl()))
+                .collect(Collectors.toSet());
+    }
+}
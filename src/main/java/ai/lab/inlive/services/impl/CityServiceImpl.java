@@ -1,5 +1,6 @@
 package ai.lab.inlive.services.impl;
 
+import ai.lab.inlive.cache.ReferenceDataCache;
 import ai.lab.inlive.dto.response.CityResponse;
 import ai.lab.inlive.entities.City;
 import ai.lab.inlive.mappers.CityMapper;
@@ -18,6 +19,7 @@ import java.util.stream.Collectors;
 public class CityServiceImpl implements CityService {
     private final CityRepository cityRepository;
     private final CityMapper mapper;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     public List<CityResponse> getAllCities() {
@@ -27,4 +29,9 @@ public class CityServiceImpl implements CityService {
                 .map(mapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public long getCatalogVersion() {
+        return referenceDataCache.version();
+    }
 }
@@ -1,5 +1,6 @@
 package ai.lab.inlive.services.impl;
 
+import ai.lab.inlive.cache.ReferenceDataCache;
 import ai.lab.inlive.dto.params.DictionarySearchParams;
 import ai.lab.inlive.dto.request.DictionaryCreateRequest;
 import ai.lab.inlive.dto.request.DictionaryUpdateRequest;
@@ -8,6 +9,7 @@ import ai.lab.inlive.entities.Dictionary;
 import ai.lab.inlive.exceptions.DbObjectNotFoundException;
 import ai.lab.inlive.mappers.DictionaryMapper;
 import ai.lab.inlive.repositories.DictionaryRepository;
+import ai.lab.inlive.repositories.specifications.DictionarySpecifications;
 import ai.lab.inlive.services.DictionaryService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,7 @@ import org.springframework.stereotype.Service;
 public class DictionaryServiceImpl implements DictionaryService {
 
     private final DictionaryRepository dictionaryRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final DictionaryMapper mapper;
     private final MessageSource messageSource;
 
@@ -38,6 +41,7 @@ public class DictionaryServiceImpl implements DictionaryService {
         dictionary.setValue(request.getValue());
 
         Dictionary saved = dictionaryRepository.save(dictionary);
+        referenceDataCache.dictionariesChanged();
         log.info("Successfully created dictionary with ID: {}", saved.getId());
     }
 
@@ -54,11 +58,16 @@ public class DictionaryServiceImpl implements DictionaryService {
     public Page<DictionaryResponse> searchWithParams(DictionarySearchParams dictionarySearchParams, Pageable pageable) {
         log.info("Searching dictionaries with params: {}", dictionarySearchParams);
 
-        var dictionaries = dictionaryRepository.findWithFilters(dictionarySearchParams, pageable);
+        var dictionaries = dictionaryRepository.findAll(DictionarySpecifications.withFilters(dictionarySearchParams), pageable);
 
         return dictionaries.map(mapper::toDto);
     }
 
+    @Override
+    public long getCatalogVersion() {
+        return referenceDataCache.version();
+    }
+
     @Override
     @Transactional
     public void updateDictionary(Long id, DictionaryUpdateRequest request) {
@@ -85,6 +94,7 @@ public class DictionaryServiceImpl implements DictionaryService {
         }
 
         dictionaryRepository.save(dictionary);
+        referenceDataCache.dictionariesChanged();
         log.info("Successfully updated dictionary with ID: {}", id);
     }
 
@@ -100,6 +110,7 @@ public class DictionaryServiceImpl implements DictionaryService {
         dictionary.softDelete();
 
         dictionaryRepository.save(dictionary);
+        referenceDataCache.dictionariesChanged();
 
         log.info("Successfully deleted dictionary with ID: {}", id);
     }
@@ -1,11 +1,11 @@
 package ai.lab.inlive.services.impl;
 
+import ai.lab.inlive.cache.ReferenceDataCache;
+import ai.lab.inlive.cache.ReferenceDataCache.DistrictRef;
 import ai.lab.inlive.dto.response.DistrictResponse;
-import ai.lab.inlive.entities.District;
 import ai.lab.inlive.exceptions.DbObjectNotFoundException;
+import ai.lab.inlive.inventory.DistrictPriceStatistics;
 import ai.lab.inlive.mappers.DistrictMapper;
-import ai.lab.inlive.repositories.CityRepository;
-import ai.lab.inlive.repositories.DistrictRepository;
 import ai.lab.inlive.services.DistrictService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,25 +21,31 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class DistrictServiceImpl implements DistrictService {
-    private final DistrictRepository districtRepository;
-    private final CityRepository cityRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final DistrictPriceStatistics districtPriceStatistics;
     private final DistrictMapper mapper;
     private final MessageSource messageSource;
 
     @Override
     public List<DistrictResponse> getAllDistricts() {
         log.info("Fetching all districts");
-        List<District> districts = districtRepository.findAllByIsDeletedFalse();
+        List<DistrictRef> districts = referenceDataCache.findAllDistricts();
         return districts.stream()
-                .map(this::mapToResponseWithAvgPrice)
+                .map(this::mapToResponseWithPriceStats)
                 .collect(Collectors.toList());
     }
 
+    // Ответ зависит и от справочных данных, и от статистики цен
+    @Override
+    public Object getCatalogVersion() {
+        return List.of(referenceDataCache.version(), districtPriceStatistics.version());
+    }
+
     @Override
     public List<DistrictResponse> getDistrictsByCity(Long cityId) {
         log.info("Fetching districts for city ID: {}", cityId);
         
-        cityRepository.findByIdAndIsDeletedFalse(cityId)
+        referenceDataCache.findCity(cityId)
                 .orElseThrow(() -> new DbObjectNotFoundException(
                         HttpStatus.NOT_FOUND,
                         "CITY_NOT_FOUND",
@@ -47,14 +53,13 @@ public class DistrictServiceImpl implements DistrictService {
                                 new Object[]{cityId}, LocaleContextHolder.getLocale())
                 ));
         
-        List<District> districts = districtRepository.findByCityIdAndIsDeletedFalse(cityId);
+        List<DistrictRef> districts = referenceDataCache.findDistrictsByCity(cityId);
         return districts.stream()
-                .map(this::mapToResponseWithAvgPrice)
+                .map(this::mapToResponseWithPriceStats)
                 .collect(Collectors.toList());
     }
 
-    private DistrictResponse mapToResponseWithAvgPrice(District district) {
-        Double avgPrice = districtRepository.calculateAveragePriceByDistrictId(district.getId());
-        return mapper.toDtoWithAvgPrice(district, avgPrice);
+    private DistrictResponse mapToResponseWithPriceStats(DistrictRef district) {
+        return mapper.toDto(district, districtPriceStatistics.get(district.id()));
     }
 }
@@ -18,7 +18,10 @@ import ai.lab.inlive.repositories.AccSearchRequestRepository;
 import ai.lab.inlive.repositories.AccommodationUnitRepository;
 import ai.lab.inlive.repositories.PriceRequestRepository;
 import ai.lab.inlive.repositories.ReservationRepository;
+import ai.lab.inlive.security.PrincipalResolver;
 import ai.lab.inlive.services.PriceRequestService;
+import ai.lab.inlive.services.SearchRequestMatchService;
+import ai.lab.inlive.services.UnitOccupancyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
@@ -39,6 +42,9 @@ public class PriceRequestServiceImpl implements PriceRequestService {
     private final AccommodationUnitRepository accommodationUnitRepository;
     private final PriceRequestMapper priceRequestMapper;
     private final ReservationRepository reservationRepository;
+    private final SearchRequestMatchService searchRequestMatchService;
+    private final PrincipalResolver principalResolver;
+    private final UnitOccupancyService unitOccupancyService;
     private final MessageSource messageSource;
 
     @Override
@@ -76,6 +82,7 @@ public class PriceRequestServiceImpl implements PriceRequestService {
 
         searchRequest.setStatus(SearchRequestStatus.PRICE_REQUEST_PENDING);
         accSearchRequestRepository.save(searchRequest);
+        searchRequestMatchService.updateStatus(searchRequest.getId(), searchRequest.getStatus());
 
         priceRequestRepository.save(priceRequest);
         log.info("Successfully created price request with ID: {}", priceRequest.getId());
@@ -178,7 +185,10 @@ public class PriceRequestServiceImpl implements PriceRequestService {
                                 new Object[]{priceRequestId}, LocaleContextHolder.getLocale())));
 
         AccSearchRequest searchRequest = priceRequest.getSearchRequest();
-        if (!searchRequest.getAuthor().getKeycloakId().equals(clientId)) {
+        boolean isAuthor = principalResolver.findUserId(clientId)
+                .map(searchRequest.getAuthor().getId()::equals)
+                .orElse(false);
+        if (!isAuthor) {
             throw new DbObjectNotFoundException(HttpStatus.FORBIDDEN,
                     "ACCESS_DENIED",
                     messageSource.getMessage("services.priceRequest.accessDenied", null, LocaleContextHolder.getLocale()));
@@ -213,11 +223,13 @@ public class PriceRequestServiceImpl implements PriceRequestService {
                 reservation.setNeedToPay(false);
 
                 reservationRepository.save(reservation);
+                unitOccupancyService.occupy(reservation);
                 log.info("Automatically created reservation with status WAITING_TO_APPROVE for price request {}", priceRequestId);
             }
 
             searchRequest.setStatus(SearchRequestStatus.WAIT_TO_RESERVATION);
             accSearchRequestRepository.save(searchRequest);
+            searchRequestMatchService.updateStatus(searchRequest.getId(), searchRequest.getStatus());
             log.info("Search request {} status updated to WAIT_TO_RESERVATION", searchRequest.getId());
         }
 
@@ -0,0 +1,99 @@
+package ai.lab.inlive.services.impl;
+
+import ai.lab.inlive.cache.ReferenceDataCache;
+import ai.lab.inlive.cache.ReferenceDataCache.DictionaryRef;
+import ai.lab.inlive.entities.District;
+import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.exceptions.DbObjectNotFoundException;
+import ai.lab.inlive.repositories.DictionaryRepository;
+import ai.lab.inlive.repositories.DistrictRepository;
+import ai.lab.inlive.services.ReferenceDataResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataResolverImpl implements ReferenceDataResolver {
+
+    private final ReferenceDataCache referenceDataCache;
+    private final DistrictRepository districtRepository;
+    private final DictionaryRepository dictionaryRepository;
+    private final MessageSource messageSource;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<District> resolveDistricts(Collection<Long> districtIds) {
+        List<Long> ids = distinct(districtIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> missing = ids.stream().filter(id -> referenceDataCache.findDistrict(id).isEmpty()).toList();
+        if (!missing.isEmpty()) {
+            throw new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DISTRICT_NOT_FOUND",
+                    messageSource.getMessage("services.reference.districtsNotFound",
+                            new Object[]{join(missing)}, LocaleContextHolder.getLocale()));
+        }
+        // Существование проверено по снимку, в сущности нужны только ссылки для внешних ключей
+        return ids.stream().map(districtRepository::getReferenceById).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Amenities resolveAmenities(Collection<Long> serviceIds, Collection<Long> conditionIds) {
+        List<Long> services = distinct(serviceIds);
+        List<Long> conditions = distinct(conditionIds);
+        if (services.isEmpty() && conditions.isEmpty()) {
+            return new Amenities(List.of(), List.of());
+        }
+
+        Set<Long> requested = Stream.concat(services.stream(), conditions.stream()).collect(Collectors.toSet());
+        Map<Long, DictionaryRef> found = new HashMap<>();
+        requested.forEach(id -> referenceDataCache.findDictionary(id).ifPresent(ref -> found.put(id, ref)));
+
+        List<Long> missing = requested.stream().filter(id -> !found.containsKey(id)).sorted().toList();
+        if (!missing.isEmpty()) {
+            throw new DbObjectNotFoundException(HttpStatus.NOT_FOUND, "DICTIONARY_NOT_FOUND",
+                    messageSource.getMessage("services.reference.dictionariesNotFound",
+                            new Object[]{join(missing)}, LocaleContextHolder.getLocale()));
+        }
+
+        // Все id с неверным ключом собираются в одно сообщение
+        List<String> keyErrors = new ArrayList<>();
+        collectKeyErrors(services, DictionaryKey.ACC_SERVICE, found, keyErrors);
+        collectKeyErrors(conditions, DictionaryKey.ACC_CONDITION, found, keyErrors);
+        if (!keyErrors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", keyErrors));
+        }
+
+        return new Amenities(
+                services.stream().map(dictionaryRepository::getReferenceById).toList(),
+                conditions.stream().map(dictionaryRepository::getReferenceById).toList());
+    }
+
+    private void collectKeyErrors(List<Long> ids, DictionaryKey key, Map<Long, DictionaryRef> found, List<String> errors) {
+        List<Long> invalid = ids.stream().filter(id -> found.get(id).key() != key).toList();
+        if (!invalid.isEmpty()) {
+            errors.add(messageSource.getMessage("services.reference.invalidDictionaryKeys",
+                    new Object[]{join(invalid), key.name()}, LocaleContextHolder.getLocale()));
+        }
+    }
+
+    private static List<Long> distinct(Collection<Long> ids) {
+        return ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    private static String join(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(", "));
+    }
+}
@@ -1,5 +1,6 @@
 package ai.lab.inlive.services.impl;
 
+import ai.lab.inlive.dto.params.ReservationHistoryParams;
 import ai.lab.inlive.dto.request.ReservationCreateRequest;
 import ai.lab.inlive.dto.request.ReservationUpdateRequest;
 import ai.lab.inlive.dto.request.ReservationFinalStatusUpdateRequest;
@@ -12,12 +13,16 @@ import ai.lab.inlive.exceptions.DbObjectNotFoundException;
 import ai.lab.inlive.exceptions.ForbiddenException;
 import ai.lab.inlive.mappers.ReservationMapper;
 import ai.lab.inlive.repositories.*;
+import ai.lab.inlive.security.PrincipalResolver;
 import ai.lab.inlive.services.ReservationService;
+import ai.lab.inlive.services.SearchRequestMatchService;
+import ai.lab.inlive.services.UnitOccupancyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -38,6 +43,9 @@ public class ReservationServiceImpl implements ReservationService {
     private final AccommodationUnitRepository accommodationUnitRepository;
     private final AccommodationRepository accommodationRepository;
     private final ReservationMapper reservationMapper;
+    private final SearchRequestMatchService searchRequestMatchService;
+    private final PrincipalResolver principalResolver;
+    private final UnitOccupancyService unitOccupancyService;
     private final MessageSource messageSource;
 
     @Override
@@ -73,8 +81,10 @@ public class ReservationServiceImpl implements ReservationService {
         AccSearchRequest searchRequest = priceRequest.getSearchRequest();
         searchRequest.setStatus(SearchRequestStatus.WAIT_TO_RESERVATION);
         accSearchRequestRepository.save(searchRequest);
+        searchRequestMatchService.updateStatus(searchRequest.getId(), searchRequest.getStatus());
 
         reservationRepository.save(reservation);
+        unitOccupancyService.occupy(reservation);
         log.info("Successfully created reservation with ID: {} and status: {}",
                 reservation.getId(), reservation.getStatus());
     }
@@ -108,13 +118,16 @@ public class ReservationServiceImpl implements ReservationService {
             AccSearchRequest searchRequest = reservation.getSearchRequest();
             searchRequest.setStatus(SearchRequestStatus.FINISHED);
             accSearchRequestRepository.save(searchRequest);
+            searchRequestMatchService.updateStatus(searchRequest.getId(), searchRequest.getStatus());
             log.info("Reservation {} approved. Search request {} marked as FINISHED",
                     reservationId, searchRequest.getId());
         } else {
             log.info("Reservation {} rejected by SUPER_MANAGER", reservationId);
+            unitOccupancyService.release(reservation);
             AccSearchRequest searchRequest = reservation.getSearchRequest();
             searchRequest.setStatus(SearchRequestStatus.PRICE_REQUEST_PENDING);
             accSearchRequestRepository.save(searchRequest);
+            searchRequestMatchService.updateStatus(searchRequest.getId(), searchRequest.getStatus());
         }
 
         reservationRepository.save(reservation);
@@ -229,6 +242,10 @@ public class ReservationServiceImpl implements ReservationService {
 
         reservationRepository.save(reservation);
 
+        if (request.getStatus() == ReservationStatus.CLIENT_DIDNT_CAME) {
+            unitOccupancyService.release(reservation);
+        }
+
         if (request.getStatus() == ReservationStatus.FINISHED_SUCCESSFUL) {
             log.info("Reservation {} marked as FINISHED_SUCCESSFUL - client checked in successfully", reservationId);
         } else {
@@ -238,9 +255,19 @@ public class ReservationServiceImpl implements ReservationService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ReservationResponse> getMyReservations(String clientId, Pageable pageable) {
+    public Page<ReservationResponse> getMyReservations(String clientId, ReservationHistoryParams params, Pageable pageable) {
         log.info("Fetching reservations for client: {}", clientId);
-        Page<Reservation> reservations = reservationRepository.findByClientId(clientId, pageable);
+        var clientUserId = principalResolver.findUserId(clientId).orElse(null);
+        if (clientUserId == null) {
+            return Page.empty(pageable);
+        }
+        if (Boolean.TRUE.equals(params.getIncludeArchived())) {
+            // История с архивом всегда упорядочена по дате создания, сортировка из запроса не применяется
+            return reservationRepository.findHistoryByClientId(clientUserId,
+                            PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                    .map(reservationMapper::toDto);
+        }
+        Page<Reservation> reservations = reservationRepository.findByClientId(clientUserId, pageable);
         return reservations.map(reservationMapper::toDto);
     }
 
@@ -255,7 +282,10 @@ public class ReservationServiceImpl implements ReservationService {
                         messageSource.getMessage("services.reservation.notFound", 
                                 new Object[]{reservationId}, LocaleContextHolder.getLocale())));
 
-        if (!reservation.getApprovedBy().getKeycloakId().equals(clientId)) {
+        boolean isClient = principalResolver.findUserId(clientId)
+                .map(reservation.getApprovedBy().getId()::equals)
+                .orElse(false);
+        if (!isClient) {
             throw new ForbiddenException(
                     messageSource.getMessage("services.reservation.accessDenied", null, LocaleContextHolder.getLocale()));
         }
@@ -280,6 +310,7 @@ public class ReservationServiceImpl implements ReservationService {
 
         reservation.setStatus(ReservationStatus.CANCELED);
         reservationRepository.save(reservation);
+        unitOccupancyService.release(reservation);
 
         log.info("Successfully cancelled reservation {} by client {}", reservationId, clientId);
     }
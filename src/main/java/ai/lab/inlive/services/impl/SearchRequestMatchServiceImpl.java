@@ -0,0 +1,68 @@
+package ai.lab.inlive.services.impl;
+
+import ai.lab.inlive.entities.enums.SearchRequestStatus;
+import ai.lab.inlive.repositories.SearchRequestMatchRepository;
+import ai.lab.inlive.services.SearchRequestMatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchRequestMatchServiceImpl implements SearchRequestMatchService {
+    private static final int REMATCH_BATCH_SIZE = 500;
+
+    private final SearchRequestMatchRepository searchRequestMatchRepository;
+
+    // Дозаполняет совпадения всех открытых заявок: уже сохранённые строки не меняются
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOpenSearchRequests() {
+        int inserted = searchRequestMatchRepository.insertMatchesForOpenSearchRequests();
+        if (inserted > 0) {
+            log.info("Backfilled {} search request matches", inserted);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void matchSearchRequest(Long searchRequestId) {
+        int inserted = searchRequestMatchRepository.insertMatchesForSearchRequest(searchRequestId);
+        log.info("Search request {} matched {} accommodation units", searchRequestId, inserted);
+    }
+
+    @Override
+    @Transactional
+    public void updateStatus(Long searchRequestId, SearchRequestStatus status) {
+        searchRequestMatchRepository.updateStatusBySearchRequestId(searchRequestId, status);
+    }
+
+    @Override
+    @Transactional
+    public void updateStatuses(Collection<Long> searchRequestIds, SearchRequestStatus status) {
+        if (!searchRequestIds.isEmpty()) {
+            searchRequestMatchRepository.updateStatusBySearchRequestIds(searchRequestIds, status);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void rematchUnits(Collection<Long> unitIds) {
+        List<Long> ids = List.copyOf(unitIds);
+        int deleted = 0;
+        int inserted = 0;
+        for (int from = 0; from < ids.size(); from += REMATCH_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + REMATCH_BATCH_SIZE, ids.size()));
+            deleted += searchRequestMatchRepository.deleteByAccommodationsOfUnits(batch);
+            inserted += searchRequestMatchRepository.insertMatchesForAccommodationsOfUnits(batch);
+        }
+        log.debug("Rematched {} units: {} matches removed, {} inserted", ids.size(), deleted, inserted);
+    }
+}
@@ -0,0 +1,48 @@
+package ai.lab.inlive.services.impl;
+
+import ai.lab.inlive.entities.AccSearchRequest;
+import ai.lab.inlive.entities.Reservation;
+import ai.lab.inlive.repositories.UnitOccupancyRepository;
+import ai.lab.inlive.services.UnitOccupancyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import static ai.lab.inlive.constants.ValueConstants.ZONE_ID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnitOccupancyServiceImpl implements UnitOccupancyService {
+
+    private final UnitOccupancyRepository unitOccupancyRepository;
+    private final MessageSource messageSource;
+
+    @Override
+    @Transactional
+    public void occupy(Reservation reservation) {
+        AccSearchRequest searchRequest = reservation.getSearchRequest();
+        int inserted = unitOccupancyRepository.insertOccupancy(
+                reservation.getId(),
+                reservation.getUnit().getId(),
+                searchRequest.getFromDate().atZone(ZONE_ID).toEpochSecond(),
+                searchRequest.getToDate().atZone(ZONE_ID).toEpochSecond());
+
+        if (inserted == 0) {
+            throw new IllegalArgumentException(
+                    messageSource.getMessage("services.reservation.unitAlreadyReserved", null, LocaleContextHolder.getLocale()));
+        }
+        log.info("Unit {} occupied by reservation {}", reservation.getUnit().getId(), reservation.getId());
+    }
+
+    @Override
+    @Transactional
+    public void release(Reservation reservation) {
+        if (unitOccupancyRepository.deleteByReservationId(reservation.getId()) > 0) {
+            log.info("Unit {} released by reservation {}", reservation.getUnit().getId(), reservation.getId());
+        }
+    }
+}
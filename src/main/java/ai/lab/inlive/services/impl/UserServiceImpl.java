@@ -7,6 +7,7 @@ import ai.lab.inlive.exceptions.DbObjectNotFoundException;
 import ai.lab.inlive.mappers.ImageMapper;
 import ai.lab.inlive.mappers.UserMapper;
 import ai.lab.inlive.repositories.UserRepository;
+import ai.lab.inlive.security.PrincipalResolver;
 import ai.lab.inlive.security.keycloak.KeycloakBaseUser;
 import ai.lab.inlive.security.keycloak.KeycloakRole;
 import ai.lab.inlive.services.KeycloakService;
@@ -36,6 +37,7 @@ import static ai.lab.inlive.constants.ValueConstants.FILE_MANAGER_USER_PHOTOS_DI
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final PrincipalResolver principalResolver;
     private final KeycloakService keycloakService;
     private final EntityManager entityManager;
     private final MessageSource messageSource;
@@ -109,6 +111,7 @@ public class UserServiceImpl implements UserService {
 
         if(!usersToDeleteFromDB.isEmpty()){
             userRepository.deleteAll(usersToDeleteFromDB);
+            principalResolver.usersRemoved(usersToDeleteFromDB.stream().map(User::getKeycloakId).toList());
             entityManager.flush();
             entityManager.clear();
         }
@@ -0,0 +1,75 @@
+-- Архив завершённых заявок, предложений цены и бронирований.
+-- Таблицы секционированы по created_at (epoch-секунды) по годам, секции создаёт ensure_archive_partition.
+CREATE TABLE IF NOT EXISTS acc_search_request_archive (
+    id              BIGINT           NOT NULL,
+    created_at      BIGINT           NOT NULL,
+    updated_at      BIGINT           NOT NULL,
+    is_deleted      BOOLEAN          NOT NULL,
+    author_id       BIGINT           NOT NULL,
+    from_rating     DOUBLE PRECISION,
+    to_rating       DOUBLE PRECISION,
+    from_date       BIGINT,
+    to_date         BIGINT,
+    one_night       BOOLEAN,
+    price           DOUBLE PRECISION NOT NULL,
+    count_of_people INTEGER,
+    status          VARCHAR(255)     NOT NULL,
+    expires_at      BIGINT           NOT NULL,
+    district_ids    BIGINT[],
+    unit_types      VARCHAR(255)[],
+    dictionary_ids  BIGINT[],
+    archived_at     BIGINT           NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS price_request_archive (
+    id                     BIGINT           NOT NULL,
+    created_at             BIGINT           NOT NULL,
+    updated_at             BIGINT           NOT NULL,
+    is_deleted             BOOLEAN          NOT NULL,
+    acc_search_request_id  BIGINT           NOT NULL,
+    accommodation_unit_id  BIGINT           NOT NULL,
+    price                  DOUBLE PRECISION NOT NULL,
+    status                 VARCHAR(255)     NOT NULL,
+    client_response_status VARCHAR(255)     NOT NULL,
+    archived_at            BIGINT           NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS reservation_archive (
+    id                BIGINT       NOT NULL,
+    created_at        BIGINT       NOT NULL,
+    updated_at        BIGINT       NOT NULL,
+    is_deleted        BOOLEAN      NOT NULL,
+    client_id         BIGINT       NOT NULL,
+    acc_unit_id       BIGINT       NOT NULL,
+    price_request_id  BIGINT       NOT NULL,
+    search_request_id BIGINT       NOT NULL,
+    status            VARCHAR(255) NOT NULL,
+    is_need_to_pay    BOOLEAN,
+    archived_at       BIGINT       NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_archive_client ON reservation_archive (client_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_price_request_archive_search_request ON price_request_archive (acc_search_request_id);
+CREATE INDEX IF NOT EXISTS idx_acc_search_request_archive_author ON acc_search_request_archive (author_id, created_at);
+
+-- Секции одного года во всех архивных таблицах. Границы года в epoch-секундах передаёт приложение:
+-- они считаются в его поясе (ValueConstants.ZONE_ID), как и хранимые epoch-секунды
+DROP FUNCTION IF EXISTS ensure_archive_partitions(INT, INT);
+
+CREATE OR REPLACE FUNCTION ensure_archive_partition(y INT, from_second BIGINT, to_second BIGINT) RETURNS INT AS '
+DECLARE
+    parent TEXT;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY[''acc_search_request_archive'', ''price_request_archive'', ''reservation_archive''] LOOP
+        EXECUTE format(''CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%s) TO (%s)'',
+                       parent || ''_'' || y,
+                       parent,
+                       from_second,
+                       to_second);
+    END LOOP;
+    RETURN y;
+END
+' LANGUAGE plpgsql;
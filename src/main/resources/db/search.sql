@@ -0,0 +1,17 @@
+-- Триграммные GIN-индексы: поиск по подстроке (ILIKE) и нечёткий поиск по словам (%>) без полного сканирования
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_accommodations_name_trgm
+    ON accommodations USING gin (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_accommodations_address_trgm
+    ON accommodations USING gin (address gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_accommodations_description_trgm
+    ON accommodations USING gin (description gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_accommodation_units_name_trgm
+    ON accommodation_units USING gin (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_accommodation_units_description_trgm
+    ON accommodation_units USING gin (description gin_trgm_ops);
@@ -0,0 +1,45 @@
+-- Правила совпадения заявки на поиск и единицы размещения - единственное место, где они описаны.
+-- Статус и срок заявки фильтруют запросы, которые заполняют search_request_match.
+-- Единица подходит по району, рейтингу и типу, а все услуги и условия заявки есть у активных единиц объекта
+-- (не обязательно у одной) - так заявки отбирались для страницы объекта.
+-- covered_by_unit - все услуги и условия есть у самой единицы, это нужно для страницы единицы
+CREATE OR REPLACE VIEW search_request_unit_candidate AS
+SELECT asr.id AS search_request_id, au.id AS unit_id, acc.id AS accommodation_id,
+       asr.status AS status, asr.expires_at AS expires_at, asr.is_deleted AS search_request_deleted,
+       NOT EXISTS (
+           SELECT 1 FROM acc_search_request_dictionary asrdict
+           INNER JOIN dictionaries d ON d.id = asrdict.dictionary_id AND d."key" IN ('ACC_SERVICE', 'ACC_CONDITION')
+           WHERE asrdict.search_request_id = asr.id
+             AND asrdict.is_deleted = FALSE
+             AND NOT EXISTS (
+                 SELECT 1 FROM acc_unit_dictionary aud
+                 WHERE aud.accommodation_unit_id = au.id
+                   AND aud.dictionary_id = d.id
+                   AND aud.is_deleted = FALSE
+             )
+       ) AS covered_by_unit
+FROM acc_search_request asr
+INNER JOIN acc_search_request_district asrd ON asrd.search_request_id = asr.id AND asrd.is_deleted = FALSE
+INNER JOIN accommodations acc ON acc.district_id = asrd.district_id AND acc.is_deleted = FALSE
+INNER JOIN accommodation_units au ON au.acc_id = acc.id AND au.is_deleted = FALSE
+WHERE (asr.from_rating IS NULL OR acc.rating >= asr.from_rating)
+  AND (asr.to_rating IS NULL OR acc.rating <= asr.to_rating)
+  AND EXISTS (
+      SELECT 1 FROM acc_search_request_unit_type asrut
+      WHERE asrut.search_request_id = asr.id
+        AND asrut.unit_type = au.unit_type
+        AND asrut.is_deleted = FALSE
+  )
+  AND NOT EXISTS (
+      SELECT 1 FROM acc_search_request_dictionary asrdict
+      INNER JOIN dictionaries d ON d.id = asrdict.dictionary_id AND d."key" IN ('ACC_SERVICE', 'ACC_CONDITION')
+      WHERE asrdict.search_request_id = asr.id
+        AND asrdict.is_deleted = FALSE
+        AND NOT EXISTS (
+            SELECT 1 FROM acc_unit_dictionary aud
+            INNER JOIN accommodation_units au2 ON au2.id = aud.accommodation_unit_id
+                AND au2.acc_id = acc.id AND au2.is_deleted = FALSE
+            WHERE aud.dictionary_id = d.id
+              AND aud.is_deleted = FALSE
+        )
+  );
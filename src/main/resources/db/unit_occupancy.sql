@@ -0,0 +1,25 @@
+-- Запрет пересечения периодов занятости одной единицы размещения (GiST-индекс создаётся вместе с ограничением)
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''unit_occupancy_no_overlap'') THEN
+        ALTER TABLE unit_occupancy
+            ADD CONSTRAINT unit_occupancy_no_overlap
+            EXCLUDE USING gist (unit_id WITH =, int8range(from_date, to_date) WITH &&);
+    END IF;
+END
+';
+
+-- Однократный перенос занятости по уже существующим бронированиям, пересекающиеся брони пропускаются.
+-- Скрипт выполняется при каждом старте, поэтому перенос идёт только в пустую таблицу
+INSERT INTO unit_occupancy (reservation_id, unit_id, from_date, to_date)
+SELECT r.id, r.acc_unit_id, sr.from_date, sr.to_date
+FROM reservation r
+INNER JOIN acc_search_request sr ON sr.id = r.search_request_id
+WHERE r.is_deleted = FALSE
+  AND r.status IN ('WAITING_TO_APPROVE', 'APPROVED', 'FINISHED_SUCCESSFUL')
+  AND sr.to_date > sr.from_date
+  AND NOT EXISTS (SELECT 1 FROM unit_occupancy)
+ORDER BY r.created_at
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,12 @@
+-- Статусы EXPIRED добавлены позже создания таблиц: снимаем CHECK-ограничения, которые Hibernate не обновляет
+ALTER TABLE reservation DROP CONSTRAINT IF EXISTS reservation_status_check;
+ALTER TABLE price_request DROP CONSTRAINT IF EXISTS price_request_client_response_status_check;
+
+-- Частичные индексы только по живым строкам, которые просматривает чистильщик
+CREATE INDEX IF NOT EXISTS idx_reservation_live_status
+    ON reservation (status, search_request_id)
+    WHERE is_deleted = FALSE AND status IN ('WAITING_TO_APPROVE', 'APPROVED');
+
+CREATE INDEX IF NOT EXISTS idx_price_request_waiting
+    ON price_request (acc_search_request_id)
+    WHERE is_deleted = FALSE AND client_response_status = 'WAITING';
@@ -0,0 +1,86 @@
+package ai.lab.inlive.config.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeSortedIdsTests {
+    private static final long NOW = TimeSortedIds.EPOCH + 1_000;
+
+    @Test
+    void packsTimestampNodeAndSequence() {
+        TimeSortedIds ids = new TimeSortedIds(5, () -> NOW);
+
+        long first = ids.nextId();
+        long second = ids.nextId();
+
+        assertThat(first >>> (TimeSortedIds.NODE_BITS + TimeSortedIds.SEQUENCE_BITS)).isEqualTo(1_000);
+        assertThat((first >>> TimeSortedIds.SEQUENCE_BITS) & TimeSortedIds.MAX_NODE).isEqualTo(5);
+        assertThat(first & TimeSortedIds.MAX_SEQUENCE).isZero();
+        assertThat(second & TimeSortedIds.MAX_SEQUENCE).isEqualTo(1);
+    }
+
+    @Test
+    void movesToNextMillisecondAfter256IdsInOne() {
+        AtomicInteger calls = new AtomicInteger();
+        // 257-й id в той же миллисекунде переполняет счётчик, генератор ждёт следующую
+        TimeSortedIds ids = new TimeSortedIds(0, () -> calls.incrementAndGet() <= 257 ? NOW : NOW + 1);
+
+        long previous = -1;
+        for (int i = 0; i < 256; i++) {
+            long id = ids.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        long rolled = ids.nextId();
+
+        assertThat(previous & TimeSortedIds.MAX_SEQUENCE).isEqualTo(255);
+        assertThat(rolled).isGreaterThan(previous);
+        assertThat(rolled & TimeSortedIds.MAX_SEQUENCE).isZero();
+        assertThat(rolled >>> (TimeSortedIds.NODE_BITS + TimeSortedIds.SEQUENCE_BITS)).isEqualTo(1_001);
+    }
+
+    @Test
+    void keepsOrderWhenClockGoesBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeSortedIds ids = new TimeSortedIds(0, clock::get);
+
+        long before = ids.nextId();
+        clock.set(NOW - 500);
+        long after = ids.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(after >>> (TimeSortedIds.NODE_BITS + TimeSortedIds.SEQUENCE_BITS)).isEqualTo(1_000);
+    }
+
+    @Test
+    void differentNodesNeverCollideInSameMillisecond() {
+        TimeSortedIds first = new TimeSortedIds(1, () -> NOW);
+        TimeSortedIds second = new TimeSortedIds(2, () -> NOW);
+
+        for (int i = 0; i < 256; i++) {
+            assertThat(first.nextId()).isNotEqualTo(second.nextId());
+        }
+    }
+
+    @Test
+    void fitsInJavaScriptSafeIntegerForDecades() {
+        long sixtyYears = 60L * 365 * 24 * 3600 * 1000;
+        TimeSortedIds ids = new TimeSortedIds(TimeSortedIds.MAX_NODE, () -> TimeSortedIds.EPOCH + sixtyYears);
+
+        assertThat(ids.nextId()).isLessThan(1L << 53);
+    }
+
+    @Test
+    void rejectsMissingOrInvalidNode() {
+        assertThatThrownBy(() -> TimeSortedIds.parseNode(null)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> TimeSortedIds.parseNode(" ")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> TimeSortedIds.parseNode("node-1")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new TimeSortedIds(16, () -> NOW)).isInstanceOf(IllegalStateException.class);
+        assertThat(TimeSortedIds.parseNode(" 7 ")).isEqualTo(7);
+    }
+}
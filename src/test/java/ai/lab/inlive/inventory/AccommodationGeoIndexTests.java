@@ -0,0 +1,115 @@
+package ai.lab.inlive.inventory;
+
+import ai.lab.inlive.repositories.AccommodationRepository;
+import ai.lab.inlive.repositories.projections.AccommodationLocationView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccommodationGeoIndexTests {
+
+    @Test
+    void cellsOfNegativeCoordinatesRoundDown() {
+        assertThat(AccommodationGeoIndex.cell(0.01)).isZero();
+        assertThat(AccommodationGeoIndex.cell(-0.01)).isEqualTo(-1);
+        assertThat(AccommodationGeoIndex.cell(-0.02)).isEqualTo(-1);
+        assertThat(AccommodationGeoIndex.cell(-179.99)).isEqualTo(-9000);
+    }
+
+    @Test
+    void keysOfNegativeCellsDoNotCollide() {
+        long key = AccommodationGeoIndex.key(-1, -1);
+
+        assertThat(key).isNotEqualTo(AccommodationGeoIndex.key(-1, 0));
+        assertThat(key).isNotEqualTo(AccommodationGeoIndex.key(0, -1));
+        assertThat(key >> 32).isEqualTo(-1);
+        assertThat((int) key).isEqualTo(-1);
+        assertThat(AccommodationGeoIndex.key(4500, -9000) >> 32).isEqualTo(4500);
+        assertThat((int) AccommodationGeoIndex.key(4500, -9000)).isEqualTo(-9000);
+    }
+
+    @Test
+    void findsPointsAroundNegativeLongitude() {
+        List<AccommodationLocationView> views = new ArrayList<>(List.of(
+                point(1L, 40.7580, -73.9855),
+                point(2L, 40.7484, -73.9857),
+                point(3L, 40.6892, -74.0445)));
+        // Заполненных ячеек больше, чем накрывает радиус, - обход идёт по ячейкам области
+        for (long id = 10; id < 30; id++) {
+            views.add(point(id, -33.0 - id * 0.1, -70.0));
+        }
+        AccommodationGeoIndex index = index(views.toArray(AccommodationLocationView[]::new));
+
+        assertThat(index.findIds(radius(40.7580, -73.9855, 2_000)).orElseThrow().ids())
+                .containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void findsPointsAcrossZeroMeridianInWideArea() {
+        // Область шире заполненной части сетки - обход идёт по непустым ячейкам
+        AccommodationGeoIndex index = index(
+                point(1L, 51.5007, -0.1246),
+                point(2L, 48.8584, 2.2945),
+                point(3L, -33.8568, 151.2153));
+        GeoFilter europe = new GeoFilter(null, null, null, 35.0, 60.0, -10.0, 20.0);
+
+        assertThat(index.findIds(europe).orElseThrow().ids()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void returnsEmptyWhenTooManyCandidates() {
+        List<AccommodationLocationView> views = new ArrayList<>();
+        for (long id = 0; id < 2_001; id++) {
+            views.add(point(id, 43.2 + id * 1e-5, 76.9));
+        }
+        AccommodationGeoIndex index = index(views.toArray(AccommodationLocationView[]::new));
+
+        assertThat(index.findIds(radius(43.21, 76.9, 5_000))).isEmpty();
+    }
+
+    @Test
+    void emptyBoundsGiveNoCandidates() {
+        AccommodationGeoIndex index = index(point(1L, 43.0, 76.0));
+        GeoFilter disjoint = new GeoFilter(43.0, 76.0, 1_000.0, 50.0, 51.0, 70.0, 71.0);
+
+        assertThat(index.findIds(disjoint).orElseThrow().ids()).isEmpty();
+    }
+
+    private static AccommodationGeoIndex index(AccommodationLocationView... views) {
+        AccommodationRepository repository = mock(AccommodationRepository.class);
+        when(repository.findLocationViews()).thenReturn(List.of(views));
+        AccommodationGeoIndex index = new AccommodationGeoIndex(repository);
+        index.reload();
+        return index;
+    }
+
+    private static GeoFilter radius(double latitude, double longitude, double meters) {
+        return new GeoFilter(latitude, longitude, meters, null, null, null, null);
+    }
+
+    private static AccommodationLocationView point(Long id, double latitude, double longitude) {
+        return new Location(id, latitude, longitude);
+    }
+
+    private record Location(Long id, Double latitude, Double longitude) implements AccommodationLocationView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        @Override
+        public Double getLongitude() {
+            return longitude;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ai.lab.inlive.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DictionaryBitmapTests {
+
+    @Test
+    void setGrowsToWordOfOrdinal() {
+        long[] bits = DictionaryBitmap.set(DictionaryBitmap.EMPTY, 64);
+
+        assertThat(bits).hasSize(2);
+        assertThat(bits[0]).isZero();
+        assertThat(bits[1]).isEqualTo(1L);
+    }
+
+    @Test
+    void setDoesNotModifySharedEmptyMask() {
+        DictionaryBitmap.set(DictionaryBitmap.EMPTY, 3);
+
+        assertThat(DictionaryBitmap.EMPTY).isEmpty();
+    }
+
+    @Test
+    void setKeepsBitsOfLowerWords() {
+        long[] bits = DictionaryBitmap.set(DictionaryBitmap.EMPTY, 63);
+        bits = DictionaryBitmap.set(bits, 130);
+
+        assertThat(bits).hasSize(3);
+        assertThat(bits[0]).isEqualTo(Long.MIN_VALUE);
+        assertThat(bits[2]).isEqualTo(1L << 2);
+    }
+
+    @Test
+    void containsAllChecksOrdinalsAbove63() {
+        long[] present = DictionaryBitmap.set(DictionaryBitmap.set(DictionaryBitmap.EMPTY, 5), 70);
+
+        assertThat(DictionaryBitmap.containsAll(DictionaryBitmap.set(DictionaryBitmap.EMPTY, 70), present)).isTrue();
+        assertThat(DictionaryBitmap.containsAll(DictionaryBitmap.set(DictionaryBitmap.EMPTY, 71), present)).isFalse();
+    }
+
+    @Test
+    void containsAllTreatsMissingWordsAsEmpty() {
+        long[] present = DictionaryBitmap.set(DictionaryBitmap.EMPTY, 1);
+        long[] required = DictionaryBitmap.set(DictionaryBitmap.EMPTY, 200);
+
+        assertThat(DictionaryBitmap.containsAll(required, present)).isFalse();
+        assertThat(DictionaryBitmap.containsAll(DictionaryBitmap.EMPTY, present)).isTrue();
+        assertThat(DictionaryBitmap.containsAll(DictionaryBitmap.EMPTY, DictionaryBitmap.EMPTY)).isTrue();
+    }
+
+    @Test
+    void containsAllIgnoresExtraPresentWords() {
+        long[] present = DictionaryBitmap.set(DictionaryBitmap.set(DictionaryBitmap.EMPTY, 2), 300);
+        long[] required = DictionaryBitmap.set(DictionaryBitmap.EMPTY, 2);
+
+        assertThat(DictionaryBitmap.containsAll(required, present)).isTrue();
+    }
+
+    @Test
+    void ordinalsEncodeDictionaryIdsStably() {
+        DictionaryOrdinals ordinals = new DictionaryOrdinals();
+        long[] first = ordinals.encode(List.of(1000L, 2000L));
+        long[] second = ordinals.encode(List.of(2000L));
+
+        assertThat(ordinals.ordinalOf(1000L)).isZero();
+        assertThat(ordinals.ordinalOf(2000L)).isEqualTo(1);
+        assertThat(DictionaryBitmap.containsAll(second, first)).isTrue();
+        assertThat(DictionaryBitmap.containsAll(first, second)).isFalse();
+    }
+}
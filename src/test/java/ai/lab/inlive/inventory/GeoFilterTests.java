@@ -0,0 +1,83 @@
+package ai.lab.inlive.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoFilterTests {
+
+    @Test
+    void distanceOfOneDegreeOfLatitude() {
+        assertThat(GeoFilter.distanceMeters(0, 0, 1, 0)).isCloseTo(111_195, within(1.0));
+        assertThat(GeoFilter.distanceMeters(43.2, 76.9, 43.2, 76.9)).isZero();
+    }
+
+    @Test
+    void distanceAcrossAntimeridian() {
+        assertThat(GeoFilter.distanceMeters(0, 179.5, 0, -179.5)).isCloseTo(111_195, within(1.0));
+    }
+
+    @Test
+    void radiusContainsOnlyPointsWithinDistance() {
+        GeoFilter filter = radius(43.238, 76.945, 2_000);
+
+        assertThat(filter.contains(43.238, 76.945)).isTrue();
+        assertThat(filter.contains(43.250, 76.945)).isTrue();
+        assertThat(filter.contains(43.260, 76.945)).isFalse();
+    }
+
+    @Test
+    void radiusBoundsCoverCircle() {
+        GeoFilter filter = radius(60, -30, 10_000);
+        GeoFilter.Bounds bounds = filter.bounds();
+
+        double latitudeDelta = Math.toDegrees(10_000 / GeoFilter.EARTH_RADIUS_METERS);
+        assertThat(bounds.south()).isCloseTo(60 - latitudeDelta, within(1e-9));
+        assertThat(bounds.north()).isCloseTo(60 + latitudeDelta, within(1e-9));
+        // На широте 60° градус долготы вдвое короче градуса широты
+        assertThat(bounds.east() - (-30)).isCloseTo(2 * latitudeDelta, within(1e-9));
+        assertThat(filter.contains(60, bounds.east() - 1e-6)).isTrue();
+    }
+
+    @Test
+    void radiusNearPoleCoversAllLongitudes() {
+        GeoFilter.Bounds bounds = radius(90, 10, 1_000).bounds();
+
+        assertThat(bounds.west()).isEqualTo(-180);
+        assertThat(bounds.east()).isEqualTo(180);
+        assertThat(bounds.north()).isEqualTo(90);
+    }
+
+    @Test
+    void boundsIntersectCircleWithBox() {
+        GeoFilter filter = new GeoFilter(43.0, 76.0, 50_000.0, 43.1, 44.0, 75.0, 76.1);
+        GeoFilter.Bounds bounds = filter.bounds();
+
+        assertThat(bounds.south()).isEqualTo(43.1);
+        assertThat(bounds.east()).isEqualTo(76.1);
+        assertThat(filter.contains(43.05, 76.0)).isFalse();
+        assertThat(filter.contains(43.2, 76.05)).isTrue();
+    }
+
+    @Test
+    void disjointCircleAndBoxGiveEmptyBounds() {
+        GeoFilter filter = new GeoFilter(43.0, 76.0, 1_000.0, 50.0, 51.0, 70.0, 71.0);
+
+        assertThat(filter.bounds().isEmpty()).isTrue();
+    }
+
+    @Test
+    void boxWithoutOriginHasNoRadius() {
+        GeoFilter filter = new GeoFilter(null, null, null, -10.0, 10.0, -20.0, -5.0);
+
+        assertThat(filter.hasArea()).isTrue();
+        assertThat(filter.hasRadius()).isFalse();
+        assertThat(filter.contains(0, -10)).isTrue();
+        assertThat(filter.contains(0, 5)).isFalse();
+    }
+
+    private static GeoFilter radius(double latitude, double longitude, double meters) {
+        return new GeoFilter(latitude, longitude, meters, null, null, null, null);
+    }
+}
@@ -0,0 +1,133 @@
+package ai.lab.inlive.mappers;
+
+import ai.lab.inlive.cache.ReferenceDataCache;
+import ai.lab.inlive.dto.response.FacetBucketResponse;
+import ai.lab.inlive.dto.response.SearchFacetsResponse;
+import ai.lab.inlive.entities.enums.DictionaryKey;
+import ai.lab.inlive.repositories.projections.FacetCountView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchFacetMapperTests {
+
+    private final ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+    private final SearchFacetMapper mapper = new SearchFacetMapper(referenceDataCache);
+
+    @Test
+    void priceBucketsHaveOpenOuterBounds() {
+        SearchFacetsResponse response = mapper.toResponse(10, List.of(
+                count("PRICE", "4", 1),
+                count("PRICE", "0", 2),
+                count("PRICE", "2", 3)));
+
+        assertThat(response.getPrices())
+                .extracting(FacetBucketResponse::getValue, FacetBucketResponse::getLabel,
+                        FacetBucketResponse::getFrom, FacetBucketResponse::getTo, FacetBucketResponse::getCount)
+                .containsExactly(
+                        tuple("0", "< 10000", null, 10_000d, 2L),
+                        tuple("2", "20000 - 50000", 20_000d, 50_000d, 3L),
+                        tuple("4", "100000+", 100_000d, null, 1L));
+    }
+
+    @Test
+    void everyPriceBucketMatchesTheBounds() {
+        Double[] bounds = mapper.priceBounds();
+        List<FacetCountView> counts = IntStream.rangeClosed(0, bounds.length)
+                .mapToObj(bucket -> count("PRICE", String.valueOf(bucket), 1))
+                .toList();
+
+        List<FacetBucketResponse> prices = mapper.toResponse(bounds.length + 1, counts).getPrices();
+
+        assertThat(prices).hasSize(bounds.length + 1);
+        for (int bucket = 1; bucket < prices.size(); bucket++) {
+            assertThat(prices.get(bucket).getFrom()).isEqualTo(bounds[bucket - 1]);
+            assertThat(prices.get(bucket - 1).getTo()).isEqualTo(bounds[bucket - 1]);
+        }
+    }
+
+    @Test
+    void priceBoundsAreACopy() {
+        mapper.priceBounds()[0] = 1d;
+
+        assertThat(mapper.priceBounds()[0]).isEqualTo(10_000d);
+    }
+
+    @Test
+    void ratingsAreSortedNumerically() {
+        SearchFacetsResponse response = mapper.toResponse(3, List.of(
+                count("RATING", "10", 1),
+                count("RATING", "4", 1),
+                count("RATING", "4.5", 1)));
+
+        assertThat(response.getRatings()).extracting(FacetBucketResponse::getLabel)
+                .containsExactly("4 - 5", "4.5 - 5.5", "10 - 11");
+    }
+
+    @Test
+    void bucketsAreSortedByCountAndSkipNullValues() {
+        when(referenceDataCache.findDistrict(1L)).thenReturn(Optional.of(new ReferenceDataCache.DistrictRef(1L, 1L, "Алмалинский")));
+        when(referenceDataCache.findDistrict(2L)).thenReturn(Optional.of(new ReferenceDataCache.DistrictRef(2L, 1L, "Бостандыкский")));
+
+        SearchFacetsResponse response = mapper.toResponse(9, List.of(
+                count("DISTRICT", "1", 2),
+                count("DISTRICT", null, 4),
+                count("DISTRICT", "2", 3)));
+
+        assertThat(response.getDistricts()).extracting(FacetBucketResponse::getLabel)
+                .containsExactly("Бостандыкский", "Алмалинский");
+        assertThat(response.getDistricts()).allSatisfy(bucket -> assertThat(bucket.getFrom()).isNull());
+    }
+
+    @Test
+    void dictionaryFacetsAreSplitByKey() {
+        when(referenceDataCache.findDictionary(5L)).thenReturn(Optional.of(new ReferenceDataCache.DictionaryRef(5L, DictionaryKey.ACC_SERVICE, "Wi-Fi")));
+        when(referenceDataCache.findDictionary(6L)).thenReturn(Optional.of(new ReferenceDataCache.DictionaryRef(6L, DictionaryKey.ACC_CONDITION, "Без животных")));
+
+        SearchFacetsResponse response = mapper.toResponse(2, List.of(
+                count(DictionaryKey.ACC_SERVICE.name(), "5", 2),
+                count(DictionaryKey.ACC_CONDITION.name(), "6", 1)));
+
+        assertThat(response.getServices()).extracting(FacetBucketResponse::getLabel).containsExactly("Wi-Fi");
+        assertThat(response.getConditions()).extracting(FacetBucketResponse::getLabel).containsExactly("Без животных");
+    }
+
+    @Test
+    void missingFacetsAreEmptyLists() {
+        SearchFacetsResponse response = mapper.toResponse(25_000, List.of());
+
+        assertThat(response.getTotal()).isEqualTo(25_000);
+        assertThat(response.getDistricts()).isEmpty();
+        assertThat(response.getUnitTypes()).isEmpty();
+        assertThat(response.getServices()).isEmpty();
+        assertThat(response.getConditions()).isEmpty();
+        assertThat(response.getRatings()).isEmpty();
+        assertThat(response.getPrices()).isEmpty();
+    }
+
+    private static FacetCountView count(String facet, String value, long count) {
+        return new FacetCountView() {
+            @Override
+            public String getFacet() {
+                return facet;
+            }
+
+            @Override
+            public String getValue() {
+                return value;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}